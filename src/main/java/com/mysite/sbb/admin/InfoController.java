@@ -2,7 +2,11 @@ package com.mysite.sbb.admin;
 
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserRepository;
+import com.mysite.sbb.util.ConditionalGet;
+import com.mysite.sbb.util.ResourceVersions;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -17,22 +21,26 @@ public class InfoController {
 
     private final InfoService infoService;
     private final UserRepository userRepository;
+    private final ResourceVersions resourceVersions;
 
-    // ✅ 소개글 조회 (비로그인 포함 전부 가능)
+    // ✅ 소개글 조회 (비로그인 포함 전부 가능), 수정 전까지는 304
     @GetMapping
-    public ResponseEntity<?> getInfo() {
-        InfoEntity info = infoService.getInfo();
+    public ResponseEntity<Map<String, Object>> getInfo(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = "i" + resourceVersions.current(ResourceVersions.INFO);
+        return ConditionalGet.respond(ifNoneMatch, etag, CacheControl.noCache().cachePublic(), () -> {
+            InfoEntity info = infoService.getInfo();
 
-        if (info == null) {
-            return ResponseEntity.ok(new HashMap<>());
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("content", info.getContent());
-        result.put("modifierName", info.getModifierName());
-        result.put("updatedAt", info.getUpdatedAt());
+            Map<String, Object> result = new HashMap<>();
+            if (info == null) {
+                return result;
+            }
 
-        return ResponseEntity.ok(result);
+            result.put("content", info.getContent());
+            result.put("modifierName", info.getModifierName());
+            result.put("updatedAt", info.getUpdatedAt());
+            return result;
+        });
     }
 
     // ✅ 소개글 수정 (관리자만)
@@ -1,5 +1,6 @@
 package com.mysite.sbb.admin;
 
+import com.mysite.sbb.util.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 public class InfoService {
 
     private final InfoRepository infoRepository;
+    private final ResourceVersions resourceVersions;
 
     public InfoEntity getInfo() {
         return infoRepository.findTopByOrderByIdAsc().orElse(null);
@@ -26,5 +28,6 @@ public class InfoService {
         info.setUpdatedAt(LocalDateTime.now());
 
         infoRepository.save(info);
+        resourceVersions.bump(ResourceVersions.INFO);
     }
 }
\ No newline at end of file
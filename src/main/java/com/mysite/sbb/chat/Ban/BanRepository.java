@@ -13,8 +13,17 @@ public interface BanRepository extends JpaRepository<BanEntity, Long> {
 
     /**
      * 유저 1명당 밴 1개 조회 (상태 조회용)
+     * <p>
+     * username 유니크 인덱스로 유저를 찾은 뒤 user_id 로 밴을 찾도록 INNER JOIN 으로 작성
+     * (파생 쿼리의 LEFT JOIN 은 chat_ban 전체를 훑음)
      */
-    Optional<BanEntity> findByUser_Username(String username);
+    @Query("""
+                SELECT b
+                FROM BanEntity b
+                JOIN b.user u
+                WHERE u.username = :username
+            """)
+    Optional<BanEntity> findByUser_Username(@Param("username") String username);
 
     /**
      * 밴 덮어쓰기용 (관리자 밴 처리)
@@ -44,12 +53,18 @@ public interface BanRepository extends JpaRepository<BanEntity, Long> {
 
     /**
      * 현재 밴 중인 유저 전부 (스케줄러용)
+     * <p>
+     * "IS NULL OR > :now" 를 한 조건으로 쓰면 expire_date 인덱스를 못 쓰는 DB 가 있어
+     * 영구 밴 / 기간 밴 두 범위로 나눠 UNION ALL (두 조건은 겹치지 않으므로 중복 없음)
      */
     @Query("""
                 SELECT b.user.username
                 FROM BanEntity b
                 WHERE b.expireDate IS NULL
-                   OR b.expireDate > :now
+                UNION ALL
+                SELECT b.user.username
+                FROM BanEntity b
+                WHERE b.expireDate > :now
             """)
     List<String> findAllActiveUsers(@Param("now") LocalDateTime now);
 
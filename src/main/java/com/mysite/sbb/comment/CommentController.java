@@ -2,11 +2,15 @@ package com.mysite.sbb.comment;
 
 import com.mysite.sbb.config.Clean;
 import com.mysite.sbb.jwt.Oauth.PrincipalDetails;
+import com.mysite.sbb.util.ConditionalGet;
+import com.mysite.sbb.util.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -20,15 +24,25 @@ public class CommentController {
 
     private final CommentService commentService;
     private final Clean clean;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping("/{company}/comments")
     public ResponseEntity<Page<CommentResponse>> getComments(
             @PathVariable String company,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
-            Authentication auth
+            Authentication auth,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         String username = (auth != null) ? auth.getName() : null;
 
+        // 응답에 내 반응(userReaction)이 들어가므로 사용자별 ETag + private
+        String etag = "c" + resourceVersions.current(ResourceVersions.comments(company))
+                + "-" + (username == null ? "anon" : Integer.toHexString(username.hashCode()));
+        return ConditionalGet.respond(ifNoneMatch, etag, CacheControl.noCache().cachePrivate(),
+                () -> filteredCommentPage(company, pageable, username));
+    }
+
+    private Page<CommentResponse> filteredCommentPage(String company, Pageable pageable, String username) {
         Page<CommentResponse> comments =
                 commentService.getCommentPageByCompany(company, pageable, username);
 
@@ -45,7 +59,7 @@ public class CommentController {
                 )
         );
 
-        return ResponseEntity.ok(filtered);
+        return filtered;
     }
 
     @GetMapping("/user/{username}/comments")
@@ -15,13 +15,30 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
     /**
      * 특정 회사에 달린 댓글 전체 조회
      * → 최신순 정렬
+     * <p>
+     * 파생 쿼리의 LEFT JOIN 대신 INNER JOIN 으로 작성해서
+     * 회사 기사 → (news_id, created_at) 인덱스 순서로 읽도록 한다.
      */
-    List<CommentEntity> findByNews_CompanyOrderByCreatedAtDesc(String company);
+    @Query("""
+                select c
+                from CommentEntity c
+                join c.news n
+                where n.company = :company
+                order by c.createdAt desc
+            """)
+    List<CommentEntity> findByNews_CompanyOrderByCreatedAtDesc(@Param("company") String company);
 
     /**
      * 마이페이지에서 내가 쓴 댓글 목록 조회용
      */
-    List<CommentEntity> findByUser_UsernameOrderByCreatedAtDesc(String username);
+    @Query("""
+                select c
+                from CommentEntity c
+                join c.user u
+                where u.username = :username
+                order by c.createdAt desc
+            """)
+    List<CommentEntity> findByUser_UsernameOrderByCreatedAtDesc(@Param("username") String username);
 
     /**
      * 회사별 댓글을 페이지네이션으로 조회
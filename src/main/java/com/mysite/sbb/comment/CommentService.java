@@ -6,6 +6,7 @@ import com.mysite.sbb.fastapi.FastApiEntity;
 import com.mysite.sbb.fastapi.FastApiRepository;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserRepository;
+import com.mysite.sbb.util.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -32,6 +33,7 @@ public class CommentService {
     private final ReactionRepository reactionRepository;
     private final FastApiRepository fastApiRepository; // 뉴스 엔티티용 Repo
     private final UserRepository userRepository; // 유저 엔티티용 Repo
+    private final ResourceVersions resourceVersions; // 댓글 목록 ETag
 
     /**
      * 회사별 댓글을 최신순으로 조회한다.
@@ -147,7 +149,9 @@ public class CommentService {
         comment.setUser(user);
         comment.setContent(content);
 
-        return commentRepository.save(comment);
+        CommentEntity saved = commentRepository.save(comment);
+        resourceVersions.bump(ResourceVersions.comments(company));
+        return saved;
     }
 
     /**
@@ -166,7 +170,9 @@ public class CommentService {
             throw new RuntimeException("삭제 권한이 없습니다.");
         }
 
+        String company = comment.getNews().getCompany();
         commentRepository.delete(comment);
+        resourceVersions.bump(ResourceVersions.comments(company));
     }
 
 
@@ -14,14 +14,29 @@ public interface ReactionRepository extends JpaRepository<ReactionEntity, Long>
     /**
      * 특정 댓글에 대해 특정 사용자가 이미 반응했는지 조회
      * → 좋아요/싫어요 토글 로직의 핵심 쿼리
+     * <p>
+     * 파생 쿼리는 comment / user 를 LEFT JOIN 한 뒤 거르므로 FK 컬럼을 직접 비교하도록 JPQL 로 작성
+     * → (comment_id, user_id) 유니크 인덱스 조회 한 번
      */
-    Optional<ReactionEntity> findByComment_IdAndUser_Id(Long commentId, Long userId);
+    @Query("""
+                select r
+                from ReactionEntity r
+                where r.comment.id = :commentId
+                    and r.user.id = :userId
+            """)
+    Optional<ReactionEntity> findByComment_IdAndUser_Id(@Param("commentId") Long commentId, @Param("userId") Long userId);
 
     /**
      * 특정 댓글의 좋아요 또는 싫어요 개수를 DB 기준으로 조회
      * → Redis 캐시 복구, 관리자 페이지, 정합성 검증용
      */
-    long countByComment_IdAndType(Long commentId, ReactionType type);
+    @Query("""
+                select count(r)
+                from ReactionEntity r
+                where r.comment.id = :commentId
+                    and r.type = :type
+            """)
+    long countByComment_IdAndType(@Param("commentId") Long commentId, @Param("type") ReactionType type);
 
     /**
      * 여러 댓글의 좋아요/싫어요 개수를 한 번에 집계
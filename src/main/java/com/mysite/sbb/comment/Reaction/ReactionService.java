@@ -4,6 +4,7 @@ import com.mysite.sbb.comment.CommentEntity;
 import com.mysite.sbb.comment.CommentRepository;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserRepository;
+import com.mysite.sbb.util.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -20,6 +21,7 @@ public class ReactionService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final StringRedisTemplate redis;
+    private final ResourceVersions resourceVersions;
 
     /**
      * Redis에서 댓글별 좋아요/싫어요를 저장할 Key를 생성
@@ -59,6 +61,9 @@ public class ReactionService {
 
         // 실제 변경된 수치만 Redis에 반영
         applyDeltaToRedis(commentId, delta);
+
+        // 댓글 목록 응답에 좋아요/싫어요 수가 들어가므로 그 회사 댓글 목록 버전도 올림
+        resourceVersions.bump(ResourceVersions.comments(comment.getNews().getCompany()));
     }
 
     /**
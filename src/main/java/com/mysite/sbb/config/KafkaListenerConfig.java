@@ -1,13 +1,21 @@
 package com.mysite.sbb.config;
 
+import com.mysite.sbb.fastapi.Kafka.KafkaAnalysisListener;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -40,14 +48,20 @@ public class KafkaListenerConfig {
      * - ENABLE_AUTO_COMMIT = false
      * → 수동 ack 사용 (정확히 성공 시에만 commit)
      * <p>
+     * - MAX_POLL_RECORDS = kafka.done.max-poll-records
+     * → 배치 리스너 한 번에 처리할 최대 레코드 수
+     * <p>
      * done 이벤트는 반드시 처리되어야 하므로
      * 보수적인 전략을 사용
      */
     @Bean
-    public ConsumerFactory<String, String> doneConsumerFactory(KafkaProperties props) {
+    public ConsumerFactory<String, String> doneConsumerFactory(
+            KafkaProperties props,
+            @Value("${kafka.done.max-poll-records:200}") int maxPollRecords) {
         Map<String, Object> config = new HashMap<>(props.buildConsumerProperties());
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"); //  done은 과거부터
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         return new DefaultKafkaConsumerFactory<>(config);
     }
 
@@ -74,22 +88,38 @@ public class KafkaListenerConfig {
     /**
      * analysis-done ListenerContainerFactory
      * <p>
-     * AckMode = MANUAL_IMMEDIATE
+     * BatchListener + AckMode = MANUAL_IMMEDIATE
      * <p>
      * 의미:
-     * - 메시지 처리 성공 시에만 수동으로 acknowledge()
-     * - 실패하면 offset commit 안 됨 → 재처리
+     * - poll 단위로 묶어서 처리하고, 배치 전체 성공 시에만 acknowledge() 한 번
+     * - 리스너가 BatchListenerFailedException(실패 레코드 인덱스)을 던지면
+     * 에러 핸들러가 앞쪽 레코드는 커밋하고, 실패 레코드부터 1초 간격으로 5번 재시도
+     * - 재시도 소진 시 그 레코드만 analysis-done.DLT 로 보내고(파티션은 브로커가 선택)
+     * 대기자에게 실패를 알린 뒤 다음 레코드로 진행 (KafkaAnalysisListener.onDoneRecovered)
+     * - 다른 컨슈머가 처리 중인 건은 리스너가 nack 으로 따로 미루므로 재시도 예산을 쓰지 않음
+     * - 멱등성 게이트(Redis) 장애도 리스너가 nack 으로 배치 전체를 미루므로 DLT 로 가지 않음
      * <p>
-     * 즉, at-least-once 보장 전략
+     * 즉, at-least-once 보장 전략 (중복은 Redis processed 키 + (user, url_hash) 체크로 흡수)
      */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, String> doneKafkaListenerContainerFactory(
-            ConsumerFactory<String, String> doneConsumerFactory) {
+            ConsumerFactory<String, String> doneConsumerFactory,
+            KafkaTemplate<String, String> kafkaTemplate,
+            ObjectProvider<KafkaAnalysisListener> kafkaAnalysisListener) {
 
+        DeadLetterPublishingRecoverer deadLetter = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(record.topic() + ".DLT", -1));
 
         ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(doneConsumerFactory);
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE); // 수동 ack 쓰니까
+        factory.setCommonErrorHandler(new DefaultErrorHandler((record, e) -> {
+            // DLT 발행이 실패하면 예외 → 레코드를 건너뛰지 않고 다시 재시도
+            deadLetter.accept(record, e);
+            // 리스너 빈은 생성 중에 이 팩토리를 찾으므로 직접 주입하면 순환 참조 → 호출 시점에 조회
+            kafkaAnalysisListener.getObject().onDoneRecovered(String.valueOf(record.value()));
+        }, new FixedBackOff(1000L, 5L)));
         return factory;
     }
 
@@ -5,20 +5,21 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
 
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
 
 @Configuration
 @EnableRedisRepositories
@@ -34,11 +35,35 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * 바이너리 값 전용 템플릿 (압축된 분석 결과 등)
+     * key 는 문자열, value 는 byte[] 그대로 저장
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
     @Bean
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory cf) {
         return new StringRedisTemplate(cf);
     }
 
+    /**
+     * Redis Pub/Sub 구독 컨테이너 (분석 완료 알림 등 인스턴스 간 브로드캐스트용)
+     */
+    @Bean
+    @Profile("!test")
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory cf) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(cf);
+        return container;
+    }
+
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory cf) {
         RedisSerializationContext.SerializationPair<String> keyPair =
@@ -53,13 +78,8 @@ public class RedisConfig {
                 .disableCachingNullValues()
                 .entryTtl(Duration.ofMinutes(5)); // 기본 TTL
 
-        Map<String, RedisCacheConfiguration> configs = new HashMap<>();
-        configs.put("rankWeekly", defaultConfig.entryTtl(Duration.ofMinutes(10)));
-        configs.put("rankMonthly", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-
         return RedisCacheManager.builder(cf)
                 .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(configs)
                 .build();
 
     }
@@ -90,6 +90,8 @@ public class SecurityConfig {
                                 // 공개 API (검색/랭킹/데이터 조회)
                                 "/api/parse-news",
                                 "/api/ranking",
+                                "/api/ranking/range",
+                                "/api/ranking/keywords",
                                 "/api/stock-data/**",
                                 "/api/ads",
 
@@ -159,8 +161,8 @@ public class SecurityConfig {
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
 
-        // Authorization 헤더를 클라이언트가 접근할 수 있도록 노출
-        config.setExposedHeaders(List.of("Authorization"));
+        // Authorization 헤더를 클라이언트가 접근할 수 있도록 노출 (ETag 는 조건부 GET 용)
+        config.setExposedHeaders(List.of("Authorization", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
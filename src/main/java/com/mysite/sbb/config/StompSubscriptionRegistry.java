@@ -0,0 +1,79 @@
+package com.mysite.sbb.config;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 이 인스턴스에 붙은 STOMP 구독 현황 (destination → 구독 수)
+ * <p>
+ * 목적:
+ * - 구독자가 없는 destination 으로의 convertAndSend 를 건너뛰기 위함
+ * (SimpleBroker 는 인스턴스 로컬이므로 로컬 구독 현황만 보면 충분)
+ * <p>
+ * SimpUserRegistry 는 인증된 세션만 추적하기 때문에
+ * 비로그인 분석 구독까지 보려면 세션 이벤트를 직접 집계해야 한다.
+ */
+@Component
+public class StompSubscriptionRegistry {
+
+    // sessionId → (subscriptionId → destination)
+    private final Map<String, Map<String, String>> subscriptionsBySession = new HashMap<>();
+    // destination → 구독 수
+    private final Map<String, Integer> countByDestination = new HashMap<>();
+
+    public synchronized boolean hasSubscribers(String destination) {
+        return countByDestination.containsKey(destination);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = accessor(event.getMessage());
+        String destination = accessor.getDestination();
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null || destination == null) return;
+
+        synchronized (this) {
+            String previous = subscriptionsBySession
+                    .computeIfAbsent(accessor.getSessionId(), k -> new HashMap<>())
+                    .put(accessor.getSubscriptionId(), destination);
+            if (previous != null) decrement(previous);
+            countByDestination.merge(destination, 1, Integer::sum);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = accessor(event.getMessage());
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+
+        synchronized (this) {
+            Map<String, String> subscriptions = subscriptionsBySession.get(accessor.getSessionId());
+            if (subscriptions == null) return;
+            String destination = subscriptions.remove(accessor.getSubscriptionId());
+            if (destination != null) decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        synchronized (this) {
+            Map<String, String> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+            if (subscriptions != null) subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    private void decrement(String destination) {
+        countByDestination.computeIfPresent(destination, (k, n) -> n <= 1 ? null : n - 1);
+    }
+
+    private static SimpMessageHeaderAccessor accessor(Message<?> message) {
+        return SimpMessageHeaderAccessor.wrap(message);
+    }
+}
@@ -0,0 +1,48 @@
+package com.mysite.sbb.fastapi;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 키워드 역색인 (article_keyword)
+ * <p>
+ * news_articles.keywords_json 은 통째로 저장된 JSON 이라 "키워드 X 가 나온 기사" 를 물을 수 없으므로
+ * 저장 시점(FastApiService.saveAll)에 정규화한 키워드(ArticleKeywords.normalize) 마다 한 행씩 둔다.
+ * <p>
+ * - (keyword, url_hash) 유니크: 같은 기사(URL)는 키워드당 한 행, 가장 최신 기사를 가리킴 (company_feed 와 같은 규칙)
+ * - (keyword, created_at, article_id) 인덱스: 키워드별 Seek Pagination 이 인덱스 범위 스캔 한 번
+ * - article_id 인덱스: FK
+ * <p>
+ * 기존 기사는 마이그레이션 V14 (db.migration.V14__Backfill_article_keyword) 가 한 번 채운다.
+ */
+@Entity
+@Table(name = "article_keyword",
+        uniqueConstraints = {@UniqueConstraint(name = "uk_keyword_url", columnNames = {"keyword", "url_hash"})},
+        indexes = {
+                @Index(name = "idx_keyword_seek", columnList = "keyword, created_at, article_id"),
+                @Index(name = "idx_keyword_article", columnList = "article_id")
+        })
+@Getter
+@Setter
+public class ArticleKeyword {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = ArticleKeywords.MAX_LENGTH)
+    private String keyword;
+
+    @Column(name = "url_hash", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+    private String urlHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "article_id", nullable = false, foreignKey = @ForeignKey(name = "FK_keyword_article"))
+    private FastApiEntity article;
+
+    // 기사 created_at 복사본 (정렬 / 커서용)
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,43 @@
+package com.mysite.sbb.fastapi;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 키워드 역색인(article_keyword) 데이터 접근 레이어.
+ */
+public interface ArticleKeywordRepository extends JpaRepository<ArticleKeyword, Long> {
+
+    /**
+     * 키워드별 최신 기사 조회 (Seek Pagination, 커서 = 마지막 카드의 createdAt + id).
+     * <p>
+     * (keyword, created_at, article_id) 인덱스 범위 스캔 + 기사 PK 조인.
+     * URL 중복은 저장 시점에 (keyword, url_hash) 유니크로 걸러 둔다.
+     * <p>
+     * keyword 는 ArticleKeywords.normalize 를 거친 값이어야 한다.
+     */
+    @Query("""
+                SELECT new com.mysite.sbb.fastapi.NewsCardDto(
+                    f.id, f.title, f.thumbnailUrl, f.company, f.prediction, f.sentiment, f.createdAt)
+                FROM ArticleKeyword ak
+                JOIN ak.article f
+                WHERE ak.keyword = :keyword
+                AND (
+                :lastCreatedAt IS NULL
+                OR ak.createdAt < :lastCreatedAt
+                OR (ak.createdAt = :lastCreatedAt AND ak.article.id < :lastId)
+                )
+                ORDER BY ak.createdAt DESC, ak.article.id DESC
+            """)
+    List<NewsCardDto> findArticlesByKeywordSeek(
+            @Param("keyword") String keyword,
+            @Param("lastCreatedAt") LocalDateTime lastCreatedAt,
+            @Param("lastId") Long lastId,
+            Pageable pageable
+    );
+}
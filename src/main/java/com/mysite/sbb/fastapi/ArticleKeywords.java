@@ -0,0 +1,73 @@
+package com.mysite.sbb.fastapi;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 분석 모델 키워드 (keywords_json) 직렬화 / 정규화
+ * <p>
+ * 모델 응답 형태: [{"word": "반도체", "score": 0.55}, ...]
+ * <p>
+ * - 직렬화: ObjectMapper 는 스레드 안전하므로 하나만 만들어 공유 (호출마다 생성하지 않음)
+ * - 정규화: 역색인(article_keyword) / 키워드 랭킹 / 검색어가 같은 값을 쓰도록
+ * NFKC → 앞뒤 공백, 앞의 '#' 제거 → 연속 공백 하나로 → 소문자
+ */
+public final class ArticleKeywords {
+
+    // article_keyword.keyword 컬럼 길이
+    public static final int MAX_LENGTH = 100;
+    // 기사 하나에서 색인할 최대 키워드 수 (모델 점수 순서 그대로 앞에서부터)
+    static final int MAX_PER_ARTICLE = 20;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Map<String, Object>>> TYPE = new TypeReference<>() {
+    };
+
+    private ArticleKeywords() {
+    }
+
+    public static List<Map<String, Object>> read(String json) throws JsonProcessingException {
+        return MAPPER.readValue(json, TYPE);
+    }
+
+    public static String write(List<Map<String, Object>> keywords) throws JsonProcessingException {
+        return MAPPER.writeValueAsString(keywords);
+    }
+
+    /**
+     * 색인 / 검색용 키워드 값. 비었거나 컬럼보다 길면 null
+     */
+    public static String normalize(String raw) {
+        if (raw == null) return null;
+        String s = Normalizer.normalize(raw, Normalizer.Form.NFKC).strip();
+        while (s.startsWith("#")) s = s.substring(1).strip();
+        s = s.replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (s.isEmpty() || s.length() > MAX_LENGTH) return null;
+        return s;
+    }
+
+    /**
+     * 모델 키워드 목록 → 정규화된 키워드 (중복 제거, 순서 유지, 최대 MAX_PER_ARTICLE 개)
+     */
+    public static List<String> normalized(List<Map<String, Object>> keywords) {
+        if (keywords == null || keywords.isEmpty()) return List.of();
+        Set<String> out = new LinkedHashSet<>();
+        for (Map<String, Object> keyword : keywords) {
+            if (keyword == null) continue;
+            Object word = keyword.getOrDefault("word", keyword.get("keyword"));
+            String value = word == null ? null : normalize(String.valueOf(word));
+            if (value != null) out.add(value);
+            if (out.size() == MAX_PER_ARTICLE) break;
+        }
+        return new ArrayList<>(out);
+    }
+}
@@ -0,0 +1,44 @@
+package com.mysite.sbb.fastapi;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 회사별 뉴스 피드 (company_feed)
+ * <p>
+ * (company, url_hash) 당 가장 최신 기사 한 건만 가리키는 좁은 테이블.
+ * 저장 시점(FastApiService.saveAll)에 갱신하므로 조회 때 NOT EXISTS 로 중복 URL 을 거를 필요가 없다.
+ * <p>
+ * - (company, url_hash) 유니크: 같은 회사의 같은 기사는 한 행
+ * - (company, created_at, article_id) 인덱스: 회사별 Seek Pagination 이 인덱스 범위 스캔 한 번
+ * <p>
+ * 기존 기사는 마이그레이션 V13__backfill_company_feed.sql 이 한 번 채운다.
+ */
+@Entity
+@Table(name = "company_feed",
+        uniqueConstraints = {@UniqueConstraint(name = "uk_feed_company_url", columnNames = {"company", "url_hash"})},
+        indexes = {@Index(name = "idx_feed_company_seek", columnList = "company, created_at, article_id")})
+@Getter
+@Setter
+public class CompanyFeed {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String company;
+
+    @Column(name = "url_hash", nullable = false, length = 64, columnDefinition = "CHAR(64)")
+    private String urlHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "article_id", nullable = false, foreignKey = @ForeignKey(name = "FK_feed_article"))
+    private FastApiEntity article;
+
+    // 기사 created_at 복사본 (정렬 / 커서용)
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
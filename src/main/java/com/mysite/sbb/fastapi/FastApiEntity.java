@@ -1,8 +1,7 @@
 package com.mysite.sbb.fastapi;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.util.UrlCanonicalizer;
 import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Getter;
@@ -13,9 +12,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+// 공유 기사(user_id NULL)의 url_hash 유니크 키는 생성 컬럼 shared_url_hash 에 있음 (V11__shared_article_unique.sql)
 @Entity
 @Table(name = "news_articles",
-        uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "url"})})
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "url_hash"})},
+        indexes = {
+                @Index(name = "idx_news_url_hash", columnList = "url_hash")
+        })
 @Getter
 @Setter
 public class FastApiEntity {
@@ -31,10 +34,15 @@ public class FastApiEntity {
 
     private String url;
 
+    // 정규화된 URL의 SHA-256 (UrlCanonicalizer) → 긴 url 대신 고정 길이 인덱스로 조회
+    @Column(name = "url_hash", length = 64, columnDefinition = "CHAR(64)")
+    private String urlHash;
+
     private String thumbnailUrl;
 
     private String newsTime;
 
+    // 레거시 사용자별 행에만 값이 있음. 새 기사는 공유(NULL)이고 사용자 연결은 news_history 가 담당
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = true, foreignKey = @ForeignKey(name = "FK_news_user"))
     private SiteUser user;
@@ -72,7 +80,7 @@ public class FastApiEntity {
 
         this.title = title;
         this.content = content;
-        this.url = url;
+        this.setUrl(url);
         this.thumbnailUrl = thumbnailUrl;
         this.newsTime = newsTime;
         this.user = user;
@@ -91,6 +99,11 @@ public class FastApiEntity {
 
     }
 
+    public void setUrl(String url) {
+        this.url = url;
+        this.urlHash = UrlCanonicalizer.hash(url);
+    }
+
     // FastApiEntity 안에 DTO로 변환하는 메서드 하나 추가
     public FastApiResponse toResponse() {
         return new FastApiResponse(
@@ -113,12 +126,7 @@ public class FastApiEntity {
     public List<Map<String, Object>> getKeywords() {
         if (this.keywords == null && this.keywordsJson != null) {
             try {
-                ObjectMapper mapper = new ObjectMapper();
-                this.keywords = mapper.readValue(
-                        this.keywordsJson,
-                        new TypeReference<List<Map<String, Object>>>() {
-                        }
-                );
+                this.keywords = ArticleKeywords.read(this.keywordsJson);
             } catch (Exception e) {
                 e.printStackTrace();
                 this.keywords = null;
@@ -130,8 +138,7 @@ public class FastApiEntity {
     public void setKeywords(List<Map<String, Object>> keywords) {
         this.keywords = keywords;
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            this.keywordsJson = mapper.writeValueAsString(keywords);
+            this.keywordsJson = ArticleKeywords.write(keywords);
         } catch (Exception e) {
             e.printStackTrace();
             this.keywordsJson = null;
@@ -1,21 +1,22 @@
 package com.mysite.sbb.fastapi;
 
-import com.mysite.sbb.user.SiteUser;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * FastAPI 분석 결과(뉴스) 데이터 접근 레이어.
  * <p>
- * - 사용자별 조회 (Seek Pagination)
+ * 기사는 URL 당 한 번만 저장되고(공유), 사용자별 기록은 NewsHistoryRepository 가 담당한다.
+ * <p>
  * - 회사별 랭킹 집계
- * - 중복 URL 방지
+ * - 중복 URL 방지 (정규화 URL 해시 url_hash 인덱스 기준)
  * - 최신 뉴스 기준 dedup 조회
  * <p>
  * 성능 최적화를 위해
@@ -25,42 +26,6 @@ import java.util.Optional;
  */
 public interface FastApiRepository extends JpaRepository<FastApiEntity, Long> {
 
-    /**
-     * 사용자 게시글 Seek Pagination 조회.
-     * <p>
-     * lastId 이전 데이터만 조회하여
-     * OFFSET 없이 성능 저하를 방지한다.
-     * <p>
-     * ORDER BY id DESC 기준
-     */
-    @Query("""
-                    SELECT f
-                    FROM FastApiEntity f
-                    WHERE f.user.id = :userId
-                    AND (:lastId IS NULL OR f.id < :lastId)
-                    ORDER BY f.id DESC
-            """)
-    List<FastApiEntity> findUserPostsSeek(
-            @Param("userId") Long userId,
-            @Param("lastId") Long lastId,
-            Pageable pageable
-    );
-
-    /**
-     * 하루 동안 회사별 뉴스 개수 집계.
-     * <p>
-     * createdAt 범위를 기준으로 GROUP BY company 수행.
-     * 실시간 Daily 랭킹 계산에 사용.
-     */
-
-    @Query("SELECT f.company, COUNT(f) " +
-            "FROM FastApiEntity f " +
-            "WHERE f.createdAt >= :startDate AND f.createdAt < :endDate " +
-            "GROUP BY f.company " +
-            "ORDER BY COUNT(f) DESC")
-    List<Object[]> getDailyCompanyRanking(@Param("startDate") LocalDateTime startDate,
-                                          @Param("endDate") LocalDateTime endDate);
-
 //    @Query("SELECT f.company, COUNT(f) " +
 //            "FROM FastApiEntity f " +
 //            "WHERE f.createdAt >= :startDate " +
@@ -94,22 +59,7 @@ public interface FastApiRepository extends JpaRepository<FastApiEntity, Long> {
     List<Object[]> getMonthlyCompanyRanking_Legacy(@Param("startDate") LocalDateTime startDate);
 
 
-    // 추가 user랑 url을 비교해서 있으면
-    boolean existsByUserAndUrl(SiteUser user, String url);
-
-    ///  추가 로직
-    /// countByUser → 해당 사용자 뉴스 개수 확인
-    ///
-    /// findByUserOrderByCreatedAtAsc → 오래된 뉴스 조회
-    ///
-    /// deleteByIdIn → ID 리스트로 삭제
-    long countByUser(SiteUser user);
-
-    List<FastApiEntity> findByUserOrderByCreatedAtAsc(SiteUser user, Pageable pageable);
-
-    void deleteByIdIn(List<Long> ids);
-
-    FastApiEntity findFirstByUrl(String url);
+    FastApiEntity findFirstByUrlHash(String urlHash);
 
     Optional<FastApiEntity> findTopByCompanyOrderByCreatedAt(String companyName);
 //    @Query("SELECT f FROM FastApiEntity f " +
@@ -134,29 +84,26 @@ public interface FastApiRepository extends JpaRepository<FastApiEntity, Long> {
      * 1) createdAt, id 복합 조건으로 Seek Pagination 구현
      * 2) 동일 company + url 중 가장 최신 데이터만 선택
      * <p>
-     * Deep Paging에서도 성능 저하 없이 조회 가능.
+     * 2) 는 저장 시점에 company_feed 로 미리 골라 두므로
+     * 조회는 (company, created_at, article_id) 인덱스 범위 스캔 + 기사 PK 조인뿐이다.
+     * (이전: 후보 행마다 news_articles 를 다시 보는 NOT EXISTS → 회사 기사 수가 늘수록 느려짐)
+     * <p>
+     * 목록용이라 카드 컬럼만 조회 (NewsCardDto)
      */
     @Query("""
-                SELECT f
-                FROM FastApiEntity f
-                WHERE f.company = :company
+                SELECT new com.mysite.sbb.fastapi.NewsCardDto(
+                    f.id, f.title, f.thumbnailUrl, f.company, f.prediction, f.sentiment, f.createdAt)
+                FROM CompanyFeed cf
+                JOIN cf.article f
+                WHERE cf.company = :company
                 AND (
                 :lastCreatedAt IS NULL
-                OR f.createdAt < :lastCreatedAt
-                OR (f.createdAt = :lastCreatedAt AND f.id < :lastId)
-                )
-                AND NOT EXISTS (
-                SELECT 1 FROM FastApiEntity f2
-                WHERE f2.company = f.company
-                AND f2.url = f.url
-                AND (
-                f2.createdAt > f.createdAt OR
-                (f2.createdAt = f.createdAt AND f2.id > f.id)
-                )
+                OR cf.createdAt < :lastCreatedAt
+                OR (cf.createdAt = :lastCreatedAt AND cf.article.id < :lastId)
                 )
-                ORDER BY f.createdAt DESC, f.id DESC
+                ORDER BY cf.createdAt DESC, cf.article.id DESC
             """)
-    List<FastApiEntity> findLatestUniqueUrlByCompanySeek(
+    List<NewsCardDto> findLatestUniqueUrlByCompanySeek(
             @Param("company") String company,
             @Param("lastCreatedAt") LocalDateTime lastCreatedAt,
             @Param("lastId") Long lastId,
@@ -166,8 +113,18 @@ public interface FastApiRepository extends JpaRepository<FastApiEntity, Long> {
 
     List<FastApiEntity> findByCompanyContainingIgnoreCase(String q);
 
-    boolean existsByUser_IdAndUrl(Long userId, String url);
-
-    boolean existsByUserIsNullAndUrl(String url);
+    /**
+     * url_hash 별 기사 id 조회 (공유 기사 저장 시 중복 확인 + 기록 연결용)
+     * <p>
+     * 공유 기사(user_id NULL)는 uk_news_shared_url 로 url_hash 당 한 행이다.
+     * 그보다 먼저 저장된 레거시 사용자별 복사본이 있을 수 있어 가장 오래된 행 하나를 대표로 쓴다.
+     */
+    @Query("""
+                SELECT f.urlHash, MIN(f.id)
+                FROM FastApiEntity f
+                WHERE f.urlHash IN :urlHashes
+                GROUP BY f.urlHash
+            """)
+    List<Object[]> findArticleIdsByUrlHashes(@Param("urlHashes") Collection<String> urlHashes);
 
 }
\ No newline at end of file
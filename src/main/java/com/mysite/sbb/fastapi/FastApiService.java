@@ -1,27 +1,48 @@
 package com.mysite.sbb.fastapi;
 
-import com.mysite.sbb.fastapi.optimization.CompanyRankDailyRepository;
+import com.mysite.sbb.fastapi.optimization.DimensionRankingService;
+import com.mysite.sbb.fastapi.optimization.HeavyHitterRankingService;
+import com.mysite.sbb.fastapi.optimization.KeywordRankingService;
+import com.mysite.sbb.fastapi.optimization.RangeRankingService;
+import com.mysite.sbb.fastapi.optimization.RankingDimension;
+import com.mysite.sbb.fastapi.optimization.RankingIncrementBuffer;
 import com.mysite.sbb.fastapi.optimization.RedisRankingService;
+import com.mysite.sbb.fastapi.optimization.RollingRankingService;
+import com.mysite.sbb.fastapi.optimization.TrendingRankingService;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.PostNotFoundException;
+import com.mysite.sbb.util.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.RestTemplate;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -49,7 +70,17 @@ public class FastApiService {
     private final RestTemplate restTemplate;
     private final SimpMessagingTemplate messagingTemplate;
     private final RedisRankingService redisRankingService;
-    private final CompanyRankDailyRepository companyRankDailyRepository;
+    private final RollingRankingService rollingRankingService;
+    private final RankingIncrementBuffer rankingIncrementBuffer;
+    private final TrendingRankingService trendingRankingService;
+    private final DimensionRankingService dimensionRankingService;
+    private final RangeRankingService rangeRankingService;
+    private final HeavyHitterRankingService heavyHitterRankingService;
+    private final ResourceVersions resourceVersions;
+    private final JdbcTemplate jdbcTemplate;
+    private final NewsHistoryRepository newsHistoryRepository;
+    private final ArticleKeywordRepository articleKeywordRepository;
+    private final KeywordRankingService keywordRankingService;
 
 
 //    public Page<FastApiEntity> getUserById(String username, Pageable pageable) {
@@ -58,32 +89,22 @@ public class FastApiService {
 //        return posts;
 //    }
 
-    public String currentWeekKey() {
-        LocalDate now = LocalDate.now();
-        int week = now.get(java.time.temporal.WeekFields.ISO.weekOfWeekBasedYear());
-        int year = now.get(java.time.temporal.WeekFields.ISO.weekBasedYear());
-        return year + "-W" + week;   // 예: 2026-W6
-    }
-
-    public String currentMonthKey() {
-        YearMonth ym = YearMonth.now();
-        return ym.toString();       // 예: 2026-02
-    }
-
     /**
      * Offset 기반이 아닌 Seek Pagination 방식으로
-     * 사용자의 뉴스 기록을 조회한다.
+     * 사용자의 뉴스 기록(news_history → 공유 기사)을 조회한다.
      * <p>
-     * - lastId 기준으로 다음 데이터를 조회
+     * - lastHistoryId(마지막으로 받은 기록 id) 기준으로 다음 데이터를 조회
      * <p>
      * - COUNT 쿼리를 수행하지 않으므로 Deep Paging 환경에서 성능 우수
      * <p>
      * - size + 1 조회 후 hasNext 여부 판단
+     * <p>
+     * - 카드 컬럼만 조회 (본문 / 요약 / 키워드는 getArticle)
      */
-    public Slice<FastApiEntity> getUserPostsSeek(Long userId, Long lastId, int size) {
+    public Slice<NewsHistoryCardDto> getUserPostsSeek(Long userId, Long lastHistoryId, int size) {
         // size+1개를 가져와서 다음 페이지 존재 여부 판단
         PageRequest pr = PageRequest.of(0, size + 1);
-        List<FastApiEntity> rows = fastApiRepository.findUserPostsSeek(userId, lastId, pr);
+        List<NewsHistoryCardDto> rows = newsHistoryRepository.findUserArticlesSeek(userId, lastHistoryId, pr);
 
         boolean hasNext = rows.size() > size;
         if (hasNext) rows = rows.subList(0, size);
@@ -98,6 +119,9 @@ public class FastApiService {
      * 2차: Redis 데이터가 없을 경우 DB 집계 결과로 fallback
      * <p>
      * → 캐시 우선 전략(Cache-Aside Pattern)
+     * <p>
+     * ranking.engine=sketch 이면 heavy-hitter 상위 K 스냅샷(인스턴스 로컬)을 먼저 보고,
+     * 오늘 분석 기록 전체를 GROUP BY 하는 DB fallback 은 타지 않는다.
      */
 
     public List<CompanyRankDto> getDailyRanking() {
@@ -105,46 +129,78 @@ public class FastApiService {
         LocalDateTime startOfToday = today.atStartOfDay();
         LocalDateTime startOfTomorrow = today.plusDays(1).atStartOfDay();
 
+        if (heavyHitterRankingService.enabled()) {
+            List<CompanyRankDto> fromSketch = heavyHitterRankingService.topN(10);
+            if (!fromSketch.isEmpty()) return fromSketch;
+            return pad(redisRankingService.getTodayTopN(10));
+        }
+
         List<CompanyRankDto> fromRedis = redisRankingService.getTodayTopN(10);
         if (!fromRedis.isEmpty()) return fromRedis;
 
-        // fallback: 기존 daily DB 집계 (너 코드 유지 가능)
-        return convertResult(fastApiRepository.getDailyCompanyRanking(startOfToday, startOfTomorrow));
+        // fallback: 오늘 분석 기록 DB 집계
+        return convertResult(newsHistoryRepository.getDailyCompanyRanking(startOfToday, startOfTomorrow));
     }
 
     /**
-     * 주간 랭킹 조회.
+     * 주간 랭킹 조회 (최근 7일 + 오늘).
      * <p>
-     * Spring Cache를 활용하여
-     * 동일 기간 요청에 대해 DB 재조회 방지.
-     * <p>
-     * key는 ISO week 기반으로 생성.
+     * RollingRankingService 의 오늘자 window 에서 상위 10개를 읽는다.
+     * 오늘 실시간 집계까지 포함되고, 날짜가 바뀌면 window 도 새로 만들어진다.
      */
-
-    @Cacheable(cacheNames = "rankWeekly", key = "#root.target.currentWeekKey()")
     public List<CompanyRankDto> getWeeklyRanking() {
-        LocalDate end = LocalDate.now().plusDays(1);   // [start, end)
-        LocalDate start = LocalDate.now().minusDays(7);
-        return convertSum(companyRankDailyRepository.sumRangeTopN(start, end, 10));
+        return pad(rollingRankingService.topN(7, 10));
     }
 
-    @Cacheable(cacheNames = "rankMonthly", key = "#root.target.currentMonthKey()")
+    /**
+     * 월간 랭킹 조회 (최근 30일 + 오늘).
+     */
     public List<CompanyRankDto> getMonthlyRanking() {
-        LocalDate end = LocalDate.now().plusDays(1);
-        LocalDate start = LocalDate.now().minusDays(30);
-        return convertSum(companyRankDailyRepository.sumRangeTopN(start, end, 10));
+        return pad(rollingRankingService.topN(30, 10));
     }
 
-    private List<CompanyRankDto> convertSum(List<Object[]> rows) {
-        List<CompanyRankDto> list = rows.stream()
-                .map(r -> new CompanyRankDto((String) r[0], ((Number) r[1]).longValue()))
-                .toList();
+    /**
+     * "지금 뜨는" 랭킹 조회 (시간 감쇠 점수, half-life 기본 1시간).
+     */
+    public List<CompanyRankDto> getTrendingRanking() {
+        return pad(trendingRankingService.topN(10));
+    }
+
+    /**
+     * 차원별 랭킹 조회 (예: 오늘 상승 전망이 가장 많은 회사, 이번 주 부정 감성이 가장 많은 회사).
+     *
+     * @param period daily | weekly(이번 ISO 주)
+     */
+    public List<CompanyRankDto> getDimensionRanking(RankingDimension dimension, String period) {
+        return pad("weekly".equals(period)
+                ? dimensionRankingService.thisWeekTopN(dimension, 10)
+                : dimensionRankingService.todayTopN(dimension, 10));
+    }
+
+    /**
+     * 임의 기간 [start, end) 랭킹 조회 (주간 / 월간 롤업 + 일간 행 조합).
+     */
+    public List<CompanyRankDto> getRangeRanking(LocalDate start, LocalDate end) {
+        return pad(rangeRankingService.topN(start, end, 10));
+    }
+
+    /**
+     * 키워드 빈도 랭킹 조회 (오늘 / 이번 주 분석 기사에 가장 많이 나온 키워드).
+     *
+     * @param period daily | weekly(이번 ISO 주)
+     */
+    public List<KeywordRankDto> getKeywordRanking(String period) {
+        return "weekly".equals(period)
+                ? keywordRankingService.thisWeekTopN(10)
+                : keywordRankingService.todayTopN(10);
+    }
+
+    private List<CompanyRankDto> pad(List<CompanyRankDto> list) {
         List<CompanyRankDto> out = new ArrayList<>(list);
         while (out.size() < 10) out.add(new CompanyRankDto("—", 0L));
         return out;
     }
 
-
     private List<CompanyRankDto> convertResult(List<Object[]> results) {
         List<CompanyRankDto> rankList = results.stream()
                 .map(obj -> new CompanyRankDto((String) obj[0], (Long) obj[1]))
@@ -196,42 +252,308 @@ public class FastApiService {
 //        return apiResponse;
 //    }
 
+    /**
+     * 배치 저장 요청 단위 (user == null 이면 비로그인 저장)
+     */
+    public record SaveRequest(SiteUser user, FastApiResponse response) {
+    }
+
+    // 다른 consumer / 노드가 같은 URL 을 먼저 넣었으면 uk_news_shared_url 에 걸려 아무것도 하지 않음
+    private static final String INSERT_ARTICLE_SQL = """
+            INSERT INTO news_articles
+              (title, content, url, url_hash, thumbnail_url, news_time, user_id, created_at,
+               company, prediction, summary, keywords_json, sentiment, prob)
+            VALUES (?, ?, ?, ?, ?, ?, NULL, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE id = id
+            """;
+
+    // INSERT 뒤 id 재조회는 잠금 읽기로: 일반 SELECT 는 REPEATABLE READ 스냅샷이라
+    // 조회 → INSERT 사이에 다른 트랜잭션이 커밋한 행이 보이지 않는다 (잠금 읽기는 최신 커밋 행을 읽음)
+    private static final String LOCK_ARTICLE_IDS_SQL =
+            "SELECT url_hash, id FROM news_articles WHERE url_hash IN (%s) FOR UPDATE";
+
+    // 새 기사는 항상 가장 최신이므로 같은 (company, url_hash) 가 있으면 새 기사로 교체
+    private static final String UPSERT_FEED_SQL = """
+            INSERT INTO company_feed (company, url_hash, article_id, created_at)
+            VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE article_id = VALUES(article_id), created_at = VALUES(created_at)
+            """;
+
+    // 회사 피드와 같은 규칙: 같은 (keyword, url_hash) 가 있으면 새 기사로 교체
+    private static final String UPSERT_KEYWORD_SQL = """
+            INSERT INTO article_keyword (keyword, url_hash, article_id, created_at)
+            VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE article_id = VALUES(article_id), created_at = VALUES(created_at)
+            """;
+
+    private static final String INSERT_HISTORY_SQL = """
+            INSERT INTO news_history (user_id, article_id, created_at)
+            VALUES (?, ?, ?)
+            """;
+
     /**
      * FastAPI 분석 결과를 DB에 저장한다.
      * <p>
      * - REQUIRES_NEW 전파 옵션 사용
      * → 외부 트랜잭션과 분리하여 독립 커밋 보장
      * <p>
+     * - 기사는 URL 당 한 번만 저장 (공유), 사용자는 news_history 로 연결 <p>
      * - (user + url) 기준 중복 방지 <p>
-     * - 저장 성공 시 Redis 랭킹 점수 증가 <p>
+     * - 저장 성공 시 랭킹 점수 증가 (RankingIncrementBuffer 에 모았다가 주기적으로 Redis 반영) <p>
      * - 사용자별 저장 개수 제한 적용 <p>
      * <p>
      * 단순 저장이 아니라
      * 중복 방지 + 랭킹 집계 + 데이터 정리 정책을 포함한 메서드이다.
+     * 실제 저장은 saveAll 과 같은 경로를 사용한다.
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void saveEntity(SiteUser user, FastApiResponse apiResponse) {
+        saveAll(List.of(new SaveRequest(user, apiResponse)));
+    }
+
+    /**
+     * 여러 분석 결과를 한 트랜잭션에서 일괄 저장한다. (Kafka analysis-done 배치 소비용)
+     * <p>
+     * 1) url_hash 당 기사 1건, (user, url_hash) 당 기록 1건으로 배치 내부 중복 제거 <p>
+     * 2) 없는 기사만 JDBC batch INSERT (user_id NULL = 공유 기사, 동시에 같은 URL 을 넣으면 한 행만 남고 id 는 잠금 읽기로 다시 조회) + 회사 피드(company_feed) / 키워드 역색인(article_keyword) 갱신 <p>
+     * 3) 아직 없는 (user, url_hash) 기록만 news_history 에 JDBC batch INSERT <p>
+     * 4) 랭킹: 새 기록 1건당 +1, 비로그인 요청이 새 기사를 만든 경우 +1 (회사 / 차원 / 키워드, 메모리 버퍼, Redis 호출 없음, 커밋 후 반영) <p>
+     * 5) 사용자별 기록 개수 제한
+     * <p>
+     * rewriteBatchedStatements=true 이면 multi-row INSERT 로 전송되고,
+     * JdbcTemplate 은 JPA 트랜잭션과 같은 커넥션을 쓰므로 실패 시 함께 롤백된다.
+     *
+     * @return 실제로 INSERT 된 기사 + 기록 행 수
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int saveAll(List<SaveRequest> requests) {
+
+        // 1) 배치 내부 중복 제거
+        Map<String, FastApiEntity> articles = new LinkedHashMap<>();
+        Map<String, PendingHistory> histories = new LinkedHashMap<>();
+        Set<String> anonymousHashes = new HashSet<>();
+        for (SaveRequest request : requests) {
+            FastApiResponse apiResponse = request.response();
+            if (apiResponse == null) continue;
+
+            FastApiEntity article = toEntity(null, apiResponse);
+            String urlHash = article.getUrlHash();
+            if (urlHash == null) {
+                log.warn("URL 없는 분석 결과라 저장 스킵: title={}", apiResponse.title());
+                continue;
+            }
+
+            articles.putIfAbsent(urlHash, article);
+            if (request.user() != null) {
+                histories.putIfAbsent(saveKey(request.user().getId(), urlHash),
+                        new PendingHistory(request.user(), urlHash));
+            } else {
+                anonymousHashes.add(urlHash);
+            }
+        }
+        if (articles.isEmpty()) return 0;
 
-        String url = apiResponse.url();
+        // 2) 공유 기사: 없는 것만 INSERT 후 id 확보
+        Map<String, Long> articleIds = findArticleIds(articles.keySet());
+        List<FastApiEntity> newArticles = articles.values().stream()
+                .filter(article -> !articleIds.containsKey(article.getUrlHash()))
+                .toList();
+        if (!newArticles.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            insertArticles(newArticles, now);
+            articleIds.putAll(lockArticleIds(newArticles.stream().map(FastApiEntity::getUrlHash).toList()));
+            upsertFeed(newArticles, articleIds, now);
+            upsertKeywords(newArticles, articleIds, now);
+        }
 
-        // 1) 중복 체크
-        if (user != null) {
-            if (fastApiRepository.existsByUser_IdAndUrl(user.getId(), url)) {
-                log.info("중복(유저-URL)이라 저장 스킵: userId={}, url={}", user.getId(), url);
-                return;
+        // 3) 사용자 기록: 이미 있는 (user, url_hash) 제외
+        List<PendingHistory> newHistories = new ArrayList<>();
+        if (!histories.isEmpty()) {
+            Set<Long> userIds = new HashSet<>();
+            Set<String> urlHashes = new HashSet<>();
+            histories.values().forEach(h -> {
+                userIds.add(h.user().getId());
+                urlHashes.add(h.urlHash());
+            });
+
+            Set<String> existing = new HashSet<>();
+            for (Object[] row : newsHistoryRepository.findUserUrlHashes(userIds, urlHashes)) {
+                existing.add(saveKey((Long) row[0], (String) row[1]));
             }
-        } else {
-            if (fastApiRepository.existsByUserIsNullAndUrl(url)) {
-                log.info("중복(비로그인-URL)이라 저장 스킵: url={}", url);
-                return;
+
+            histories.forEach((key, history) -> {
+                if (existing.contains(key)) {
+                    log.info("중복(유저-URL)이라 기록 스킵: userId={}, urlHash={}", history.user().getId(), history.urlHash());
+                } else {
+                    newHistories.add(history);
+                }
+            });
+            insertHistories(newHistories, articleIds);
+        }
+
+        // 4) 랭킹 집계 (커밋된 뒤에만 버퍼에 반영)
+        List<FastApiEntity> ranked = new ArrayList<>();
+        for (PendingHistory history : newHistories) {
+            ranked.add(articles.get(history.urlHash()));
+        }
+        for (FastApiEntity article : newArticles) {
+            if (anonymousHashes.contains(article.getUrlHash())) {
+                ranked.add(article);
             }
         }
+        incrementRankingAfterCommit(ranked);
+
+        // 회사별 기사 목록 ETag (새 기사가 생긴 회사만)
+        newArticles.stream().map(FastApiEntity::getCompany).filter(Objects::nonNull).distinct()
+                .forEach(company -> resourceVersions.bump(ResourceVersions.companyPosts(company)));
 
-        FastApiEntity entity = FastApiEntity.builder()
+        // 5) 사용자별 기록 개수 제한
+        Map<Long, SiteUser> savedUsers = new LinkedHashMap<>();
+        newHistories.forEach(h -> savedUsers.putIfAbsent(h.user().getId(), h.user()));
+        savedUsers.values().forEach(this::limitUserNewsRecords);
+
+        return newArticles.size() + newHistories.size();
+    }
+
+    private record PendingHistory(SiteUser user, String urlHash) {
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 후에 랭킹 버퍼에 반영
+     * <p>
+     * 뒤 단계(기록 개수 제한 등)에서 실패해 롤백되면 배치가 통째로 다시 처리되므로,
+     * 미리 버퍼에 넣어 두면 같은 증가분이 두 번 반영된다. (ResourceVersions.bump 와 같은 방식)
+     */
+    private void incrementRankingAfterCommit(List<FastApiEntity> ranked) {
+        if (ranked.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ranked.forEach(this::incrementRanking);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ranked.forEach(FastApiService.this::incrementRanking);
+            }
+        });
+    }
+
+    private void incrementRanking(FastApiEntity article) {
+        rankingIncrementBuffer.increment(article.getCompany(),
+                RankingDimension.of(article.getPrediction(), article.getSentiment()));
+        rankingIncrementBuffer.incrementKeywords(ArticleKeywords.normalized(article.getKeywords()));
+    }
+
+    private Map<String, Long> findArticleIds(Collection<String> urlHashes) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : fastApiRepository.findArticleIdsByUrlHashes(urlHashes)) {
+            ids.put((String) row[0], (Long) row[1]);
+        }
+        return ids;
+    }
+
+    /**
+     * INSERT 직후 기사 id 재조회 (findArticleIds 와 같이 url_hash 당 가장 작은 id)
+     * <p>
+     * 다른 트랜잭션이 먼저 넣은 행은 이 트랜잭션 스냅샷에 없으므로 FOR UPDATE 잠금 읽기로 읽는다.
+     * 그래도 못 찾은 url_hash 가 있으면 NULL id 로 피드 / 기록을 쓰지 않도록 실패시킨다. (배치 재처리)
+     */
+    private Map<String, Long> lockArticleIds(Collection<String> urlHashes) {
+        String placeholders = String.join(",", Collections.nCopies(urlHashes.size(), "?"));
+        Map<String, Long> ids = jdbcTemplate.query(String.format(LOCK_ARTICLE_IDS_SQL, placeholders), ps -> {
+            int i = 1;
+            for (String urlHash : urlHashes) {
+                ps.setString(i++, urlHash);
+            }
+        }, (ResultSetExtractor<Map<String, Long>>) rs -> {
+            Map<String, Long> found = new HashMap<>();
+            while (rs.next()) {
+                found.merge(rs.getString(1), rs.getLong(2), Math::min);
+            }
+            return found;
+        });
+        if (ids == null || !ids.keySet().containsAll(urlHashes)) {
+            throw new IllegalStateException("INSERT 한 공유 기사 id 를 찾지 못함: urlHashes=" + urlHashes);
+        }
+        return ids;
+    }
+
+    /**
+     * 공유 기사 JDBC batch INSERT (@CreationTimestamp 가 동작하지 않으므로 created_at 직접 지정)
+     * <p>
+     * 조회 후 INSERT 사이에 다른 트랜잭션이 같은 URL 을 넣었으면 그 행이 남고 이쪽 행은 만들어지지 않는다.
+     * 호출 측은 INSERT 뒤 lockArticleIds (잠금 읽기) 로 id 를 다시 조회해서 쓴다.
+     */
+    private void insertArticles(List<FastApiEntity> articles, Timestamp now) {
+        jdbcTemplate.batchUpdate(INSERT_ARTICLE_SQL, articles, articles.size(), (ps, entity) -> {
+            ps.setString(1, entity.getTitle());
+            ps.setString(2, entity.getContent());
+            ps.setString(3, entity.getUrl());
+            ps.setString(4, entity.getUrlHash());
+            ps.setString(5, entity.getThumbnailUrl());
+            ps.setString(6, entity.getNewsTime());
+            ps.setTimestamp(7, now);
+            ps.setString(8, entity.getCompany());
+            ps.setString(9, entity.getPrediction());
+            ps.setString(10, entity.getSummary());
+            ps.setString(11, entity.getKeywordsJson());
+            ps.setString(12, entity.getSentiment());
+            ps.setFloat(13, entity.getProb());
+        });
+    }
+
+    /**
+     * 회사별 피드에 새 기사 반영 (getCompanyRecordsSeek 가 읽는 테이블)
+     */
+    private void upsertFeed(List<FastApiEntity> articles, Map<String, Long> articleIds, Timestamp now) {
+        List<FastApiEntity> withCompany = articles.stream().filter(a -> a.getCompany() != null).toList();
+        if (withCompany.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_FEED_SQL, withCompany, withCompany.size(), (ps, entity) -> {
+            ps.setString(1, entity.getCompany());
+            ps.setString(2, entity.getUrlHash());
+            ps.setLong(3, articleIds.get(entity.getUrlHash()));
+            ps.setTimestamp(4, now);
+        });
+    }
+
+    /**
+     * 새 기사의 정규화 키워드를 역색인에 반영 (getKeywordRecordsSeek 가 읽는 테이블)
+     */
+    private void upsertKeywords(List<FastApiEntity> articles, Map<String, Long> articleIds, Timestamp now) {
+        List<KeywordRow> rows = new ArrayList<>();
+        for (FastApiEntity article : articles) {
+            for (String keyword : ArticleKeywords.normalized(article.getKeywords())) {
+                rows.add(new KeywordRow(keyword, article.getUrlHash()));
+            }
+        }
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_KEYWORD_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.keyword());
+            ps.setString(2, row.urlHash());
+            ps.setLong(3, articleIds.get(row.urlHash()));
+            ps.setTimestamp(4, now);
+        });
+    }
+
+    private record KeywordRow(String keyword, String urlHash) {
+    }
+
+    private void insertHistories(List<PendingHistory> histories, Map<String, Long> articleIds) {
+        if (histories.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, histories, histories.size(), (ps, history) -> {
+            ps.setLong(1, history.user().getId());
+            ps.setLong(2, articleIds.get(history.urlHash()));
+            ps.setTimestamp(3, now);
+        });
+    }
+
+    private FastApiEntity toEntity(SiteUser user, FastApiResponse apiResponse) {
+        return FastApiEntity.builder()
                 .user(user)
                 .title(apiResponse.title())
                 .content(apiResponse.content())
-                .url(url)
+                .url(apiResponse.url())
                 .thumbnailUrl(apiResponse.thumbnail_url())
                 .newsTime(apiResponse.time())
                 .company(apiResponse.company())
@@ -241,13 +563,10 @@ public class FastApiService {
                 .sentiment(apiResponse.sentiment())
                 .prob(apiResponse.prob())
                 .build();
+    }
 
-        fastApiRepository.save(entity);
-        redisRankingService.increaseToday(entity.getCompany());
-
-        if (user != null) {
-            limitUserNewsRecords(user);
-        }
+    private static String saveKey(Long userId, String urlHash) {
+        return userId + "|" + urlHash;
     }
 
     /**
@@ -261,15 +580,13 @@ public class FastApiService {
 
     @Transactional
     public void limitUserNewsRecords(SiteUser user) {
-        long total = fastApiRepository.countByUser(user);
+        long total = newsHistoryRepository.countByUser_Id(user.getId());
         int MAXRECODE = 30;
         if (total > MAXRECODE) {
             int toDelete = (int) (total - MAXRECODE);
-            Pageable pageable = PageRequest.of(0, toDelete);
-            List<FastApiEntity> oldest = fastApiRepository.findByUserOrderByCreatedAtAsc(user, pageable);
+            List<Long> oldest = newsHistoryRepository.findOldestIds(user.getId(), PageRequest.of(0, toDelete));
             if (!oldest.isEmpty()) {
-                List<Long> ids = oldest.stream().map(FastApiEntity::getId).collect(Collectors.toList());
-                fastApiRepository.deleteByIdIn(ids);
+                newsHistoryRepository.deleteByIdIn(oldest);
             }
         }
     }
@@ -281,15 +598,16 @@ public class FastApiService {
      * 안정적인 커서 기반 페이징 구현.
      * <p>
      * 무한 스크롤 환경에 적합한 구조.
+     * 목록이므로 카드 컬럼만 조회 (본문 / 요약 / 키워드는 getArticle)
      */
-    public SeekSliceResponse<FastApiEntity> getCompanyRecordsSeek(
+    public SeekSliceResponse<NewsCardDto> getCompanyRecordsSeek(
             String company,
             LocalDateTime lastCreatedAt,
             Long lastId,
             int size
     ) {
         Pageable pageable = PageRequest.of(0, size + 1); // hasNext 판별용으로 +1
-        List<FastApiEntity> list =
+        List<NewsCardDto> list =
                 fastApiRepository.findLatestUniqueUrlByCompanySeek(company, lastCreatedAt, lastId, pageable);
 
 
@@ -300,6 +618,39 @@ public class FastApiService {
         return new SeekSliceResponse<>(list, hasNext);
     }
 
+    /**
+     * 키워드가 나온 기사를 Seek 방식으로 조회 (키워드 역색인 article_keyword).
+     * <p>
+     * 검색어도 색인과 같은 규칙으로 정규화하므로 대소문자 / 전각 / 앞의 '#' 차이는 무시된다.
+     * 목록이므로 카드 컬럼만 조회
+     */
+    public SeekSliceResponse<NewsCardDto> getKeywordRecordsSeek(
+            String keyword,
+            LocalDateTime lastCreatedAt,
+            Long lastId,
+            int size
+    ) {
+        String normalized = ArticleKeywords.normalize(keyword);
+        if (normalized == null) return new SeekSliceResponse<>(List.of(), false);
+
+        Pageable pageable = PageRequest.of(0, size + 1); // hasNext 판별용으로 +1
+        List<NewsCardDto> list =
+                articleKeywordRepository.findArticlesByKeywordSeek(normalized, lastCreatedAt, lastId, pageable);
+
+        boolean hasNext = list.size() > size;
+        if (hasNext) list = list.subList(0, size);
+        return new SeekSliceResponse<>(list, hasNext);
+    }
+
+    /**
+     * 기사 상세 (카드 목록에서 하나를 열었을 때)
+     */
+    public FastApiResponse getArticle(Long id) {
+        return fastApiRepository.findById(id)
+                .map(FastApiEntity::toResponse)
+                .orElseThrow(() -> new PostNotFoundException("존재하지 않는 기사입니다: " + id));
+    }
+
     //    // ========================================================
 //    // WebSocket 기반 단계별 분석
 //    // ========================================================
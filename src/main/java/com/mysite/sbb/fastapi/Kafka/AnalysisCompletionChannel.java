@@ -0,0 +1,23 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import java.util.Collection;
+
+/**
+ * 분석 완료 알림 채널 (인스턴스 간 브로드캐스트)
+ * <p>
+ * 목적:
+ * - analysis-done 을 소비한 인스턴스와 long-poll / SSE 요청을 들고 있는 인스턴스가 다를 수 있으므로
+ * 결과 저장(AnalysisResultStore.putResult) 이후 모든 인스턴스에 analysisId 를 알린다.
+ * - 알림을 받은 인스턴스는 AnalysisCompletionHub 로 넘겨 대기 중인 요청을 깨운다.
+ * <p>
+ * 구현:
+ * - 운영: Redis Pub/Sub
+ * - 테스트: 같은 JVM 의 Hub 로 바로 전달
+ */
+public interface AnalysisCompletionChannel {
+
+    /**
+     * 결과 저장이 끝난 analysisId 들을 알린다. (배치 소비 시 한 번에)
+     */
+    void publish(Collection<String> analysisIds);
+}
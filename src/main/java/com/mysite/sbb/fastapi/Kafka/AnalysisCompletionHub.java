@@ -0,0 +1,133 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 분석 완료 대기 요청 보관소 (인스턴스 로컬)
+ * <p>
+ * 목적:
+ * - /api/analyze-result/{id} 폴링 대신
+ * long-poll(DeferredResult) / SSE(SseEmitter) 로 요청을 걸어두고 완료 시 한 번에 응답
+ * - 대기 중에는 서블릿 스레드를 점유하지 않음 (Spring MVC async)
+ * <p>
+ * 흐름:
+ * 1) 대기자 등록 → 2) 이미 결과가 있으면 즉시 응답
+ * 3) 없으면 AnalysisCompletionChannel 알림 → onCompleted 에서 결과를 한 번 읽어 모든 대기자에게 전달
+ * <p>
+ * 등록 후에 결과를 확인하므로 "확인 → 등록" 사이에 완료 알림을 놓치는 경쟁 구간이 없다.
+ * (putResult 가 알림보다 먼저 수행됨)
+ * <p>
+ * 실패로 끝난 분석(AnalysisResult.failed)은 long-poll 502 FAILED, SSE error 이벤트로 전달한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisCompletionHub {
+
+    private final AnalysisResultStore analysisResultStore;
+
+    private final Map<String, List<Consumer<AnalysisResult>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * long-poll: 완료 시 200 + 결과, 실패 시 502 FAILED, 타임아웃 시 기존 폴링 API 와 같은 404 PENDING
+     */
+    public DeferredResult<ResponseEntity<?>> await(String analysisId, long timeoutMs) {
+        DeferredResult<ResponseEntity<?>> deferred = new DeferredResult<>(timeoutMs,
+                () -> ResponseEntity.status(404).body(Map.of("status", "PENDING")));
+
+        Consumer<AnalysisResult> waiter = result -> deferred.setResult(result.toResponseEntity(analysisId));
+        register(analysisId, waiter);
+        deferred.onCompletion(() -> unregister(analysisId, waiter));
+
+        deliverIfDone(analysisId);
+        return deferred;
+    }
+
+    /**
+     * SSE: 연결 직후 pending 이벤트, 완료 시 complete(실패 시 error) 이벤트 후 종료
+     */
+    public SseEmitter stream(String analysisId, long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        Consumer<AnalysisResult> waiter = result -> {
+            try {
+                emitter.send(result.failed()
+                        ? SseEmitter.event().name("error").data(result.failureBody(analysisId))
+                        : SseEmitter.event().name("complete").data(result.response()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        };
+        register(analysisId, waiter);
+        emitter.onCompletion(() -> unregister(analysisId, waiter));
+        emitter.onTimeout(() -> unregister(analysisId, waiter));
+        emitter.onError(e -> unregister(analysisId, waiter));
+
+        try {
+            emitter.send(SseEmitter.event().name("pending").data(Map.of("analysisId", analysisId)));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        deliverIfDone(analysisId);
+        return emitter;
+    }
+
+    /**
+     * 완료 알림 수신 (AnalysisCompletionChannel)
+     * <p>
+     * 결과 저장소의 로컬 pending 캐시를 먼저 지우고,
+     * 이 인스턴스에 대기자가 없으면 Redis 조회도 하지 않는다.
+     */
+    public void onCompleted(String analysisId) {
+        analysisResultStore.onCompleted(analysisId);
+        if (!waiters.containsKey(analysisId)) return;
+        deliverIfDone(analysisId);
+    }
+
+    private void deliverIfDone(String analysisId) {
+        AnalysisResult result = analysisResultStore.getResult(analysisId);
+        if (result == null) return;
+
+        List<Consumer<AnalysisResult>> targets = waiters.remove(analysisId);
+        if (targets == null) return;
+
+        for (Consumer<AnalysisResult> target : targets) {
+            try {
+                target.accept(result);
+            } catch (Exception e) {
+                log.warn("[completion] deliver failed analysisId={} msg={}", analysisId, e.getMessage());
+            }
+        }
+    }
+
+    private void register(String analysisId, Consumer<AnalysisResult> waiter) {
+        // remove(onCompleted) 와 원자적으로 엇갈리도록 compute 안에서 추가
+        waiters.compute(analysisId, (k, list) -> {
+            List<Consumer<AnalysisResult>> target = list == null ? new CopyOnWriteArrayList<>() : list;
+            target.add(waiter);
+            return target;
+        });
+    }
+
+    private void unregister(String analysisId, Consumer<AnalysisResult> waiter) {
+        waiters.computeIfPresent(analysisId, (k, list) -> {
+            list.remove(waiter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 분석을 더 진행하지 않고 포기할 때의 종료 처리
+ * <p>
+ * 목적:
+ * - 완료 이벤트가 재시도 끝에 DLT 로 빠지거나, 요청이 Kafka 로 끝내 발행되지 못한 경우에도
+ * 대기자(WebSocket / long-poll / SSE)가 타임아웃까지 매달리지 않고, 같은 URL 재요청이 새 분석으로 가도록
+ * <p>
+ * 처리:
+ * - in-flight 해제 → ERROR 진행률 + 완료 이벤트 전송 → 실패 결과(AnalysisResult.failure) 저장 → 완료 알림
+ * (processed 마킹은 하지 않는다: DLT 재처리로 정상 결과가 오면 다시 저장될 수 있도록)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisFailurePublisher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final AnalysisProgressCoalescer progressCoalescer;
+    private final AnalysisResultStore analysisResultStore;
+    private final AnalysisInFlightRegistry inFlightRegistry;
+    private final AnalysisCompletionChannel completionChannel;
+
+    public void publish(String analysisId, String code) {
+        log.warn("[failure] giving up analysisId={} code={}", analysisId, code);
+
+        inFlightRegistry.complete(analysisId);
+
+        progressCoalescer.publishNow(analysisId, 100, "ERROR", AnalysisResult.FAILURE_MESSAGE);
+        messagingTemplate.convertAndSend("/topic/analyze-complete/" + analysisId, Map.of(
+                "error", true,
+                "code", code,
+                "message", AnalysisResult.FAILURE_MESSAGE,
+                "analysisId", analysisId
+        ));
+
+        analysisResultStore.putFailure(analysisId, code);
+        completionChannel.publish(List.of(analysisId));
+    }
+}
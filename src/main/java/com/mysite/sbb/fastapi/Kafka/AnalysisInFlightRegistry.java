@@ -0,0 +1,78 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 진행 중인 분석 요청 레지스트리 (정규화 URL 해시 기준 Single-flight)
+ * <p>
+ * 목적:
+ * - 같은 URL에 대한 분석이 이미 진행 중이면 새 Kafka 요청을 만들지 않고
+ * 기존 analysisId 에 합류시킨다.
+ * - 합류한 사용자들은 같은 /topic/analyze-*&#47;{analysisId} 를 구독하고,
+ * 완료 시 KafkaAnalysisListener가 모든 대기 사용자에게 결과를 저장한다.
+ * <p>
+ * 구현:
+ * - 운영: Redis 기반 (여러 인스턴스 간 공유)
+ * - 테스트: 인메모리 구현
+ */
+public interface AnalysisInFlightRegistry {
+
+    /**
+     * urlHash(UrlCanonicalizer.hash) 에 진행 중인 분석이 없으면 candidateId 를 리더로 등록하고 그대로 반환한다.
+     * 이미 진행 중이면 기존 analysisId 를 반환한다.
+     * <p>
+     * 어느 경우든 userId(비로그인이면 null/blank 제외)는 대기자 목록에 추가된다.
+     */
+    String joinOrStart(String urlHash, String candidateId, String userId);
+
+    /**
+     * 해당 분석을 기다리는 사용자 목록 조회 (리더 포함)
+     */
+    Set<String> waiters(String analysisId);
+
+    /**
+     * url 매핑만 해제 (대기자 목록은 유지)
+     * <p>
+     * 완료 처리 중 대기자를 읽기 전에 호출한다.
+     * 이후 같은 URL 요청은 이 분석에 합류하지 않으므로, 읽은 대기자 목록이 마지막 목록이 된다.
+     * (닫힌 뒤 저장이 끝나기 전 요청은 새 분석으로 간다)
+     */
+    void close(String analysisId);
+
+    /**
+     * 분석 종료 처리 (성공/실패 무관)
+     * - url 매핑 해제 → 이후 요청은 DB 캐시 또는 새 분석으로 처리
+     * - 대기자 목록 삭제
+     */
+    void complete(String analysisId);
+
+    /**
+     * 여러 분석의 대기자 목록을 한 번에 조회 (배치 소비용)
+     * <p>
+     * 기본 구현은 단건 조회 반복, Redis 구현은 파이프라인 한 번으로 처리한다.
+     */
+    default Map<String, Set<String>> waiters(Collection<String> analysisIds) {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        for (String analysisId : analysisIds) {
+            result.put(analysisId, waiters(analysisId));
+        }
+        return result;
+    }
+
+    /**
+     * 여러 분석의 url 매핑을 한 번에 해제 (배치 소비용)
+     */
+    default void closeAll(Collection<String> analysisIds) {
+        analysisIds.forEach(this::close);
+    }
+
+    /**
+     * 여러 분석의 종료 처리를 한 번에 수행 (배치 소비용)
+     */
+    default void completeAll(Collection<String> analysisIds) {
+        analysisIds.forEach(this::complete);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 분석 요청 Outbox (analysis_outbox)
+ * <p>
+ * start() 트랜잭션 안에서 함께 INSERT 되고,
+ * AnalysisOutboxRelay 가 Kafka 전송 완료를 확인한 뒤 삭제한다.
+ * → 커밋과 전송 사이에 프로세스가 죽어도 요청이 유실되지 않음
+ * <p>
+ * 최대 시도 횟수를 넘기면 삭제하지 않고 DEAD 로 남긴다. (원인 확인 / 수동 재발행용)
+ */
+@Entity
+@Table(name = "analysis_outbox",
+        indexes = @Index(name = "idx_analysis_outbox_status", columnList = "status, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class AnalysisOutbox {
+
+    public enum Status {
+        PENDING,
+        DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Kafka 메시지 key (파티션 기준)
+    @Column(name = "analysis_id", nullable = false, length = 64)
+    private String analysisId;
+
+    // 전송할 JSON 본문 (AnalyzeEventDTO)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    public AnalysisOutbox(String analysisId, String payload) {
+        this.analysisId = analysisId;
+        this.payload = payload;
+    }
+}
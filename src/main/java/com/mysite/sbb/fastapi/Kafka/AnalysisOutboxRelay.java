@@ -0,0 +1,199 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 분석 요청 Outbox 릴레이
+ * <p>
+ * 목적:
+ * - /api/analyze-async 요청 스레드에서 Kafka 전송을 떼어내고
+ * (요청 지연이 브로커 지연과 무관해짐)
+ * - 전송 완료(ack)를 확인한 행만 삭제해서 at-least-once 보장
+ * <p>
+ * 흐름 (한 배치 = 한 트랜잭션):
+ * 1) FOR UPDATE SKIP LOCKED 로 최대 batch-size 행 잠금
+ * 2) 전부 send → producer 가 linger/compression 설정대로 묶어서 전송
+ * (send 자체가 던지는 예외, 예: 메타데이터 대기 max.block.ms 초과도 그 행의 실패로 처리)
+ * 3) 배치 전체에 send-timeout-ms 마감 하나로 future 를 기다린 뒤 성공한 행 삭제,
+ * 실패했거나 마감까지 끝나지 않은 행은 attempts 증가
+ * (행마다 따로 기다리면 FOR UPDATE 락을 잡은 채 최대 행 수 × 타임아웃까지 늘어남)
+ * 4) attempts 가 max-attempts 에 닿은 행은 DEAD 로 남기고, 커밋 후 대기자에게 실패를 알림
+ * (AnalysisFailurePublisher: in-flight 해제 + ERROR 전송 → 같은 URL 재요청은 새 분석으로)
+ * <p>
+ * 트랜잭션은 READ COMMITTED: REPEATABLE READ 에서는 잠금 조회 / DELETE 가 갭(next-key) 락까지 잡아
+ * 같은 시각 start() 의 Outbox INSERT 와 데드락이 난다. (벤치마크에서 확인)
+ * <p>
+ * 배치가 꽉 차 있으면 같은 주기 안에서 바로 다음 배치를 이어서 처리한다.
+ * 처리량은 analysis.outbox.* 설정으로 HTTP 경로와 별개로 조정 가능.
+ */
+@Component
+@Slf4j
+public class AnalysisOutboxRelay {
+
+    private final AnalysisOutboxRepository outboxRepository;
+    private final AnalyzeKafkaProducer kafkaProducer;
+    private final AnalysisFailurePublisher failurePublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final long sendTimeoutMs;
+
+    public AnalysisOutboxRelay(
+            AnalysisOutboxRepository outboxRepository,
+            AnalyzeKafkaProducer kafkaProducer,
+            AnalysisFailurePublisher failurePublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${analysis.outbox.batch-size:200}") int batchSize,
+            @Value("${analysis.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+            @Value("${analysis.outbox.max-attempts:20}") int maxAttempts,
+            @Value("${analysis.outbox.send-timeout-ms:10000}") long sendTimeoutMs
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.failurePublisher = failurePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.outbox.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer drained = transactionTemplate.execute(status -> relayBatch());
+                if (drained == null || drained < batchSize) return;
+            }
+        } catch (Exception e) {
+            log.error("[outbox] relay error: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 한 배치 전송 (트랜잭션 안에서 호출)
+     *
+     * @return 전송 성공한 행 수 (실패가 섞이면 이번 주기는 여기서 멈춤)
+     */
+    int relayBatch() {
+        List<AnalysisOutbox> rows = outboxRepository.lockPending(batchSize);
+        if (rows.isEmpty()) return 0;
+
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(rows.size());
+        for (AnalysisOutbox row : rows) {
+            try {
+                futures.add(kafkaProducer.send(row.getAnalysisId(), row.getPayload()));
+            } catch (RuntimeException e) {
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        awaitAll(futures);
+
+        List<Long> sent = new ArrayList<>(rows.size());
+        List<String> dead = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            AnalysisOutbox row = rows.get(i);
+            CompletableFuture<SendResult<String, String>> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                sent.add(row.getId());
+                continue;
+            }
+
+            String reason = failureReason(future);
+            row.setAttempts(row.getAttempts() + 1);
+            row.setLastError(reason.length() > 500 ? reason.substring(0, 500) : reason);
+            log.warn("[outbox] send failed analysisId={} attempts={} error={}",
+                    row.getAnalysisId(), row.getAttempts(), reason);
+
+            if (row.getAttempts() >= maxAttempts) {
+                row.setStatus(AnalysisOutbox.Status.DEAD);
+                dead.add(row.getAnalysisId());
+                log.error("[outbox] giving up analysisId={} after {} attempts", row.getAnalysisId(), row.getAttempts());
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            outboxRepository.deleteByIdIn(sent);
+        }
+        if (sent.size() < rows.size()) {
+            log.warn("[outbox] batch partially sent {}/{}", sent.size(), rows.size());
+        }
+        notifyDeadAfterCommit(dead);
+        return sent.size();
+    }
+
+    /**
+     * DEAD 표시가 커밋된 뒤에만 실패를 알림 (롤백되면 다음 주기에 다시 시도되므로)
+     */
+    private void notifyDeadAfterCommit(List<String> analysisIds) {
+        if (analysisIds.isEmpty()) return;
+
+        Runnable notify = () -> analysisIds.forEach(id -> {
+            try {
+                failurePublisher.publish(id, "OUTBOX_DEAD");
+            } catch (Exception e) {
+                log.warn("[outbox] dead notification failed analysisId={} msg={}", id, e.getMessage());
+            }
+        });
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notify.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notify.run();
+            }
+        });
+    }
+
+    /**
+     * 배치 전체를 sendTimeoutMs 안에서 기다림. 실패 / 미완료는 호출 측이 future 별로 판단
+     */
+    private void awaitAll(List<CompletableFuture<SendResult<String, String>>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("[outbox] send deadline {}ms exceeded", sendTimeoutMs);
+        } catch (ExecutionException e) {
+            // 일부 실패: 행별로 기록
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String failureReason(CompletableFuture<SendResult<String, String>> future) {
+        if (!future.isDone()) return "send timeout after " + sendTimeoutMs + "ms";
+        try {
+            future.join();
+            return "unknown";
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.toString();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalysisOutboxRepository extends JpaRepository<AnalysisOutbox, Long> {
+
+    /**
+     * 전송 대기 중인(PENDING) Outbox 행을 id 순으로 잠그며 가져온다.
+     * <p>
+     * SKIP LOCKED → 여러 인스턴스의 릴레이가 같은 행을 중복 전송하지 않고 서로 다른 배치를 가져감
+     * (MySQL 8.0+)
+     */
+    @Query(value = """
+                SELECT *
+                FROM analysis_outbox
+                WHERE status = 'PENDING'
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<AnalysisOutbox> lockPending(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM AnalysisOutbox o WHERE o.id IN :ids")
+    void deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
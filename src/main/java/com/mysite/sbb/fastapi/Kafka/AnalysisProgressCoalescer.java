@@ -0,0 +1,117 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import com.mysite.sbb.config.StompSubscriptionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분석 진행률 WebSocket 전송 병합기 (analysisId 단위)
+ * <p>
+ * 목적:
+ * - Kafka 스레드는 최신 진행 상태만 덮어쓰고 바로 리턴
+ * - 스케줄러가 analysis.progress.flush-interval-ms 간격으로 바뀐 것만 전송
+ * → 같은 주기 안의 중간 진행률은 마지막 값 하나로 합쳐짐
+ * - 구독자가 없는 분석은 전송하지 않음
+ * <p>
+ * Last-value cache:
+ * - 전송 여부와 무관하게 마지막 상태를 보관 (LAST_VALUE_TTL_MS 동안)
+ * - 늦게 구독한 클라이언트가 있으면 다음 flush 에서 현재 상태를 바로 받도록 dirty 처리
+ * (구독 이벤트 시점에는 SimpleBroker 에 구독이 아직 등록되지 않았을 수 있어 즉시 전송하지 않음)
+ * <p>
+ * 완료/실패 같은 종료 상태는 publishNow 로 즉시 전송하고,
+ * 이후에 늦게 도착한 진행률이 종료 상태를 덮어쓰지 않도록 막는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisProgressCoalescer {
+
+    static final String DESTINATION_PREFIX = "/topic/analyze-progress/";
+    private static final long LAST_VALUE_TTL_MS = 10 * 60 * 1000L;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+
+    private final Map<String, Progress> latest = new ConcurrentHashMap<>();
+
+    private record Progress(Map<String, Object> payload, int percent, boolean terminal, boolean dirty, long updatedAt) {
+        Progress clean() {
+            return new Progress(payload, percent, terminal, false, updatedAt);
+        }
+
+        Progress markDirty() {
+            return new Progress(payload, percent, terminal, true, updatedAt);
+        }
+    }
+
+    /**
+     * 진행 중 상태 갱신 (전송은 다음 flush 에서)
+     * <p>
+     * 종료 상태 이후 값, 진행률이 뒤로 가는 값은 무시한다.
+     */
+    public void offer(String analysisId, int percent, String stage, String message) {
+        latest.compute(analysisId, (id, prev) -> {
+            if (prev != null && (prev.terminal() || percent < prev.percent())) return prev;
+            return new Progress(payload(analysisId, percent, stage, message), percent, false, true,
+                    System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * 종료 상태(DONE/ERROR) 즉시 전송 + last-value 로 보관
+     */
+    public void publishNow(String analysisId, int percent, String stage, String message) {
+        Map<String, Object> payload = payload(analysisId, percent, stage, message);
+        latest.put(analysisId, new Progress(payload, percent, true, false, System.currentTimeMillis()));
+        messagingTemplate.convertAndSend(DESTINATION_PREFIX + analysisId, payload);
+    }
+
+    @Scheduled(fixedRateString = "${analysis.progress.flush-interval-ms:250}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        latest.forEach((analysisId, progress) -> {
+            if (now - progress.updatedAt() > LAST_VALUE_TTL_MS) {
+                latest.remove(analysisId, progress);
+                return;
+            }
+            if (!progress.dirty()) return;
+
+            // 보낼 값이 바뀌었으면(동시 offer) 다음 flush 로 미룸
+            if (!latest.replace(analysisId, progress, progress.clean())) return;
+
+            // 구독자가 생기면 onSubscribe 에서 다시 dirty 처리되므로 지금은 버려도 됨
+            if (!subscriptionRegistry.hasSubscribers(DESTINATION_PREFIX + analysisId)) return;
+
+            try {
+                messagingTemplate.convertAndSend(DESTINATION_PREFIX + analysisId, progress.payload());
+            } catch (Exception e) {
+                log.warn("[progress] flush failed analysisId={} msg={}", analysisId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 늦게 구독한 클라이언트에게 현재 상태 재전송 예약
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        String destination = SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders());
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX)) return;
+
+        String analysisId = destination.substring(DESTINATION_PREFIX.length());
+        latest.computeIfPresent(analysisId, (id, progress) -> progress.markDirty());
+    }
+
+    private static Map<String, Object> payload(String analysisId, int percent, String stage, String message) {
+        return Map.of("analysisId", analysisId, "percent", percent, "stage", stage, "message", message);
+    }
+}
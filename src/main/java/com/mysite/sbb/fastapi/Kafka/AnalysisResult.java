@@ -0,0 +1,57 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import com.mysite.sbb.fastapi.FastApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+/**
+ * AnalysisResultStore 에 저장되는 분석 결과 (성공 또는 실패)
+ * <p>
+ * 실패는 빈 FastApiResponse 가 아니라 failureCode 로 표시한다.
+ * → 조회 API 가 제목 문자열 비교 없이 성공(200 + 결과) / 실패(502 + FAILED)를 구분
+ * <p>
+ * failureCode:
+ * - FASTAPI_ERROR : FastAPI 가 에러 응답을 보냄
+ * - DONE_DEAD_LETTER : 완료 이벤트가 재시도 끝에 DLT 로 빠짐
+ * - OUTBOX_DEAD : 요청을 Kafka 로 끝내 발행하지 못함
+ */
+public record AnalysisResult(FastApiResponse response, String failureCode) {
+
+    static final String FAILURE_MESSAGE = "분석 실패";
+
+    public static AnalysisResult success(FastApiResponse response) {
+        return new AnalysisResult(response, null);
+    }
+
+    public static AnalysisResult failure(String code) {
+        return new AnalysisResult(null, code);
+    }
+
+    public boolean failed() {
+        return failureCode != null;
+    }
+
+    /**
+     * 실패 응답 본문 (HTTP / SSE error 이벤트 공통)
+     */
+    public Map<String, Object> failureBody(String analysisId) {
+        return Map.of(
+                "status", "FAILED",
+                "code", failureCode,
+                "message", FAILURE_MESSAGE,
+                "analysisId", analysisId
+        );
+    }
+
+    /**
+     * 성공이면 200 + 결과, 실패면 502 + FAILED
+     */
+    public ResponseEntity<?> toResponseEntity(String analysisId) {
+        if (failed()) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(failureBody(analysisId));
+        }
+        return ResponseEntity.ok(response);
+    }
+}
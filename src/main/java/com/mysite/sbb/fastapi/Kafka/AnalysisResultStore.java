@@ -1,15 +1,25 @@
 package com.mysite.sbb.fastapi.Kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mysite.sbb.fastapi.FastApiResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * 분석 결과 임시 저장소 (Redis 기반)
+ * 분석 결과 임시 저장소 (Near cache + Redis 2단 구조)
  * <p>
  * 목적:
  * - Kafka 비동기 분석 완료 후 결과를 Redis에 저장
@@ -20,9 +30,17 @@ import java.util.concurrent.TimeUnit;
  * 1. DB 부하 방지 (임시 조회는 Redis 사용)
  * 2. 비동기 요청-응답 패턴 구현
  * 3. TTL 기반 자동 만료
+ * 4. 인스턴스 로컬 near cache(Caffeine, 크기/TTL 제한)로 반복 조회 시 Redis GET + 역직렬화 생략
+ * 5. Redis 에는 GZIP 압축한 JSON 바이트로 저장 (기사 본문 content 가 대부분이라 압축 효과가 큼)
+ * 6. 실패도 AnalysisResult.failure(code) 로 저장 → 조회 측이 성공 / 실패를 구분
+ * <p>
+ * 무효화:
+ * - 결과는 덮어써질 수 있다 (예: DLT 로 실패 저장 후 재처리로 정상 결과 저장)
+ * - 그래서 positive / negative(pending) 캐시 모두 완료 알림(AnalysisCompletionChannel)을 받으면
+ * 모든 인스턴스에서 즉시 지운다.
+ * - pending 캐시는 알림 유실에 대비해 아주 짧게만 둔다.
  */
 @Service
-@RequiredArgsConstructor
 public class AnalysisResultStore {
 
     /**
@@ -30,52 +48,119 @@ public class AnalysisResultStore {
      */
     private static final long TTL_MINUTES = 10;
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
     private final ObjectMapper objectMapper;
 
+    private final Cache<String, AnalysisResult> nearCache;
+    private final Cache<String, Boolean> pendingCache;
+
+    public AnalysisResultStore(
+            RedisTemplate<String, byte[]> binaryRedisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${analysis.result.near-cache.max-size:2000}") long maxSize,
+            @Value("${analysis.result.near-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${analysis.result.near-cache.pending-ttl-ms:1000}") long pendingTtlMs
+    ) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(Math.min(ttlSeconds, TimeUnit.MINUTES.toSeconds(TTL_MINUTES))))
+                .build();
+        this.pendingCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(pendingTtlMs))
+                .build();
+    }
+
     /**
      * Redis Key 생성
-     * 형식: analysis:result:{analysisId}
+     * 형식: analysis:result:v3:{analysisId} (v3 = AnalysisResult 의 GZIP JSON 바이트)
      */
     private String key(String analysisId) {
-        return "analysis:result:" + analysisId;
+        return "analysis:result:v3:" + analysisId;
     }
 
     /**
      * 분석 결과 저장
      * <p>
-     * - FastApiResponse → JSON 직렬화
+     * - FastApiResponse → JSON → GZIP
      * - TTL 설정하여 자동 만료
+     * - 저장한 인스턴스의 near cache 도 바로 채움
      */
     public void putResult(String analysisId, FastApiResponse resp) {
-        try {
-            String json = objectMapper.writeValueAsString(resp);
+        put(analysisId, AnalysisResult.success(resp));
+    }
 
-            redisTemplate.opsForValue()
-                    .set(key(analysisId), json, TTL_MINUTES, TimeUnit.MINUTES);
+    /**
+     * 분석 실패 저장 (code 는 AnalysisResult 참고)
+     */
+    public void putFailure(String analysisId, String code) {
+        put(analysisId, AnalysisResult.failure(code));
+    }
+
+    private void put(String analysisId, AnalysisResult result) {
+        try {
+            binaryRedisTemplate.opsForValue()
+                    .set(key(analysisId), encode(result), TTL_MINUTES, TimeUnit.MINUTES);
 
         } catch (Exception e) {
             throw new RuntimeException("Redis 저장 실패", e);
         }
+        nearCache.put(analysisId, result);
+        pendingCache.invalidate(analysisId);
     }
 
     /**
      * 분석 결과 조회
      * <p>
-     * - Redis에서 JSON 조회
-     * - 역직렬화 후 반환
+     * - near cache → (pending 캐시면 바로 null) → Redis 순서로 조회
      * - 존재하지 않으면 null (아직 분석 중이거나 만료됨)
+     * - 실패로 끝났으면 failed() 인 결과
      */
-    public FastApiResponse getResult(String analysisId) {
+    public AnalysisResult getResult(String analysisId) {
+        AnalysisResult cached = nearCache.getIfPresent(analysisId);
+        if (cached != null) return cached;
+        if (pendingCache.getIfPresent(analysisId) != null) return null;
+
         try {
-            String json = redisTemplate.opsForValue().get(key(analysisId));
+            byte[] bytes = binaryRedisTemplate.opsForValue().get(key(analysisId));
 
-            if (json == null) return null;
+            if (bytes == null) {
+                pendingCache.put(analysisId, Boolean.TRUE);
+                return null;
+            }
 
-            return objectMapper.readValue(json, FastApiResponse.class);
+            AnalysisResult result = decode(bytes);
+            nearCache.put(analysisId, result);
+            return result;
 
         } catch (Exception e) {
             throw new RuntimeException("Redis 조회 실패", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 결과가 저장(또는 덮어쓰기)됐다는 알림을 받았을 때 로컬 캐시 제거
+     * <p>
+     * 저장한 인스턴스도 자기 알림을 받아 near cache 가 비워지지만, 다음 조회에서 Redis 로 한 번 다시 채울 뿐이다.
+     */
+    public void onCompleted(String analysisId) {
+        pendingCache.invalidate(analysisId);
+        nearCache.invalidate(analysisId);
+    }
+
+    private byte[] encode(AnalysisResult result) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, result);
+        }
+        return buffer.toByteArray();
+    }
+
+    private AnalysisResult decode(byte[] bytes) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return objectMapper.readValue(gzip, AnalysisResult.class);
+        }
+    }
+}
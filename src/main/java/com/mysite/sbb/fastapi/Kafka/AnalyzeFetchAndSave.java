@@ -5,18 +5,18 @@ import com.mysite.sbb.fastapi.FastApiRepository;
 import com.mysite.sbb.fastapi.FastApiResponse;
 import com.mysite.sbb.fastapi.FastApiService;
 import com.mysite.sbb.fastapi.Kafka.DTO.AnalyzeAsyncResponseDTO;
-import com.mysite.sbb.fastapi.Kafka.DTO.AnalyzeRequestEvent;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserRepository;
 import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.UrlCanonicalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -28,8 +28,11 @@ public class AnalyzeFetchAndSave {
     private final UserService userService;
     private final SimpMessagingTemplate messagingTemplate;
     private final AnalyzeKafkaProducer kafkaProducer;
-    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AnalysisOutboxRepository outboxRepository;
     private final UserRepository userRepository;
+    private final AnalysisInFlightRegistry inFlightRegistry;
+    private final AnalysisProgressCoalescer progressCoalescer;
+    private final AnalysisFailurePublisher failurePublisher;
 
 
     @Transactional
@@ -41,37 +44,58 @@ public class AnalyzeFetchAndSave {
                 ? userRepository.findByUsername(userId)
                 : null;
 
-        FastApiEntity existing = fastApiRepository.findFirstByUrl(url);
+        // 추적 파라미터/모바일 호스트 등을 정규화한 해시로 조회 (url_hash 인덱스)
+        String urlHash = UrlCanonicalizer.hash(url);
+        FastApiEntity existing = fastApiRepository.findFirstByUrlHash(urlHash);
 
         // 캐시 히트: WS 발사하지 말고 HTTP로 결과 반환
         if (existing != null) {
             FastApiResponse resp = existing.toResponse();
 
-            if (user != null && !fastApiRepository.existsByUserAndUrl(user, url)) {
-                // 유저-URL 연결만 추가 저장
+            if (user != null) {
+                // 공유 기사에 유저 기록(news_history)만 연결 (이미 있으면 saveEntity 내부에서 스킵)
                 fastApiService.saveEntity(user, resp);
-                log.info("[Cache Hit] 새 유저 기록 저장: userId={}, url={}", userId, url);
             }
 
             return new AnalyzeAsyncResponseDTO(analysisId, true, resp);
         }
 
+        // 캐시 미스 + 이미 같은 URL 분석이 진행 중이면 기존 analysisId에 합류
+        // (같은 토픽을 구독하게 하고, 완료 시 KafkaAnalysisListener가 대기자 모두에게 저장)
+        String leaderId = inFlightRegistry.joinOrStart(urlHash, analysisId, userId);
+        if (!leaderId.equals(analysisId)) {
+            log.info("[Coalesced] 진행 중인 분석에 합류: analysisId={}, url={}, userId={}", leaderId, url, userId);
+            return new AnalyzeAsyncResponseDTO(leaderId, false, null);
+        }
+
+        // 리더 등록은 합류 판정 때문에 Redis 에 바로 기록된다. (트랜잭션 밖)
+        // Outbox INSERT 가 롤백되면 발행되지 않을 분석이므로 등록을 풀고 합류한 대기자에게 실패 전달
+        releaseOnRollback(analysisId);
+
         // 캐시 미스: Kafka로 분석 요청 (WS는 KafkaListener가 쏴줌)
-        publishProgress(analysisId, 0, "START", "분석 요청 전송 중.");
-        applicationEventPublisher.publishEvent(new AnalyzeRequestEvent(analysisId, url, userId));
+        // 아직 구독 전일 수 있으므로 last-value 로 남겨 두고 구독 직후 flush 에서 전달
+        progressCoalescer.offer(analysisId, 0, "START", "분석 요청 전송 중.");
+        // 같은 트랜잭션에서 Outbox 에 기록 → 커밋되면 AnalysisOutboxRelay 가 Kafka로 전송
+        outboxRepository.save(new AnalysisOutbox(analysisId, kafkaProducer.toPayload(analysisId, url, userId)));
 
         return new AnalyzeAsyncResponseDTO(analysisId, false, null);
     }
 
-    private void publishProgress(String analysisId, int percent, String stage, String message) {
-        messagingTemplate.convertAndSend(
-                "/topic/analyze-progress/" + analysisId,
-                Map.of("analysisId", analysisId, "percent", percent, "stage", stage, "message", message)
-        );
+    private void releaseOnRollback(String analysisId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) return;
+                log.warn("[START] rolled back, releasing in-flight analysisId={}", analysisId);
+                failurePublisher.publish(analysisId, "START_ROLLED_BACK");
+            }
+        });
     }
 
     private void publishComplete(String analysisId, FastApiResponse resp, String message) {
-        publishProgress(analysisId, 100, "DONE", message);
+        progressCoalescer.publishNow(analysisId, 100, "DONE", message);
         messagingTemplate.convertAndSend("/topic/analyze-complete/" + analysisId, resp);
     }
 }
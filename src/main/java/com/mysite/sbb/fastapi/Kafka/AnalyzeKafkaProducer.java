@@ -5,8 +5,11 @@ import com.mysite.sbb.fastapi.Kafka.DTO.AnalyzeEventDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 뉴스 분석 요청 이벤트를 Kafka로 발행(Producer)하는 서비스.
  * <p>
@@ -16,7 +19,7 @@ import org.springframework.stereotype.Service;
  * - 트래픽 급증 시에도 Kafka가 버퍼 역할을 수행
  * <p>
  * 구조:
- * Spring API → Kafka Topic → Consumer(FastAPI or 분석 서버)
+ * Spring API → analysis_outbox → AnalysisOutboxRelay → Kafka Topic → Consumer(FastAPI or 분석 서버)
  */
 @Service
 @RequiredArgsConstructor
@@ -44,40 +47,28 @@ public class AnalyzeKafkaProducer {
     private String requestTopic;
 
     /**
-     * 뉴스 분석 요청 이벤트 발행 메서드.
-     *
-     * @param analysisId 분석 작업 고유 ID (Key로 사용 → 파티션 정렬 보장)
-     * @param url        분석할 뉴스 URL
-     * @param userId     요청 사용자 ID
-     *                   <p>
-     *                   동작:
-     *                   1) DTO 생성
-     *                   2) JSON 직렬화
-     *                   3) Kafka Topic에 publish
-     *                   <p>
-     *                   key = analysisId 를 사용하는 이유:
-     *                   - 동일 analysisId는 같은 파티션으로 전송
-     *                   - 순서(ordering) 보장 가능
+     * 분석 요청 이벤트 JSON 생성 (Outbox 에 그대로 저장됨)
      */
-    public void publishAnalyzeRequest(String analysisId, String url, String userId) {
+    public String toPayload(String analysisId, String url, String userId) {
         try {
-            // 분석 요청 이벤트 객체 생성
-            AnalyzeEventDTO event = new AnalyzeEventDTO(analysisId, url, userId);
-            String json = objectMapper.writeValueAsString(event);
-
-
-            /**
-             * Kafka 메시지 전송
-             * <p>
-             * send(topic, key, value)
-             * - topic : 발행 대상 토픽
-             * - key   : 파티션 분배 기준
-             * - value : 실제 전송 데이터(JSON)
-             */
-            kafkaTemplate.send(requestTopic, analysisId, json);
-
+            return objectMapper.writeValueAsString(new AnalyzeEventDTO(analysisId, url, userId));
         } catch (Exception e) {
-            throw new RuntimeException("Kafka publish 실패: " + e.getMessage(), e);
+            throw new RuntimeException("분석 요청 직렬화 실패: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * 이미 직렬화된 분석 요청 전송
+     * <p>
+     * send(topic, key, value)
+     * - topic : 발행 대상 토픽
+     * - key   : 파티션 분배 기준
+     * - value : 실제 전송 데이터(JSON)
+     * <p>
+     * 전송 결과를 기다리지 않고 future 를 돌려준다.
+     * (AnalysisOutboxRelay 가 배치 단위로 한꺼번에 기다림)
+     */
+    public CompletableFuture<SendResult<String, String>> send(String analysisId, String payload) {
+        return kafkaTemplate.send(requestTopic, analysisId, payload);
+    }
 }
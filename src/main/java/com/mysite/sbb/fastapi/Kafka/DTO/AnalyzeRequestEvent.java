@@ -1,3 +0,0 @@
-package com.mysite.sbb.fastapi.Kafka.DTO;
-
-public record AnalyzeRequestEvent(String analysisId, String url, String userId) {}
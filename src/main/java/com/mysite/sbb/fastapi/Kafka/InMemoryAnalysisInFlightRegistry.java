@@ -0,0 +1,60 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 테스트용 인메모리 진행 중 분석 레지스트리
+ * <p>
+ * Redis 없이 단일 JVM 안에서 Single-flight 동작을 재현한다.
+ * (TTL 만료는 구현하지 않음)
+ */
+@Component
+@Profile("test")
+public class InMemoryAnalysisInFlightRegistry implements AnalysisInFlightRegistry {
+
+    private final Map<String, String> leaderByUrl = new HashMap<>();
+    private final Map<String, String> urlByLeader = new HashMap<>();
+    private final Map<String, Set<String>> waitersByLeader = new HashMap<>();
+
+    @Override
+    public synchronized String joinOrStart(String urlHash, String candidateId, String userId) {
+        String leaderId = leaderByUrl.get(urlHash);
+        if (leaderId == null) {
+            leaderId = candidateId;
+            leaderByUrl.put(urlHash, leaderId);
+            urlByLeader.put(leaderId, urlHash);
+        }
+        if (userId != null && !userId.isBlank()) {
+            waitersByLeader.computeIfAbsent(leaderId, k -> new HashSet<>()).add(userId);
+        }
+        return leaderId;
+    }
+
+    @Override
+    public synchronized Set<String> waiters(String analysisId) {
+        return new HashSet<>(waitersByLeader.getOrDefault(analysisId, Set.of()));
+    }
+
+    @Override
+    public synchronized void close(String analysisId) {
+        String url = urlByLeader.get(analysisId);
+        if (url != null && analysisId.equals(leaderByUrl.get(url))) {
+            leaderByUrl.remove(url);
+        }
+    }
+
+    @Override
+    public synchronized void complete(String analysisId) {
+        String url = urlByLeader.remove(analysisId);
+        if (url != null && analysisId.equals(leaderByUrl.get(url))) {
+            leaderByUrl.remove(url);
+        }
+        waitersByLeader.remove(analysisId);
+    }
+}
@@ -2,22 +2,28 @@ package com.mysite.sbb.fastapi.Kafka;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mysite.sbb.fastapi.FastApiRepository;
 import com.mysite.sbb.fastapi.FastApiResponse;
 import com.mysite.sbb.fastapi.FastApiService;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserRepository;
 import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.IdempotencyGate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Kafka Consumer
@@ -29,35 +35,57 @@ import java.util.concurrent.TimeUnit;
  * 4. Redis를 이용해 중복 처리 방지 및 결과 캐싱
  * <p>
  * 설계 핵심:
- * - Manual Acknowledgment (수동 커밋)
- * - Redis 기반 분산 락
- * - Idempotent(멱등) 처리
+ * - Manual Acknowledgment (수동 커밋, done 은 배치 단위)
+ * - Redis 기반 분산 락 + Idempotent(멱등) 처리 → IdempotencyGate
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaAnalysisListener {
 
+    private static final String LOCK_PREFIX = "analysis:done:lock:";
+    private static final String PROCESSED_PREFIX = "analysis:done:processed:";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(30);
+    private static final Duration PROCESSED_TTL = Duration.ofDays(1);
+    // 다른 컨슈머가 처리 중인 건을 다시 받기까지 쉬는 시간 (에러 핸들러 재시도 예산과 별개)
+    static final Duration CONTENTION_BACKOFF = Duration.ofSeconds(5);
+    // 게이트(Redis) 장애 시 배치 전체를 다시 받기까지 쉬는 시간 (재시도 예산 / DLT 미사용)
+    static final Duration INFRA_BACKOFF = Duration.ofSeconds(5);
+    private static final String FASTAPI_ERROR = "FASTAPI_ERROR";
+
     private final ObjectMapper objectMapper;
     private final SimpMessagingTemplate messagingTemplate;
+    private final AnalysisProgressCoalescer progressCoalescer;
 
     // DB 저장용(너 기존 로직 재사용)
     private final FastApiService fastApiService;
     private final UserService userService;
     private final AnalysisResultStore analysisResultStore;
-    private final FastApiRepository fastApiRepository;
-    private final StringRedisTemplate stringRedisTemplate;
+    private final IdempotencyGate idempotencyGate;
     private final UserRepository userRepository;
+    private final AnalysisInFlightRegistry inFlightRegistry;
+    private final AnalysisCompletionChannel completionChannel;
+    private final AnalysisFailurePublisher failurePublisher;
 
 
     /**
-     * WebSocket 진행률 전송
+     * WebSocket 종료 진행률(DONE/ERROR) 즉시 전송
+     * (중간 진행률은 AnalysisProgressCoalescer 가 모아서 전송)
      */
     private void sendProgress(String analysisId, int percent, String stage, String message) {
-        messagingTemplate.convertAndSend(
-                "/topic/analyze-progress/" + analysisId,
-                Map.of("analysisId", analysisId, "percent", percent, "stage", stage, "message", message)
-        );
+        progressCoalescer.publishNow(analysisId, percent, stage, message);
+    }
+
+    /**
+     * WebSocket 실패 완료 이벤트 전송
+     */
+    private void sendFailure(String analysisId, String code) {
+        sendComplete(analysisId, Map.of(
+                "error", true,
+                "code", code,
+                "message", AnalysisResult.FAILURE_MESSAGE,
+                "analysisId", analysisId
+        ));
     }
 
     /**
@@ -74,7 +102,9 @@ public class KafkaAnalysisListener {
     /**
      * ✅ 진행률 이벤트
      * FastAPI -> Kafka(analysis-progress)
-     * Spring -> WebSocket(/topic/analyze-progress/{analysisId})
+     * Spring -> AnalysisProgressCoalescer -> WebSocket(/topic/analyze-progress/{analysisId})
+     * <p>
+     * Kafka 스레드는 최신 상태만 갱신하고 바로 ack, 실제 전송은 coalescer 의 flush 주기에 맞춘다.
      */
     @KafkaListener(topics = "analysis-progress",
             groupId = "spring-progress-consumer",
@@ -98,7 +128,7 @@ public class KafkaAnalysisListener {
             String msg = root.path("message").asText("");
 
 
-            sendProgress(analysisId, percent, stage, msg);
+            progressCoalescer.offer(analysisId, percent, stage, msg);
             ack.acknowledge();
 
 
@@ -109,128 +139,283 @@ public class KafkaAnalysisListener {
     }
 
     /**
-     * ✅ 완료 이벤트
+     * ✅ 완료 이벤트 (배치 소비)
      * FastAPI -> Kafka(analysis-done)
      * Spring -> DB 저장 + WebSocket(/topic/analyze-complete/{analysisId})
+     * <p>
+     * poll 한 번에 들어온 레코드를 묶어서 처리한다.
+     * 1) JSON 파싱 (포이즌은 로그 후 버림) <p>
+     * 2) processed 조회 + 락 획득을 IdempotencyGate 스크립트 한 번으로 <p>
+     * 3) 리더 + 대기자 사용자를 쿼리 한 번으로 조회 <p>
+     * 4) 신규 뉴스 행은 FastApiService.saveAll 의 JDBC batch 로 저장 <p>
+     * 5) processed 마킹 + 락 해제를 스크립트 한 번으로, ack 도 배치당 한 번
+     * <p>
+     * 실패 처리:
+     * - 배치 저장이 실패하면 한 건씩 다시 처리해 실패한 레코드를 찾고,
+     * BatchListenerFailedException(레코드 인덱스)을 던진다.
+     * → 에러 핸들러가 앞쪽은 커밋, 그 레코드부터 재시도, 재시도 소진 시 DLT + onDoneRecovered
+     * - 다른 컨슈머가 처리 중(IN_FLIGHT)인 건은 재시도 예산을 쓰지 않고
+     * nack(인덱스, CONTENTION_BACKOFF) 로 앞쪽만 커밋하고 잠시 후 다시 받는다.
+     * (이미 끝난 건은 processed 키 덕분에 다시 받을 때 재전송만 된다)
+     * - 게이트(Redis) 자체가 실패하면 레코드 문제가 아니므로 nack(0, INFRA_BACKOFF) 로 배치 전체를 다시 받는다.
+     * 이미 처리된 건의 결과 재전송은 best-effort 라 실패해도 배치를 실패시키지 않는다.
      */
     @KafkaListener(topics = "analysis-done",
             groupId = "spring-done-consumer",
             containerFactory = "doneKafkaListenerContainerFactory",
             concurrency = "2")
-    public void onDone(String message, Acknowledgment ack) {
-        String analysisId = null;
-        String lockKey = null;
-        String processedKey = null;
-
-        try {
-            JsonNode root = objectMapper.readTree(message);
-            analysisId = root.path("analysisId").asText(null);
-            String userIdRaw = root.path("userId").asText(null);
-            JsonNode resultNode = root.path("result");
-
-            if (analysisId == null || resultNode.isMissingNode()) {
-                log.warn("[done] invalid payload: {}", message);
-                ack.acknowledge(); // 포이즌이면 버림
-                return;
+    public void onDone(List<String> messages, Acknowledgment ack) {
+
+        // 1) 파싱 + 같은 poll 안의 중복 analysisId 제거
+        Map<String, DoneEvent> events = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            DoneEvent event = parseDone(messages.get(i), i);
+            if (event != null) {
+                events.putIfAbsent(event.analysisId(), event);
             }
+        }
+        if (events.isEmpty()) {
+            ack.acknowledge();
+            return;
+        }
 
-            lockKey = "analysis:done:lock:" + analysisId;
-            processedKey = "analysis:done:processed:" + analysisId;
-
-            // 1) 이미 처리완료면: 결과 재전송(선택) 후 ack
-            String processed = stringRedisTemplate.opsForValue().get(processedKey);
-            if ("1".equals(processed)) {
-                log.info("[done] already processed. analysisId={}", analysisId);
+        // 2) processed 조회 + 락 획득 (게이트 스크립트 한 번)
+        // 게이트 장애는 레코드 문제가 아니므로 에러 핸들러(재시도 소진 → DLT)로 보내지 않고 배치 전체를 잠시 후 다시 받음
+        List<String> ids = new ArrayList<>(events.keySet());
+        List<IdempotencyGate.Status> gate;
+        try {
+            gate = idempotencyGate.tryAcquireAll(
+                    ids.stream().map(id -> PROCESSED_PREFIX + id).toList(),
+                    ids.stream().map(id -> LOCK_PREFIX + id).toList(),
+                    LOCK_TTL);
+        } catch (RuntimeException e) {
+            log.warn("[done] idempotency gate unavailable, retry batch in {}. msg={}", INFRA_BACKOFF, e.getMessage());
+            ack.nack(0, INFRA_BACKOFF);
+            return;
+        }
 
-                // (선택) 프론트가 놓쳤을 수 있으니 Redis에 저장된 결과 다시 보내주기
-                FastApiResponse cached = analysisResultStore.getResult(analysisId);
-                if (cached != null) {
-                    sendComplete(analysisId, cached);
+        List<DoneEvent> work = new ArrayList<>();
+        List<String> contended = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            switch (gate.get(i)) {
+                case ACQUIRED -> work.add(events.get(id));
+                case IN_FLIGHT -> contended.add(id);
+                case ALREADY_DONE -> {
+                    // 이미 처리완료: 프론트가 놓쳤을 수 있으니 Redis에 저장된 결과 다시 보내주기
+                    log.info("[done] already processed. analysisId={}", id);
+                    resendCompleted(id);
                 }
-                ack.acknowledge();
-                return;
             }
+        }
 
-            // 2) 락 획득 (동시/중복 실행 방지)
-            Boolean locked = stringRedisTemplate.opsForValue()
-                    .setIfAbsent(lockKey, "1", 30, TimeUnit.MINUTES);
+        BatchListenerFailedException failure = processOrIsolate(work);
 
-            if (locked == null || !locked) {
-                String processed2 = stringRedisTemplate.opsForValue().get(processedKey);
-                if ("1".equals(processed2)) {
-                    ack.acknowledge();
-                    return;
-                }
-                throw new IllegalStateException("in-flight processing: " + analysisId);
-            }
+        // 다른 컨슈머가 처리 중인 건이 실패 레코드보다 앞이면 그 건부터 잠시 후 다시 받음
+        // → 그 사이 끝났으면 ALREADY_DONE 으로 통과
+        int contendedIndex = contended.stream().mapToInt(id -> events.get(id).index()).min().orElse(-1);
+        if (contendedIndex >= 0 && (failure == null || contendedIndex < failure.getIndex())) {
+            log.info("[done] in-flight elsewhere, retry in {}: {}", CONTENTION_BACKOFF, contended);
+            ack.nack(contendedIndex, CONTENTION_BACKOFF);
+            return;
+        }
+        if (failure != null) {
+            throw failure;
+        }
 
-            // 3) 에러 응답 처리: DB 저장 X, WS+Redis 저장은 하고 processed 찍고 ack
-            if (resultNode.path("error").asBoolean(false)) {
-                FastApiResponse apiResponse = objectMapper.treeToValue(resultNode, FastApiResponse.class);
+        // ✅ 배치 전체 성공했을 때만 커밋
+        ack.acknowledge();
+    }
 
-                sendProgress(analysisId, 100, "ERROR", "분석 실패");
-                sendComplete(analysisId, Map.of(
-                        "error", true,
-                        "code", "FASTAPI_ERROR",
-                        "message", "분석 실패",
-                        "analysisId", analysisId
-                ));
+    /**
+     * 이미 처리된 건의 결과 재전송 (best-effort)
+     * <p>
+     * 결과는 이미 저장돼 있으므로 여기서 Redis 조회가 실패해도 레코드 실패로 보지 않는다.
+     * (예외가 새면 배치 전체가 재시도 소진 후 DLT → 모든 대기자에게 실패 알림이 가게 됨)
+     */
+    private void resendCompleted(String analysisId) {
+        try {
+            AnalysisResult cached = analysisResultStore.getResult(analysisId);
+            if (cached != null && cached.failed()) {
+                sendFailure(analysisId, cached.failureCode());
+            } else if (cached != null) {
+                sendComplete(analysisId, cached.response());
+            }
+        } catch (RuntimeException e) {
+            log.warn("[done] resend skipped analysisId={} msg={}", analysisId, e.getMessage());
+        }
+    }
 
-                analysisResultStore.putResult(analysisId, apiResponse);
+    /**
+     * 재시도 소진 후 DLT 로 보낸 완료 이벤트 (KafkaListenerConfig 의 recoverer 가 호출)
+     * <p>
+     * 결과는 저장하지 못했지만 대기자는 깨우고 in-flight 는 해제한다.
+     */
+    public void onDoneRecovered(String message) {
+        try {
+            String analysisId = objectMapper.readTree(message).path("analysisId").asText(null);
+            if (analysisId != null && !analysisId.isBlank()) {
+                failurePublisher.publish(analysisId, "DONE_DEAD_LETTER");
+            }
+        } catch (Exception e) {
+            log.warn("[done] recovered record not notified: {}", e.getMessage());
+        }
+    }
 
-                // ✅ 처리완료로 마킹 (에러도 무한 재처리 방지)
-                stringRedisTemplate.opsForValue().set(processedKey, "1", 1, TimeUnit.DAYS);
+    /**
+     * 배치를 한 번에 처리하고, 실패하면 한 건씩 다시 처리해 실패한 레코드를 찾는다.
+     * <p>
+     * 실패한 레코드와 그 뒤 건들의 락은 풀고(재처리 가능하도록),
+     * 실패 레코드 인덱스를 담은 예외를 돌려준다. 모두 성공하면 null.
+     */
+    private BatchListenerFailedException processOrIsolate(List<DoneEvent> work) {
+        try {
+            processAndMark(work);
+            return null;
+        } catch (RuntimeException e) {
+            log.warn("[done] batch error size={}, retrying one by one. msg={}", work.size(), e.getMessage());
+        }
 
-                ack.acknowledge();
-                return;
+        for (int i = 0; i < work.size(); i++) {
+            DoneEvent event = work.get(i);
+            try {
+                processAndMark(List.of(event));
+            } catch (RuntimeException e) {
+                log.error("[done] record error analysisId={} msg={}", event.analysisId(), e.getMessage(), e);
+                // 락은 풀어줘야 재처리가 가능
+                releaseLocks(work.subList(i, work.size()).stream().map(DoneEvent::analysisId).toList());
+                return new BatchListenerFailedException("[done] failed analysisId=" + event.analysisId(), e, event.index());
             }
+        }
+        return null;
+    }
 
-            // 4) 정상 응답: DB 저장(멱등) + WS + Redis + processed + ack
-            FastApiResponse apiResponse = objectMapper.treeToValue(resultNode, FastApiResponse.class);
+    /**
+     * 처리 + processed 마킹 / 락 해제 (게이트 스크립트 한 번)
+     */
+    private void processAndMark(List<DoneEvent> work) {
+        processDone(work);
+
+        List<String> workIds = work.stream().map(DoneEvent::analysisId).toList();
+        idempotencyGate.completeAll(
+                workIds.stream().map(id -> PROCESSED_PREFIX + id).toList(),
+                workIds.stream().map(id -> LOCK_PREFIX + id).toList(),
+                PROCESSED_TTL);
+    }
 
-            SiteUser user = null;
-            if (userIdRaw != null && !userIdRaw.isBlank()
-                    && !"undefined".equalsIgnoreCase(userIdRaw)
-                    && !"null".equalsIgnoreCase(userIdRaw)) {
-                user = userRepository.findByUsername(userIdRaw);
+    /**
+     * 락을 잡은 완료 이벤트들을 처리한다.
+     * <p>
+     * - 에러 응답: DB 저장 X, WS + Redis 실패 결과(FASTAPI_ERROR) 저장만 (에러도 무한 재처리 방지 위해 processed 처리)
+     * - 정상 응답: 리더 + 합류한 대기 사용자(fan-out) 모두 저장 후 WS + Redis 결과 저장
+     */
+    private void processDone(List<DoneEvent> work) {
+        if (work.isEmpty()) return;
+
+        // 대기자를 읽기 전에 url 매핑부터 닫음
+        // → 읽은 뒤 saveAll 사이에 합류한 사용자가 기록 저장에서 빠지지 않음 (닫힌 뒤 요청은 새 분석으로)
+        // 저장이 실패해 재처리돼도 대기자 목록은 completeAll 전까지 남아 있다.
+        inFlightRegistry.closeAll(work.stream().map(DoneEvent::analysisId).toList());
+
+        List<DoneEvent> succeeded = work.stream().filter(e -> !e.error()).toList();
+        Map<String, Set<String>> waiters = succeeded.isEmpty()
+                ? Map.of()
+                : inFlightRegistry.waiters(succeeded.stream().map(DoneEvent::analysisId).toList());
+
+        // 리더 + 대기자 전체를 한 번에 조회
+        Set<String> usernames = new HashSet<>();
+        for (DoneEvent event : succeeded) {
+            if (isKnownUser(event.userIdRaw())) usernames.add(event.userIdRaw());
+            usernames.addAll(waiters.getOrDefault(event.analysisId(), Set.of()));
+        }
+        Map<String, SiteUser> users = usernames.isEmpty()
+                ? Map.of()
+                : userRepository.findByUsernameIn(usernames).stream()
+                .collect(Collectors.toMap(SiteUser::getUsername, u -> u, (a, b) -> a));
+
+        List<FastApiService.SaveRequest> saves = new ArrayList<>();
+        for (DoneEvent event : succeeded) {
+            FastApiResponse apiResponse = event.response();
+            SiteUser leader = isKnownUser(event.userIdRaw()) ? users.get(event.userIdRaw()) : null;
+            saves.add(new FastApiService.SaveRequest(leader, apiResponse));
+
+            // ✅ 같은 URL로 합류한 대기 사용자들에게도 결과 저장 (fan-out)
+            for (String waiter : waiters.getOrDefault(event.analysisId(), Set.of())) {
+                if (waiter.equals(event.userIdRaw())) continue;
+
+                SiteUser waitingUser = users.get(waiter);
+                if (waitingUser == null || apiResponse.url() == null) continue;
+                saves.add(new FastApiService.SaveRequest(waitingUser, apiResponse));
             }
+        }
+
+        // ✅ (user, url_hash) 기준 중복 방지는 saveAll 안에서 일괄 처리
+        // 여기 실패하면 예외 → ack 안 됨 → 재처리
+        if (!saves.isEmpty()) {
+            fastApiService.saveAll(saves);
+        }
 
-            // ✅ (user, url) 기준 DB 중복 방지
-            String url = apiResponse.url();
-            boolean alreadySaved = (user != null && url != null && fastApiRepository.existsByUserAndUrl(user, url));
+        // 다음 요청은 DB 캐시 또는 새 분석으로
+        inFlightRegistry.completeAll(work.stream().map(DoneEvent::analysisId).toList());
 
-            if (alreadySaved) {
-                log.info("[done] idempotent skip DB save user={}, url={}", user.getUsername(), url);
+        for (DoneEvent event : work) {
+            String analysisId = event.analysisId();
+            if (event.error()) {
+                sendProgress(analysisId, 100, "ERROR", AnalysisResult.FAILURE_MESSAGE);
+                sendFailure(analysisId, FASTAPI_ERROR);
+                analysisResultStore.putFailure(analysisId, FASTAPI_ERROR);
             } else {
-                fastApiService.saveEntity(user, apiResponse); // 여기 실패하면 catch로 → ack 안 됨 → 재처리
+                sendProgress(analysisId, 100, "DONE", "분석 완료");
+                sendComplete(analysisId, event.response());
+                analysisResultStore.putResult(analysisId, event.response());
             }
+        }
 
-            sendProgress(analysisId, 100, "DONE", "분석 완료");
-            sendComplete(analysisId, apiResponse);
+        // long-poll / SSE 대기 요청 깨우기 (다른 인스턴스 포함, 결과 저장 이후에)
+        completionChannel.publish(work.stream().map(DoneEvent::analysisId).toList());
+    }
 
-            analysisResultStore.putResult(analysisId, apiResponse);
+    /**
+     * analysis-done 메시지 파싱. 포이즌(필수값 누락/역직렬화 실패)이면 null.
+     */
+    private DoneEvent parseDone(String message, int index) {
+        try {
+            JsonNode root = objectMapper.readTree(message);
+            String analysisId = root.path("analysisId").asText(null);
+            String userIdRaw = root.path("userId").asText(null);
+            JsonNode resultNode = root.path("result");
 
-            // ✅ 처리완료 마킹
-            stringRedisTemplate.opsForValue().set(processedKey, "1", 1, TimeUnit.DAYS);
+            if (analysisId == null || resultNode.isMissingNode()) {
+                log.warn("[done] invalid payload: {}", message);
+                return null;
+            }
 
-            // ✅ 성공했을 때만 커밋
-            ack.acknowledge();
+            FastApiResponse apiResponse = objectMapper.treeToValue(resultNode, FastApiResponse.class);
+            return new DoneEvent(analysisId, userIdRaw, apiResponse, resultNode.path("error").asBoolean(false), index);
+        } catch (Exception e) {
+            log.warn("[done] unparsable payload dropped: {} raw={}", e.getMessage(), message);
+            return null;
+        }
+    }
 
+    private void releaseLocks(List<String> lockedIds) {
+        if (lockedIds.isEmpty()) return;
+        try {
+            idempotencyGate.releaseAll(lockedIds.stream().map(id -> LOCK_PREFIX + id).toList());
         } catch (Exception e) {
-            log.error("[done] error analysisId={} msg={}", analysisId, e.getMessage(), e);
+            log.warn("[done] lock release failed: {}", e.getMessage());
+        }
+    }
 
-            // 실패면 ack 안 함 → 재처리됨
-            // (락은 풀어줘야 재처리가 가능)
-            if (lockKey != null) {
-                stringRedisTemplate.delete(lockKey);
-            }
-            return;
+    private static boolean isKnownUser(String userIdRaw) {
+        return userIdRaw != null && !userIdRaw.isBlank()
+                && !"undefined".equalsIgnoreCase(userIdRaw)
+                && !"null".equalsIgnoreCase(userIdRaw);
+    }
 
-        } finally {
-            // 성공이든 중복이든: 락은 정리 (processed 키가 재중복을 막아줌)
-            if (lockKey != null) {
-                stringRedisTemplate.delete(lockKey);
-            }
-        }
+    /**
+     * index: poll 배치(messages) 안의 위치 (BatchListenerFailedException / nack 용)
+     */
+    private record DoneEvent(String analysisId, String userIdRaw, FastApiResponse response, boolean error, int index) {
     }
-}
\ No newline at end of file
+}
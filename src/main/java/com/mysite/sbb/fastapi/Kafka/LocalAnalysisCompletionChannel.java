@@ -0,0 +1,23 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * 테스트용 분석 완료 알림 (같은 JVM 의 Hub 로 바로 전달)
+ */
+@Component
+@Profile("test")
+@RequiredArgsConstructor
+public class LocalAnalysisCompletionChannel implements AnalysisCompletionChannel {
+
+    private final AnalysisCompletionHub completionHub;
+
+    @Override
+    public void publish(Collection<String> analysisIds) {
+        analysisIds.forEach(completionHub::onCompleted);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Redis Pub/Sub 기반 분석 완료 알림
+ * <p>
+ * 채널: analysis:completed (메시지 = analysisId)
+ * <p>
+ * 결과 본문은 싣지 않는다.
+ * 대기 요청이 있는 인스턴스만 AnalysisResultStore 에서 한 번 읽으면 되기 때문.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisAnalysisCompletionChannel implements AnalysisCompletionChannel {
+
+    static final String CHANNEL = "analysis:completed";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AnalysisCompletionHub completionHub;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> completionHub.onCompleted(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL)
+        );
+    }
+
+    @Override
+    public void publish(Collection<String> analysisIds) {
+        if (analysisIds.isEmpty()) return;
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                analysisIds.forEach(id -> conn.publish(CHANNEL, id));
+                return null;
+            });
+        } catch (Exception e) {
+            // 알림 실패해도 결과는 저장돼 있으므로 대기 요청은 타임아웃 후 재조회로 회복
+            log.warn("[completion] publish failed ids={} msg={}", analysisIds, e.getMessage());
+        }
+    }
+}
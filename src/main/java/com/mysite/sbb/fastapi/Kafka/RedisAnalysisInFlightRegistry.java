@@ -0,0 +1,184 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Redis 기반 진행 중 분석 레지스트리
+ * <p>
+ * Key 전략:
+ * - analysis:inflight:url:{urlHash}     → 리더 analysisId
+ * - analysis:inflight:owner:{analysisId} → url 키 (완료 시 역참조용)
+ * - analysis:inflight:waiters:{analysisId} → 대기 사용자 Set
+ * <p>
+ * "조회 → 없으면 등록 → 대기자 추가"를 Lua 스크립트 한 번으로 처리하여
+ * 인스턴스 간 경쟁 상태 없이 단 하나의 리더만 Kafka로 요청을 발행한다.
+ * <p>
+ * TTL(5분)은 FastAPI 응답이 유실된 경우에도 URL이 영원히 잠기지 않도록 하기 위함.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class RedisAnalysisInFlightRegistry implements AnalysisInFlightRegistry {
+
+    private static final long IN_FLIGHT_TTL_SECONDS = 300;
+
+    private static final String URL_PREFIX = "analysis:inflight:url:";
+    private static final String OWNER_PREFIX = "analysis:inflight:owner:";
+    private static final String WAITERS_PREFIX = "analysis:inflight:waiters:";
+
+    /**
+     * KEYS[1] = url 키
+     * ARGV[1] = candidateId, ARGV[2] = userId(없으면 ''), ARGV[3] = TTL(초)
+     * ARGV[4] = waiters prefix, ARGV[5] = owner prefix
+     * <p>
+     * 대기자/owner 키는 리더 id 가 정해진 뒤에야 알 수 있어서 스크립트 안에서 조합한다.
+     * (단일 Redis 노드 기준)
+     */
+    private static final DefaultRedisScript<String> JOIN_OR_START = new DefaultRedisScript<>("""
+            local id = redis.call('GET', KEYS[1])
+            if not id then
+              id = ARGV[1]
+              redis.call('SET', KEYS[1], id, 'EX', ARGV[3])
+              redis.call('SET', ARGV[5] .. id, KEYS[1], 'EX', ARGV[3])
+            end
+            if ARGV[2] ~= '' then
+              redis.call('SADD', ARGV[4] .. id, ARGV[2])
+              redis.call('EXPIRE', ARGV[4] .. id, ARGV[3])
+            end
+            return id
+            """, String.class);
+
+    /**
+     * KEYS[1] = owner 키, KEYS[2] = waiters 키
+     * ARGV[1] = analysisId
+     * <p>
+     * url 키가 여전히 이 분석을 가리킬 때만 삭제 (TTL 만료 후 새 리더가 잡은 경우 보호)
+     */
+    private static final DefaultRedisScript<Long> COMPLETE = new DefaultRedisScript<>("""
+            local urlKey = redis.call('GET', KEYS[1])
+            if urlKey and redis.call('GET', urlKey) == ARGV[1] then
+              redis.call('DEL', urlKey)
+            end
+            return redis.call('DEL', KEYS[1], KEYS[2])
+            """, Long.class);
+
+    /**
+     * KEYS[1] = owner 키
+     * ARGV[1] = analysisId
+     * <p>
+     * url 키만 삭제 (COMPLETE 와 같은 보호 조건), owner / waiters 는 COMPLETE 때까지 유지
+     */
+    private static final DefaultRedisScript<Long> CLOSE = new DefaultRedisScript<>("""
+            local urlKey = redis.call('GET', KEYS[1])
+            if urlKey and redis.call('GET', urlKey) == ARGV[1] then
+              return redis.call('DEL', urlKey)
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public String joinOrStart(String urlHash, String candidateId, String userId) {
+        String member = (userId == null || userId.isBlank()) ? "" : userId;
+        String leaderId = stringRedisTemplate.execute(
+                JOIN_OR_START,
+                List.of(URL_PREFIX + urlHash),
+                candidateId, member, String.valueOf(IN_FLIGHT_TTL_SECONDS), WAITERS_PREFIX, OWNER_PREFIX
+        );
+        return leaderId == null ? candidateId : leaderId;
+    }
+
+    @Override
+    public Set<String> waiters(String analysisId) {
+        Set<String> members = stringRedisTemplate.opsForSet().members(WAITERS_PREFIX + analysisId);
+        return members == null ? Set.of() : new HashSet<>(members);
+    }
+
+    @Override
+    public void close(String analysisId) {
+        stringRedisTemplate.execute(CLOSE, List.of(OWNER_PREFIX + analysisId), analysisId);
+    }
+
+    @Override
+    public void complete(String analysisId) {
+        stringRedisTemplate.execute(
+                COMPLETE,
+                List.of(OWNER_PREFIX + analysisId, WAITERS_PREFIX + analysisId),
+                analysisId
+        );
+    }
+
+    /**
+     * SMEMBERS 를 파이프라인 한 번으로 묶어 조회
+     */
+    @Override
+    public Map<String, Set<String>> waiters(Collection<String> analysisIds) {
+        List<String> ids = new ArrayList<>(analysisIds);
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        if (ids.isEmpty()) return result;
+
+        List<Object> replies = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            ids.forEach(id -> conn.sMembers(WAITERS_PREFIX + id));
+            return null;
+        });
+
+        for (int i = 0; i < ids.size(); i++) {
+            Set<String> members = new HashSet<>();
+            if (replies.get(i) instanceof Collection<?> values) {
+                values.forEach(v -> members.add(String.valueOf(v)));
+            }
+            result.put(ids.get(i), members);
+        }
+        return result;
+    }
+
+    /**
+     * CLOSE 스크립트를 파이프라인 한 번으로 묶어 실행
+     */
+    @Override
+    public void closeAll(Collection<String> analysisIds) {
+        if (analysisIds.isEmpty()) return;
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (String id : analysisIds) {
+                conn.eval(CLOSE.getScriptAsString(), ReturnType.INTEGER, 1, OWNER_PREFIX + id, id);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * COMPLETE 스크립트를 파이프라인 한 번으로 묶어 실행
+     */
+    @Override
+    public void completeAll(Collection<String> analysisIds) {
+        if (analysisIds.isEmpty()) return;
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (String id : analysisIds) {
+                conn.eval(COMPLETE.getScriptAsString(), ReturnType.INTEGER, 2,
+                        OWNER_PREFIX + id, WAITERS_PREFIX + id, id);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package com.mysite.sbb.fastapi;
+
+public record KeywordRankDto(
+        String keyword,
+        Long keywordCount
+) {
+}
@@ -0,0 +1,22 @@
+package com.mysite.sbb.fastapi;
+
+import java.time.LocalDateTime;
+
+/**
+ * 목록(카드) 화면용 기사 요약
+ * <p>
+ * 본문 / 요약 / 키워드 같은 큰 컬럼은 읽지 않고 카드에 보이는 컬럼만 JPQL 생성자 표현식으로 조회한다.
+ * 전체 내용은 GET /api/articles/{id} 로 따로 받는다.
+ * <p>
+ * id, createdAt 은 Seek Pagination 커서로도 쓰인다.
+ */
+public record NewsCardDto(
+        Long id,
+        String title,
+        String thumbnailUrl,
+        String company,
+        String prediction,
+        String sentiment,
+        LocalDateTime createdAt
+) {
+}
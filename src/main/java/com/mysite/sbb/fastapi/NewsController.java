@@ -1,26 +1,40 @@
 package com.mysite.sbb.fastapi;
 
+import com.mysite.sbb.fastapi.Kafka.AnalysisCompletionHub;
+import com.mysite.sbb.fastapi.Kafka.AnalysisResult;
 import com.mysite.sbb.fastapi.Kafka.AnalysisResultStore;
 import com.mysite.sbb.fastapi.Kafka.AnalyzeFetchAndSave;
 import com.mysite.sbb.fastapi.Kafka.AnalyzeKafkaProducer;
 import com.mysite.sbb.fastapi.Kafka.DTO.AnalyzeAsyncRequestDTO;
 import com.mysite.sbb.fastapi.Kafka.DTO.AnalyzeAsyncResponseDTO;
+import com.mysite.sbb.fastapi.optimization.RangeRankingService;
+import com.mysite.sbb.fastapi.optimization.RankingDimension;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.ConditionalGet;
+import com.mysite.sbb.util.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 
 @RestController
@@ -35,7 +49,16 @@ public class NewsController {
     private final AnalyzeKafkaProducer kafkaProducer;
     private final AnalyzeFetchAndSave analyzeFetchAndSave;
     private final AnalysisResultStore analysisResultStore;
+    private final AnalysisCompletionHub analysisCompletionHub;
     private final UserService userService;
+    private final ResourceVersions resourceVersions;
+
+    // Nginx 에서 몇 초 공유 캐시, 이후에는 ETag 로 재검증
+    private static final CacheControl RANKING_CACHE = CacheControl.maxAge(5, TimeUnit.SECONDS).cachePublic();
+    // 기사는 저장 후 바뀌지 않음 (로그인 사용자 전용 API 라 private)
+    private static final CacheControl ARTICLE_CACHE = CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate();
+    // 회사 피드 첫 페이지: 매번 ETag 로 재검증 (로그인 사용자 전용 API 라 공유 캐시에 두지 않음)
+    private static final CacheControl COMPANY_POSTS_CACHE = CacheControl.noCache().cachePrivate();
 
     //    @PostMapping("/parse-news")
 //    public FastApiResponse fetchNewsFromFastAPI(@RequestBody FastApiDTO body) {
@@ -53,34 +76,122 @@ public class NewsController {
         return ResponseEntity.ok(analyzeFetchAndSave.start(req.url(), req.id()));
     }
 
+    /**
+     * 분석 결과 조회: 완료 200 + 결과, 실패 502 FAILED, 아직이면 404 PENDING
+     */
     @GetMapping("/analyze-result/{analysisId}")
     public ResponseEntity<?> getAnalyzeResult(@PathVariable String analysisId) {
-        FastApiResponse result = analysisResultStore.getResult(analysisId);
+        AnalysisResult result = analysisResultStore.getResult(analysisId);
         if (result == null) {
             return ResponseEntity.status(404).body(Map.of("status", "PENDING"));
         }
-        return ResponseEntity.ok(result);
+        return result.toResponseEntity(analysisId);
     }
 
+    /**
+     * 분석 결과 long-poll
+     * <p>
+     * 완료되면 바로 200 + 결과(실패면 502 FAILED), timeoutMs(최대 60초) 동안 완료되지 않으면 404 PENDING.
+     * 대기 중에는 서블릿 스레드를 잡지 않는다.
+     */
+    @GetMapping("/analyze-result/{analysisId}/await")
+    public DeferredResult<ResponseEntity<?>> awaitAnalyzeResult(
+            @PathVariable String analysisId,
+            @RequestParam(defaultValue = "30000") long timeoutMs
+    ) {
+        return analysisCompletionHub.await(analysisId, Math.min(Math.max(timeoutMs, 1_000L), 60_000L));
+    }
 
+    /**
+     * 분석 결과 SSE
+     * <p>
+     * 연결 직후 pending 이벤트, 완료 시 complete 이벤트(결과) 또는 error 이벤트(FAILED) 후 스트림 종료.
+     */
+    @GetMapping(value = "/analyze-sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter analyzeSse(@RequestParam("analysisId") String analysisId) {
+        return analysisCompletionHub.stream(analysisId, 5 * 60 * 1000L);
+    }
+
+
+    /**
+     * 랭킹 조회 (ETag = 랭킹 버전 + 오늘 날짜)
+     * <p>
+     * trending 은 쓰기가 없어도 시간이 지나면 점수가 바뀌므로 ETag 없이 짧은 max-age 만 준다.
+     * <p>
+     * dimension(bullish | bearish | positive | negative) 을 주면 언급 수 대신 그 차원의 랭킹 (period 는 daily | weekly)
+     */
     @GetMapping("/ranking")
-    public ResponseEntity<List<CompanyRankDto>> getCompanyRanking(@RequestParam("period") String period) {
-        List<CompanyRankDto> result;
+    public ResponseEntity<List<CompanyRankDto>> getCompanyRanking(
+            @RequestParam("period") String period,
+            @RequestParam(value = "dimension", required = false) String dimension,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (dimension != null) {
+            RankingDimension dim = RankingDimension.fromParam(dimension);
+            if (dim == null || !(period.equals("daily") || period.equals("weekly"))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid dimension or period");
+            }
+            return ConditionalGet.respond(ifNoneMatch, rankingEtag(), RANKING_CACHE,
+                    () -> fastApiService.getDimensionRanking(dim, period));
+        }
+
+        Supplier<List<CompanyRankDto>> result;
         switch (period) {
             case "daily":
-                result = fastApiService.getDailyRanking();
+                result = fastApiService::getDailyRanking;
                 break;
             case "weekly":
 
-                result = fastApiService.getWeeklyRanking();
+                result = fastApiService::getWeeklyRanking;
                 break;
             case "monthly":
-                result = fastApiService.getMonthlyRanking();
+                result = fastApiService::getMonthlyRanking;
                 break;
+            case "trending":
+                return ResponseEntity.ok().cacheControl(RANKING_CACHE).body(fastApiService.getTrendingRanking());
             default:
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid period");
         }
-        return ResponseEntity.ok(result);
+        return ConditionalGet.respond(ifNoneMatch, rankingEtag(), RANKING_CACHE, result);
+    }
+
+    /**
+     * 임의 기간 랭킹 (예: 지난 분기 → start=2026-04-01&end=2026-07-01), end 는 포함하지 않음
+     * <p>
+     * 기간은 최대 RangeRankingService.MAX_SPAN (1년), 넘으면 400
+     */
+    @GetMapping("/ranking/range")
+    public ResponseEntity<List<CompanyRankDto>> getRangeRanking(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "start must be before end");
+        }
+        // 공개 API: 기간이 길면 조각(IN 바인드 변수) 수가 그만큼 늘어나므로 상한
+        if (end.isAfter(start.plus(RangeRankingService.MAX_SPAN))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "range must not exceed " + RangeRankingService.MAX_SPAN);
+        }
+        return ConditionalGet.respond(ifNoneMatch, rankingEtag(), RANKING_CACHE,
+                () -> fastApiService.getRangeRanking(start, end));
+    }
+
+    /**
+     * 키워드 빈도 랭킹 (period 는 daily | weekly)
+     */
+    @GetMapping("/ranking/keywords")
+    public ResponseEntity<List<KeywordRankDto>> getKeywordRanking(
+            @RequestParam(value = "period", defaultValue = "daily") String period,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!(period.equals("daily") || period.equals("weekly"))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid period");
+        }
+        return ConditionalGet.respond(ifNoneMatch, rankingEtag(), RANKING_CACHE,
+                () -> fastApiService.getKeywordRanking(period));
+    }
+
+    // 날짜가 바뀌면 쓰기가 없어도 일간 / 최근 N일 결과가 달라지므로 날짜를 같이 넣음
+    private String rankingEtag() {
+        return "r" + resourceVersions.current(ResourceVersions.RANKING) + "-" + LocalDate.now();
     }
 
     //    @GetMapping("/posts")
@@ -96,9 +207,9 @@ public class NewsController {
 //        return ResponseEntity.ok(posts);
 //    }
     @GetMapping("/posts/seek")
-    public ResponseEntity<Slice<FastApiEntity>> getPostsSeek(
+    public ResponseEntity<Slice<NewsHistoryCardDto>> getPostsSeek(
             Principal principal,
-            @RequestParam(required = false) Long lastId,
+            @RequestParam(required = false) Long lastHistoryId,
             @RequestParam(defaultValue = "20") int size
     ) {
         if (principal == null) {
@@ -111,8 +222,8 @@ public class NewsController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "존재하지 않는 사용자");
         }
 
-        Slice<FastApiEntity> slice =
-                fastApiService.getUserPostsSeek(siteUser.getId(), lastId, size);
+        Slice<NewsHistoryCardDto> slice =
+                fastApiService.getUserPostsSeek(siteUser.getId(), lastHistoryId, size);
         return ResponseEntity.ok(slice);
     }
 
@@ -127,13 +238,47 @@ public class NewsController {
 //    }
 
     @GetMapping("/company-posts/seek")
-    public ResponseEntity<SeekSliceResponse<FastApiEntity>> getCompanyPostsSeek(
+    public ResponseEntity<SeekSliceResponse<NewsCardDto>> getCompanyPostsSeek(
             @RequestParam("company") String company,
             @RequestParam(value = "lastCreatedAt", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastCreatedAt,
             @RequestParam(value = "lastId", required = false) Long lastId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (lastCreatedAt != null || lastId != null) {
+            return ResponseEntity.ok(fastApiService.getCompanyRecordsSeek(company, lastCreatedAt, lastId, size));
+        }
+
+        // 첫 페이지만 조건부 GET (새 기사가 저장되면 그 회사 버전이 올라감)
+        String etag = "p" + resourceVersions.current(ResourceVersions.companyPosts(company)) + "-" + size;
+        return ConditionalGet.respond(ifNoneMatch, etag, COMPANY_POSTS_CACHE,
+                () -> fastApiService.getCompanyRecordsSeek(company, null, null, size));
+    }
+
+    /**
+     * 키워드가 나온 기사 목록 (커서는 company-posts/seek 와 같음)
+     */
+    @GetMapping("/keyword-posts/seek")
+    public ResponseEntity<SeekSliceResponse<NewsCardDto>> getKeywordPostsSeek(
+            @RequestParam("keyword") String keyword,
+            @RequestParam(value = "lastCreatedAt", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastCreatedAt,
+            @RequestParam(value = "lastId", required = false) Long lastId,
             @RequestParam(defaultValue = "20") int size
     ) {
-        return ResponseEntity.ok(fastApiService.getCompanyRecordsSeek(company, lastCreatedAt, lastId, size));
+        return ResponseEntity.ok(fastApiService.getKeywordRecordsSeek(keyword, lastCreatedAt, lastId, size));
+    }
+
+    /**
+     * 기사 상세 (목록은 카드 컬럼만 내려주므로 본문 / 요약 / 키워드는 여기서)
+     * <p>
+     * 기사는 저장 후 바뀌지 않으므로 id 만으로 ETag
+     */
+    @GetMapping("/articles/{id}")
+    public ResponseEntity<FastApiResponse> getArticle(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return ConditionalGet.respond(ifNoneMatch, "a" + id, ARTICLE_CACHE, () -> fastApiService.getArticle(id));
     }
 
 
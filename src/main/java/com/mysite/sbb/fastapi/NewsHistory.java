@@ -0,0 +1,43 @@
+package com.mysite.sbb.fastapi;
+
+import com.mysite.sbb.user.SiteUser;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 뉴스 분석 기록 (news_history)
+ * <p>
+ * 기사 본문(content/summary/keywords)은 news_articles 에 URL 당 한 번만 저장하고,
+ * 사용자와의 연결은 이 좁은 테이블로 관리한다.
+ * → 테이블 크기가 사용자 × 기사가 아니라 기사 수에 비례
+ * <p>
+ * - (user_id, article_id) 유니크: 같은 기사를 두 번 기록하지 않음
+ * - (user_id, id) 인덱스: 내 기록 Seek Pagination / 개수 제한용
+ */
+@Entity
+@Table(name = "news_history",
+        uniqueConstraints = {@UniqueConstraint(name = "uk_history_user_article", columnNames = {"user_id", "article_id"})},
+        indexes = {@Index(name = "idx_history_user_id", columnList = "user_id, id")})
+@Getter
+@Setter
+public class NewsHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "FK_history_user"))
+    private SiteUser user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "article_id", nullable = false, foreignKey = @ForeignKey(name = "FK_history_article"))
+    private FastApiEntity article;
+
+    @Column(name = "created_at", updatable = false, nullable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.mysite.sbb.fastapi;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내 기록 목록(카드) 화면용 기사 요약
+ * <p>
+ * NewsCardDto 의 카드 컬럼에 기록(news_history) id 를 더한 것.
+ * id 는 기사 id (GET /api/articles/{id}), historyId 는 내 기록 Seek Pagination 커서로 쓴다.
+ * (기록 목록은 기록 최신순이라 기사 id 로는 다음 페이지 위치를 정할 수 없음)
+ */
+public record NewsHistoryCardDto(
+        Long historyId,
+        Long id,
+        String title,
+        String thumbnailUrl,
+        String company,
+        String prediction,
+        String sentiment,
+        LocalDateTime createdAt
+) {
+}
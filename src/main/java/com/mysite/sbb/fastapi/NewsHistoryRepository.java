@@ -0,0 +1,80 @@
+package com.mysite.sbb.fastapi;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 사용자별 뉴스 기록 데이터 접근 레이어.
+ * <p>
+ * 기사 본문은 news_articles(공유), 사용자 연결은 news_history 로 분리된 구조에서
+ * 내 기록 조회 / 개수 제한 / 중복 체크 / 일간 집계 fallback 을 담당한다.
+ */
+public interface NewsHistoryRepository extends JpaRepository<NewsHistory, Long> {
+
+    /**
+     * 사용자 기록 Seek Pagination 조회 (기록 최신순).
+     * <p>
+     * 커서는 마지막으로 받은 기록 id (NewsHistoryCardDto.historyId) 이고,
+     * (user_id, id) 인덱스로 그 아래만 읽는다.
+     * 페이지를 넘기는 사이 커서 기록이 지워져도 (limitUserNewsRecords 가 오래된 기록부터 삭제) id 비교라 그대로 이어진다.
+     * <p>
+     * 목록용이라 카드 컬럼만 조회 (NewsHistoryCardDto)
+     */
+    @Query("""
+                SELECT new com.mysite.sbb.fastapi.NewsHistoryCardDto(
+                    h.id, a.id, a.title, a.thumbnailUrl, a.company, a.prediction, a.sentiment, a.createdAt)
+                FROM NewsHistory h
+                JOIN h.article a
+                WHERE h.user.id = :userId
+                AND (:lastHistoryId IS NULL OR h.id < :lastHistoryId)
+                ORDER BY h.id DESC
+            """)
+    List<NewsHistoryCardDto> findUserArticlesSeek(
+            @Param("userId") Long userId,
+            @Param("lastHistoryId") Long lastHistoryId,
+            Pageable pageable
+    );
+
+    /**
+     * 배치 저장용 중복 체크: 후보 사용자들이 이미 기록한 (user, url_hash) 조회.
+     * <p>
+     * 기사 id 가 아니라 url_hash 로 비교해야
+     * 같은 URL 의 레거시 사용자별 기사 행과도 중복 판정이 된다.
+     */
+    @Query("""
+                SELECT h.user.id, a.urlHash
+                FROM NewsHistory h JOIN h.article a
+                WHERE h.user.id IN :userIds AND a.urlHash IN :urlHashes
+            """)
+    List<Object[]> findUserUrlHashes(@Param("userIds") Collection<Long> userIds,
+                                     @Param("urlHashes") Collection<String> urlHashes);
+
+    long countByUser_Id(Long userId);
+
+    @Query("SELECT h.id FROM NewsHistory h WHERE h.user.id = :userId ORDER BY h.id ASC")
+    List<Long> findOldestIds(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM NewsHistory h WHERE h.id IN :ids")
+    void deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 하루 동안 회사별 분석 기록 수 집계 (Redis 일간 랭킹 fallback).
+     */
+    @Query("""
+                SELECT a.company, COUNT(h)
+                FROM NewsHistory h JOIN h.article a
+                WHERE h.createdAt >= :startDate AND h.createdAt < :endDate
+                GROUP BY a.company
+                ORDER BY COUNT(h) DESC
+            """)
+    List<Object[]> getDailyCompanyRanking(@Param("startDate") LocalDateTime startDate,
+                                          @Param("endDate") LocalDateTime endDate);
+}
@@ -63,4 +63,18 @@ public interface CompanyRankDailyRepository extends JpaRepository<CompanyRankDai
                                 @Param("endDate") LocalDate endDate,
                                 @Param("limit") int limit);
 
+    /**
+     * 특정 기간 동안의 회사별 누적 집계 전체 조회 (LIMIT 없음).
+     * <p>
+     * RollingRankingService 가 하루 한 번 rolling window 를 만들 때 사용.
+     */
+    @Query(value = """
+                SELECT company, SUM(cnt) AS total
+                FROM company_rank_daily
+                WHERE stat_date >= :startDate AND stat_date < :endDate
+                GROUP BY company
+            """, nativeQuery = true)
+    List<Object[]> sumRange(@Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate);
+
 }
@@ -0,0 +1,62 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * 회사별 주간(ISO week, 월요일 시작) / 월간 롤업
+ * <p>
+ * company_rank_daily 를 기간 단위로 미리 합쳐 둔 테이블.
+ * 임의 기간 랭킹(RangeRankingService)은 이 행들과 일간 행을 조합해서 계산한다.
+ */
+@Entity
+@Table(
+        name = "company_rank_rollup",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"grain", "period_start", "company"})
+        }
+)
+@Getter @Setter
+public class CompanyRankRollup {
+
+    public enum Grain {
+        WEEK, MONTH;
+
+        /**
+         * date 가 속한 기간의 시작일
+         */
+        public LocalDate startOf(LocalDate date) {
+            return this == WEEK
+                    ? date.minusDays(date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue())
+                    : date.withDayOfMonth(1);
+        }
+
+        /**
+         * 기간 시작일 → 다음 기간 시작일 (exclusive end)
+         */
+        public LocalDate endOf(LocalDate periodStart) {
+            return this == WEEK ? periodStart.plusWeeks(1) : periodStart.plusMonths(1);
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Grain grain;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false, length = 64)
+    private String company;
+
+    @Column(nullable = false)
+    private long cnt;
+}
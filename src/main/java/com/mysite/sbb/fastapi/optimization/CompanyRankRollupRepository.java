@@ -0,0 +1,40 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * 주간 / 월간 롤업 Repository
+ * <p>
+ * 롤업 행은 항상 일간 테이블에서 다시 합쳐서 덮어쓴다. (cnt = VALUES(cnt))
+ * → 일간 이관이 중간에 실패해 재실행돼도 두 번 더해지지 않음 (멱등)
+ */
+@Repository
+public interface CompanyRankRollupRepository extends JpaRepository<CompanyRankRollup, Long> {
+
+    /**
+     * [periodStart, periodEnd) 기간 하나의 롤업을 일간 행으로 다시 계산
+     * <p>
+     * RankingFlushBatch 가 하루치를 이관한 뒤, 그 날짜가 속한 주 / 월에 대해서만 호출한다.
+     * (읽는 일간 행은 최대 31일 x 회사 수)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+                INSERT INTO company_rank_rollup (grain, period_start, company, cnt)
+                SELECT :grain, :periodStart, company, SUM(cnt)
+                FROM company_rank_daily
+                WHERE stat_date >= :periodStart AND stat_date < :periodEnd
+                GROUP BY company
+                ON DUPLICATE KEY UPDATE cnt = VALUES(cnt)
+            """, nativeQuery = true)
+    int refresh(@Param("grain") String grain,
+                @Param("periodStart") LocalDate periodStart,
+                @Param("periodEnd") LocalDate periodEnd);
+}
@@ -0,0 +1,107 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * 쓰기 시점 집계용 일간 / 주간 ZSet 카운터 (DimensionRankingService, KeywordRankingService 공용)
+ * <p>
+ * - {prefix}:daily:{날짜}, {prefix}:weekly:{ISO 주 월요일}
+ * - increaseBy 는 두 키에 스크립트 1회로 ZINCRBY, 처음 만들어진 키에만 TTL
+ * - 화면용 단기 랭킹이라 DB 로 이관하지 않고 TTL 로 정리
+ *
+ * @param <T> 조회 결과 한 행 (멤버, 점수) → DTO
+ */
+class DailyWeeklyRankCounter<T> {
+
+    private static final Duration DAILY_TTL = Duration.ofDays(2);
+    private static final Duration WEEKLY_TTL = Duration.ofDays(8);
+
+    /**
+     * KEYS[1] = 일간 키, KEYS[2] = 주간 키
+     * ARGV[1] = 일간 TTL(초), ARGV[2] = 주간 TTL(초), ARGV[3..] = (멤버, 증가량) 쌍
+     */
+    private static final DefaultRedisScript<Long> INCREASE = new DefaultRedisScript<>("""
+            for i = 3, #ARGV, 2 do
+              redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])
+              redis.call('ZINCRBY', KEYS[2], ARGV[i + 1], ARGV[i])
+            end
+            if redis.call('TTL', KEYS[1]) < 0 then
+              redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            if redis.call('TTL', KEYS[2]) < 0 then
+              redis.call('EXPIRE', KEYS[2], ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final BiFunction<String, Long, T> mapper;
+
+    DailyWeeklyRankCounter(StringRedisTemplate stringRedisTemplate, BiFunction<String, Long, T> mapper) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.mapper = mapper;
+    }
+
+    static String dailyKey(String prefix, LocalDate date) {
+        return prefix + ":daily:" + date;
+    }
+
+    static String weeklyKey(String prefix, LocalDate date) {
+        LocalDate monday = date.minusDays(date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+        return prefix + ":weekly:" + monday;
+    }
+
+    /**
+     * date 날짜의 멤버별 증가분 반영
+     */
+    void increaseBy(String prefix, LocalDate date, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        List<String> args = new ArrayList<>(2 + deltas.size() * 2);
+        args.add(String.valueOf(DAILY_TTL.toSeconds()));
+        args.add(String.valueOf(WEEKLY_TTL.toSeconds()));
+        deltas.forEach((member, delta) -> {
+            args.add(member);
+            args.add(String.valueOf(delta));
+        });
+        stringRedisTemplate.execute(INCREASE,
+                List.of(dailyKey(prefix, date), weeklyKey(prefix, date)), args.toArray());
+    }
+
+    /**
+     * 오늘 상위 n개
+     */
+    List<T> todayTopN(String prefix, int n) {
+        return topN(dailyKey(prefix, LocalDate.now()), n);
+    }
+
+    /**
+     * 이번 주(월요일 시작) 상위 n개
+     */
+    List<T> thisWeekTopN(String prefix, int n) {
+        return topN(weeklyKey(prefix, LocalDate.now()), n);
+    }
+
+    private List<T> topN(String key, int n) {
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, 0, n - 1);
+        if (tuples == null) return List.of();
+
+        List<T> list = new ArrayList<>(tuples.size());
+        for (var t : tuples) {
+            if (t.getValue() == null) continue;
+            list.add(mapper.apply(t.getValue(), t.getScore() == null ? 0L : t.getScore().longValue()));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,55 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 차원별 회사 랭킹 (오늘 / 이번 주 "가장 상승 전망이 많은 회사", "부정 감성이 가장 많은 회사" 등)
+ * <p>
+ * 목적:
+ * - news_articles 를 prediction / sentiment 로 GROUP BY 하지 않고 쓰기 시점에 미리 집계
+ * - 조회는 ZREVRANGE 한 번 (O(log n + k))
+ * <p>
+ * 구조:
+ * - rank:company:{차원}:daily:{날짜}, rank:company:{차원}:weekly:{ISO 주 월요일} (DailyWeeklyRankCounter)
+ * - RankingIncrementBuffer 가 주기마다 차원별 증가분을 모아 increaseBy 로 반영 (차원당 스크립트 1회)
+ */
+@Service
+public class DimensionRankingService {
+
+    private final DailyWeeklyRankCounter<CompanyRankDto> counter;
+
+    public DimensionRankingService(StringRedisTemplate stringRedisTemplate) {
+        this.counter = new DailyWeeklyRankCounter<>(stringRedisTemplate, CompanyRankDto::new);
+    }
+
+    private static String prefix(RankingDimension dimension) {
+        return "rank:company:" + dimension.param();
+    }
+
+    /**
+     * date 날짜의 차원별 증가분 반영
+     */
+    public void increaseBy(LocalDate date, Map<RankingDimension, Map<String, Long>> deltas) {
+        deltas.forEach((dimension, counts) -> counter.increaseBy(prefix(dimension), date, counts));
+    }
+
+    /**
+     * 오늘 상위 n개
+     */
+    public List<CompanyRankDto> todayTopN(RankingDimension dimension, int n) {
+        return counter.todayTopN(prefix(dimension), n);
+    }
+
+    /**
+     * 이번 주(월요일 시작) 상위 n개
+     */
+    public List<CompanyRankDto> thisWeekTopN(RankingDimension dimension, int n) {
+        return counter.thisWeekTopN(prefix(dimension), n);
+    }
+}
@@ -0,0 +1,201 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 메모리 고정 heavy-hitter 일간 랭킹 (ranking.engine=sketch 일 때만 사용)
+ * <p>
+ * 목적:
+ * - 분석 모델이 만들어 내는 회사 이름 종류가 아무리 많아도 랭킹용 메모리는 고정
+ * - 오늘 분석 기록 전체를 GROUP BY 하는 DB fallback 제거
+ * <p>
+ * 구조:
+ * - 인스턴스: 한 flush 주기의 증가분을 HeavyHitterSketch 에 모음
+ * - Redis: rank:hh:cms:{날짜} (칸 "row:col" → 카운터 해시, depth x width 고정)
+ * + rank:hh:top:{날짜} (전역 추정치 상위 K ZSet)
+ * - publish 때 스크립트 한 번으로 칸을 더하고, 후보들의 전역 추정치를 다시 계산해 상위 K 만 남긴 뒤
+ * 그 결과를 인스턴스 로컬에 보관 → 조회(topN)는 Redis 를 타지 않음
+ * <p>
+ * 오차: 추정치는 실제보다 작지 않고, 확률 1 - e^-depth 로 실제 + (e / width) * 오늘 전체 건수 이하
+ * <p>
+ * sketch 는 일간 랭킹 조회(getDailyRanking)에만 쓴다.
+ * 정확한 일간 ZSet(RedisRankingService)에는 모든 증가분이 그대로 들어간다.
+ * (그 키가 company_rank_daily / rollup / rolling window / 기간 랭킹의 원본이라 빠지면 영구 과소 집계)
+ */
+@Service
+@Slf4j
+public class HeavyHitterRankingService {
+
+    private static final Duration TTL = Duration.ofDays(2);
+
+    /**
+     * KEYS[1] = cms 해시, KEYS[2] = top ZSet
+     * ARGV[1] = TTL(초), ARGV[2] = K, ARGV[3] = depth, ARGV[4] = 칸 수
+     * ARGV[5..] = (칸, 증가량) 쌍 다음 (회사, col_0 .. col_{depth-1}) 묶음
+     * 반환: 상위 K (회사, 점수, ...) 내림차순
+     */
+    private static final DefaultRedisScript<List> PUBLISH = new DefaultRedisScript<>("""
+            local k = tonumber(ARGV[2])
+            local depth = tonumber(ARGV[3])
+            local cells = tonumber(ARGV[4])
+            local i = 5
+            for c = 1, cells do
+              redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+              i = i + 2
+            end
+            while i <= #ARGV do
+              local est = nil
+              for r = 0, depth - 1 do
+                local v = tonumber(redis.call('HGET', KEYS[1], r .. ':' .. ARGV[i + 1 + r]) or '0')
+                if est == nil or v < est then est = v end
+              end
+              redis.call('ZADD', KEYS[2], est, ARGV[i])
+              i = i + 1 + depth
+            end
+            local size = redis.call('ZCARD', KEYS[2])
+            if size > k then
+              redis.call('ZREMRANGEBYRANK', KEYS[2], 0, size - k - 1)
+            end
+            if cells > 0 then
+              redis.call('EXPIRE', KEYS[1], ARGV[1])
+              redis.call('EXPIRE', KEYS[2], ARGV[1])
+            end
+            return redis.call('ZREVRANGE', KEYS[2], 0, -1, 'WITHSCORES')
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean enabled;
+    private final int depth;
+    private final int width;
+    private final int k;
+
+    // 이번 주기 증가분 (publish 때 비움)
+    private HeavyHitterSketch pending;
+    private LocalDate pendingDate;
+    // 마지막 publish 결과 (전역 상위 K)
+    private volatile LocalDate snapshotDate;
+    private volatile List<CompanyRankDto> snapshot = List.of();
+    private volatile Set<String> admitted = Set.of();
+
+    public HeavyHitterRankingService(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${ranking.engine:exact}") String engine,
+            @Value("${ranking.sketch.depth:4}") int depth,
+            @Value("${ranking.sketch.width:2048}") int width,
+            @Value("${ranking.sketch.top-k:100}") int k
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.enabled = "sketch".equalsIgnoreCase(engine);
+        this.depth = depth;
+        this.width = width;
+        this.k = k;
+        this.pending = new HeavyHitterSketch(depth, width, k);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    static String cmsKey(LocalDate date) {
+        return "rank:hh:cms:" + date;
+    }
+
+    static String topKey(LocalDate date) {
+        return "rank:hh:top:" + date;
+    }
+
+    /**
+     * 오늘 증가분 반영 (메모리만)
+     */
+    public synchronized void offer(LocalDate date, Map<String, Long> deltas) {
+        if (!date.equals(pendingDate)) {
+            pending = new HeavyHitterSketch(depth, width, k);
+            pendingDate = date;
+        }
+        deltas.forEach(pending::add);
+    }
+
+    /**
+     * 모은 증가분을 Redis 전역 sketch 에 합치고 전역 상위 K 를 받아 온다.
+     * <p>
+     * 후보 = 이번 주기 sketch 의 상위 K + 이번 주기에 증가한 기존 상위 K 회사
+     * (기존 상위 회사의 전역 점수가 다른 인스턴스 증가분만큼 뒤처지지 않도록)
+     */
+    public synchronized void publish(LocalDate today, Set<String> touched) {
+        if (!today.equals(pendingDate)) {
+            // 날짜가 바뀌었으면 어제 증가분은 버림 (어제 랭킹은 정확한 일간 ZSet 이 DB 로 이관)
+            pending = new HeavyHitterSketch(depth, width, k);
+            pendingDate = today;
+        }
+        HeavyHitterSketch sketch = pending;
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(TTL.toSeconds()));
+        args.add(String.valueOf(k));
+        args.add(String.valueOf(depth));
+        List<String> cells = new ArrayList<>();
+        sketch.forEachCell((row, col, value) -> {
+            cells.add(row + ":" + col);
+            cells.add(String.valueOf(value));
+        });
+        args.add(String.valueOf(cells.size() / 2));
+        args.addAll(cells);
+
+        Set<String> candidates = new LinkedHashSet<>();
+        sketch.topN(k).forEach(e -> candidates.add(e.getKey()));
+        for (String company : touched) {
+            if (admitted.contains(company)) candidates.add(company);
+        }
+        for (String company : candidates) {
+            args.add(company);
+            for (int col : sketch.columns(company)) args.add(String.valueOf(col));
+        }
+
+        try {
+            List<?> result = stringRedisTemplate.execute(PUBLISH, List.of(cmsKey(today), topKey(today)), args.toArray());
+            applySnapshot(today, result);
+            pending = new HeavyHitterSketch(depth, width, k);
+        } catch (Exception e) {
+            // pending 을 그대로 두고 다음 주기 증가분과 함께 다시 보냄
+            log.warn("[ranking] sketch publish failed, retry next cycle: err={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 오늘 전역 상위 n개 (마지막 publish 결과, Redis 조회 없음)
+     */
+    public List<CompanyRankDto> topN(int n) {
+        if (!LocalDate.now().equals(snapshotDate)) return List.of();
+        List<CompanyRankDto> current = snapshot;
+        return current.subList(0, Math.min(n, current.size()));
+    }
+
+    private void applySnapshot(LocalDate today, List<?> result) {
+        List<CompanyRankDto> top = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        if (result != null) {
+            for (int i = 0; i + 1 < result.size(); i += 2) {
+                String company = String.valueOf(result.get(i));
+                long score = (long) Double.parseDouble(String.valueOf(result.get(i + 1)));
+                top.add(new CompanyRankDto(company, score));
+                names.add(company);
+            }
+        }
+        snapshot = List.copyOf(top);
+        admitted = Set.copyOf(names);
+        snapshotDate = today;
+    }
+}
@@ -0,0 +1,133 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Count-Min Sketch + 상위 K 후보 (heavy hitter)
+ * <p>
+ * - depth x width long 카운터 + 후보 K개만 들고 있으므로 서로 다른 회사 이름이 몇 개가 들어와도 메모리 고정
+ * - estimate 는 실제 값보다 작지 않고, 확률 1 - e^-depth 로 실제 값 + (e / width) * total 이하
+ * - 후보는 추정치가 가장 작은 후보보다 커질 때만 들어온다. (CM-heap 방식)
+ * <p>
+ * 열 위치는 JVM 과 무관한 FNV-1a 64bit 해시로 계산하므로
+ * 여러 인스턴스의 카운터를 칸 단위로 더해 합칠 수 있다. (HeavyHitterRankingService)
+ * <p>
+ * 스레드 안전하지 않음. 호출 측에서 동기화.
+ */
+public class HeavyHitterSketch {
+
+    private final int depth;
+    private final int width;
+    private final int k;
+    private final long[][] counts;
+    private final Map<String, Long> candidates = new HashMap<>();
+    private long total;
+
+    public HeavyHitterSketch(int depth, int width, int k) {
+        if (depth <= 0 || width <= 0 || k <= 0) throw new IllegalArgumentException("depth, width, k must be positive");
+        this.depth = depth;
+        this.width = width;
+        this.k = k;
+        this.counts = new long[depth][width];
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * 행 r 에서 item 이 들어가는 열 (Kirsch-Mitzenmacher: h1 + r * h2)
+     */
+    public int[] columns(String item) {
+        long h = fnv1a64(item);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        int[] cols = new int[depth];
+        for (int r = 0; r < depth; r++) {
+            cols[r] = Math.floorMod(h1 + r * h2, width);
+        }
+        return cols;
+    }
+
+    public void add(String item, long delta) {
+        int[] cols = columns(item);
+        long estimate = Long.MAX_VALUE;
+        for (int r = 0; r < depth; r++) {
+            counts[r][cols[r]] += delta;
+            estimate = Math.min(estimate, counts[r][cols[r]]);
+        }
+        total += delta;
+        offerCandidate(item, estimate);
+    }
+
+    public long estimate(String item) {
+        int[] cols = columns(item);
+        long estimate = Long.MAX_VALUE;
+        for (int r = 0; r < depth; r++) {
+            estimate = Math.min(estimate, counts[r][cols[r]]);
+        }
+        return estimate;
+    }
+
+    /**
+     * 추정치 내림차순 상위 n개 후보
+     */
+    public List<Map.Entry<String, Long>> topN(int n) {
+        List<Map.Entry<String, Long>> list = new ArrayList<>(candidates.entrySet());
+        list.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return list.subList(0, Math.min(n, list.size()));
+    }
+
+    /**
+     * 0 이 아닌 칸 (row, col, 값) 을 순회 (Redis 로 합칠 때)
+     */
+    public void forEachCell(CellConsumer consumer) {
+        for (int r = 0; r < depth; r++) {
+            for (int c = 0; c < width; c++) {
+                if (counts[r][c] != 0) consumer.accept(r, c, counts[r][c]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface CellConsumer {
+        void accept(int row, int col, long value);
+    }
+
+    private void offerCandidate(String item, long estimate) {
+        if (candidates.containsKey(item) || candidates.size() < k) {
+            candidates.put(item, estimate);
+            return;
+        }
+        // K 가 작아서(기본 100) 최소값은 선형 탐색
+        Map.Entry<String, Long> min = null;
+        for (Map.Entry<String, Long> e : candidates.entrySet()) {
+            if (min == null || e.getValue() < min.getValue()) min = e;
+        }
+        if (min != null && estimate > min.getValue()) {
+            candidates.remove(min.getKey());
+            candidates.put(item, estimate);
+        }
+    }
+
+    private static long fnv1a64(String s) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
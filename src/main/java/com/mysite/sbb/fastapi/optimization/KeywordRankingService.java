@@ -0,0 +1,53 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.KeywordRankDto;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 키워드 빈도 랭킹 (오늘 / 이번 주 가장 많이 나온 키워드)
+ * <p>
+ * 목적:
+ * - keywords_json 을 읽어 세지 않고 쓰기 시점에 정규화 키워드(ArticleKeywords.normalize) 단위로 미리 집계
+ * - 조회는 ZREVRANGE 한 번 (O(log n + k))
+ * <p>
+ * 구조:
+ * - rank:keyword:daily:{날짜}, rank:keyword:weekly:{ISO 주 월요일} (DailyWeeklyRankCounter)
+ * - 회사 랭킹과 같은 기준(분석 기록 1건당 +1)으로 RankingIncrementBuffer 가 모아 주기마다 스크립트 1회로 반영
+ */
+@Service
+public class KeywordRankingService {
+
+    private static final String PREFIX = "rank:keyword";
+
+    private final DailyWeeklyRankCounter<KeywordRankDto> counter;
+
+    public KeywordRankingService(StringRedisTemplate stringRedisTemplate) {
+        this.counter = new DailyWeeklyRankCounter<>(stringRedisTemplate, KeywordRankDto::new);
+    }
+
+    /**
+     * date 날짜의 키워드별 증가분 반영
+     */
+    public void increaseBy(LocalDate date, Map<String, Long> deltas) {
+        counter.increaseBy(PREFIX, date, deltas);
+    }
+
+    /**
+     * 오늘 상위 n개
+     */
+    public List<KeywordRankDto> todayTopN(int n) {
+        return counter.todayTopN(PREFIX, n);
+    }
+
+    /**
+     * 이번 주(월요일 시작) 상위 n개
+     */
+    public List<KeywordRankDto> thisWeekTopN(int n) {
+        return counter.thisWeekTopN(PREFIX, n);
+    }
+}
@@ -0,0 +1,199 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import com.mysite.sbb.fastapi.optimization.CompanyRankRollup.Grain;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 임의 기간 [start, end) 회사 랭킹
+ * <p>
+ * 목적:
+ * - "지난 분기" 같은 긴 기간도 일간 행 수십~수백 일을 SUM 하지 않고 계산
+ * <p>
+ * 구성:
+ * - 기간을 (끝난) 월 롤업 → (끝난) ISO 주 롤업 → 남은 일간 행 순서로 가장 적은 조각으로 나눔
+ * - 조각들을 UNION ALL 로 묶어 SQL 한 번으로 합산
+ * - 아직 DB 로 이관되지 않은 최근 날짜(Redis 일간 키)가 기간에 걸치면 그 점수도 더함
+ * <p>
+ * 롤업은 RankingFlushBatch 가 하루치를 이관할 때마다 해당 주 / 월만 다시 계산한다.
+ * (CompanyRankRollupRepository.refresh)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RangeRankingService {
+
+    /**
+     * 기간 조각. grain 이 null 이면 일간 행 [start, end)
+     */
+    record Piece(Grain grain, LocalDate start, LocalDate end) {
+    }
+
+    /**
+     * 조회 가능한 최대 기간 (월 조각 12개 + 앞뒤 주 / 일 조각)
+     */
+    public static final Period MAX_SPAN = Period.ofYears(1);
+
+    /**
+     * Redis 점수를 더할 때 소스(DB, 날짜별 Redis 키)마다 읽는 후보 수 = max(n * 배수, 최소값)
+     */
+    static final int CANDIDATE_FACTOR = 10;
+    static final int MIN_CANDIDATES = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisRankingService redisRankingService;
+    private final CompanyRankRollupRepository companyRankRollupRepository;
+
+    /**
+     * [start, end) 상위 n개 (빈 자리 채우기는 호출 측에서)
+     */
+    public List<CompanyRankDto> topN(LocalDate start, LocalDate end, int n) {
+        LocalDate today = LocalDate.now();
+        List<Piece> pieces = plan(start, end, today);
+
+        int candidates = Math.max(n * CANDIDATE_FACTOR, MIN_CANDIDATES);
+        Map<String, Long> pending = pendingCounts(start, end, today, candidates);
+        // Redis 점수를 더해야 하면 DB 쪽도 후보를 넉넉히 (합산 후 순위가 바뀔 수 있음)
+        List<CompanyRankDto> persisted = query(pieces, pending.isEmpty() ? n : candidates);
+        log.debug("range ranking [{}, {}): pieces={}, pendingCompanies={}", start, end, pieces.size(), pending.size());
+
+        if (pending.isEmpty()) return persisted;
+
+        Map<String, Long> merged = new HashMap<>(pending);
+        persisted.forEach(r -> merged.merge(r.company(), r.companyCount(), Long::sum));
+        return merged.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(n)
+                .map(e -> new CompanyRankDto(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 하루치 이관 후 그 날짜가 속한 주 / 월 롤업 재계산
+     */
+    public void refreshRollups(LocalDate date) {
+        for (Grain grain : Grain.values()) {
+            LocalDate periodStart = grain.startOf(date);
+            int rows = companyRankRollupRepository.refresh(grain.name(), periodStart, grain.endOf(periodStart));
+            log.debug("rollup refreshed: grain={}, period={}, rows={}", grain, periodStart, rows);
+        }
+    }
+
+    /**
+     * [start, end) 를 롤업 / 일간 조각으로 분해
+     * <p>
+     * 롤업은 completeBefore 이전에 끝난 기간만 쓴다. (진행 중인 주 / 월은 일간 행으로)
+     * 월을 먼저 최대한 잘라 내고, 남은 앞뒤 구간을 다시 주 / 일로 나눈다.
+     */
+    static List<Piece> plan(LocalDate start, LocalDate end, LocalDate completeBefore) {
+        List<Piece> pieces = new ArrayList<>();
+        LocalDate rollupEnd = end.isBefore(completeBefore) ? end : completeBefore;
+
+        LocalDate firstMonth = start.getDayOfMonth() == 1 ? start : start.withDayOfMonth(1).plusMonths(1);
+        LocalDate m = firstMonth;
+        while (!Grain.MONTH.endOf(m).isAfter(rollupEnd)) {
+            pieces.add(new Piece(Grain.MONTH, m, Grain.MONTH.endOf(m)));
+            m = Grain.MONTH.endOf(m);
+        }
+
+        if (pieces.isEmpty()) {
+            planWeeks(start, end, rollupEnd, pieces);
+        } else {
+            planWeeks(start, firstMonth, rollupEnd, pieces);
+            planWeeks(m, end, rollupEnd, pieces);
+        }
+        return pieces;
+    }
+
+    private static void planWeeks(LocalDate start, LocalDate end, LocalDate rollupEnd, List<Piece> pieces) {
+        if (!start.isBefore(end)) return;
+
+        LocalDate weekEnd = end.isBefore(rollupEnd) ? end : rollupEnd;
+        LocalDate firstWeek = Grain.WEEK.startOf(start);
+        if (firstWeek.isBefore(start)) firstWeek = firstWeek.plusWeeks(1);
+
+        LocalDate w = firstWeek;
+        while (!Grain.WEEK.endOf(w).isAfter(weekEnd)) {
+            pieces.add(new Piece(Grain.WEEK, w, Grain.WEEK.endOf(w)));
+            w = Grain.WEEK.endOf(w);
+        }
+
+        if (w.equals(firstWeek)) {
+            pieces.add(new Piece(null, start, end));
+            return;
+        }
+        if (start.isBefore(firstWeek)) pieces.add(new Piece(null, start, firstWeek));
+        if (w.isBefore(end)) pieces.add(new Piece(null, w, end));
+    }
+
+    private List<CompanyRankDto> query(List<Piece> pieces, Integer limit) {
+        List<String> parts = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        for (Grain grain : Grain.values()) {
+            List<Piece> ofGrain = pieces.stream().filter(p -> p.grain() == grain).toList();
+            if (ofGrain.isEmpty()) continue;
+            parts.add("SELECT company, cnt FROM company_rank_rollup WHERE grain = ? AND period_start IN ("
+                    + ofGrain.stream().map(p -> "?").collect(Collectors.joining(", ")) + ")");
+            args.add(grain.name());
+            ofGrain.forEach(p -> args.add(Date.valueOf(p.start())));
+        }
+
+        List<Piece> days = pieces.stream().filter(p -> p.grain() == null).toList();
+        if (!days.isEmpty()) {
+            parts.add("SELECT company, cnt FROM company_rank_daily WHERE "
+                    + days.stream().map(p -> "(stat_date >= ? AND stat_date < ?)").collect(Collectors.joining(" OR ")));
+            days.forEach(p -> {
+                args.add(Date.valueOf(p.start()));
+                args.add(Date.valueOf(p.end()));
+            });
+        }
+
+        if (parts.isEmpty()) return List.of();
+
+        StringBuilder sql = new StringBuilder("SELECT company, SUM(cnt) AS total FROM (")
+                .append(String.join(" UNION ALL ", parts))
+                .append(") t GROUP BY company ORDER BY total DESC");
+        if (limit != null) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+
+        return jdbcTemplate.query(sql.toString(),
+                (rs, i) -> new CompanyRankDto(rs.getString(1), rs.getLong(2)),
+                args.toArray());
+    }
+
+    /**
+     * 기간에 걸친 최근 날짜 중 아직 Redis 에 남아 있는 점수 (오늘 포함)
+     * <p>
+     * 요청마다 최대 8개 일간 ZSET 을 통째로 읽지 않도록 날짜마다 상위 candidates 개만 읽는다.
+     * 어느 소스에서도 후보에 못 든 회사는 합산이 빠질 수 있는 근사치이지만,
+     * 후보 수가 n 의 10배 이상이라 상위 n 순위에는 영향이 거의 없다.
+     */
+    private Map<String, Long> pendingCounts(LocalDate start, LocalDate end, LocalDate today, int candidates) {
+        LocalDate from = today.minusDays(RedisRankingService.DAILY_RETENTION_DAYS);
+        if (from.isBefore(start)) from = start;
+        LocalDate to = today.plusDays(1);
+        if (end.isBefore(to)) to = end;
+
+        Map<String, Long> counts = new HashMap<>();
+        for (LocalDate d = from; d.isBefore(to); d = d.plusDays(1)) {
+            redisRankingService.topCounts(d, candidates).forEach((company, cnt) -> counts.merge(company, cnt, Long::sum));
+        }
+        return counts;
+    }
+}
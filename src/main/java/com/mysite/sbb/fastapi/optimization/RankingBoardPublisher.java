@@ -0,0 +1,169 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.config.StompSubscriptionRegistry;
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실시간 랭킹 보드 WebSocket 전송 (/topic/ranking/{period})
+ * <p>
+ * 목적:
+ * - 클라이언트가 GET /api/ranking 을 주기적으로 폴링하는 대신 구독
+ * - Redis 조회는 구독자 수와 무관하게 period 당 ranking.board.publish-interval-ms 에 한 번
+ * <p>
+ * 전송 방식:
+ * - 이전 보드와 비교해 바뀐 항목(순위 이동, 새 진입, 점수 변경)과 빠진 회사만 delta 로 전송
+ * - 바뀐 게 없으면 아무것도 보내지 않음
+ * - 새 구독이 생기면 다음 주기에 전체 snapshot 전송
+ * (구독 이벤트 시점에는 SimpleBroker 에 구독이 아직 등록되지 않았을 수 있어 즉시 보내지 않음)
+ * - version 은 보드가 바뀔 때마다 1씩 증가, 클라이언트는 건너뛴 version 이 보이면 snapshot 을 기다리면 됨
+ * <p>
+ * SimpleBroker 는 인스턴스 로컬이므로 인스턴스마다 자기 구독자에게만 보낸다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RankingBoardPublisher {
+
+    static final String DESTINATION_PREFIX = "/topic/ranking/";
+    static final List<String> PERIODS = List.of("daily", "trending");
+    private static final int BOARD_SIZE = 10;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final RedisRankingService redisRankingService;
+    private final TrendingRankingService trendingRankingService;
+
+    // period → 마지막으로 보낸 보드 (스케줄러 스레드에서만 접근)
+    private final Map<String, Board> boards = new HashMap<>();
+    private final Set<String> snapshotRequested = ConcurrentHashMap.newKeySet();
+
+    private record Board(List<CompanyRankDto> entries, long version) {
+    }
+
+    @Scheduled(fixedRateString = "${ranking.board.publish-interval-ms:2000}")
+    public synchronized void publish() {
+        for (String period : PERIODS) {
+            String destination = DESTINATION_PREFIX + period;
+            // 구독자가 생기면 onSubscribe 에서 snapshot 을 요청하므로 지금은 읽지도 않음
+            if (!subscriptionRegistry.hasSubscribers(destination)) continue;
+
+            try {
+                publish(period, destination);
+            } catch (Exception e) {
+                log.warn("[ranking-board] publish failed period={} msg={}", period, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 새 구독자에게 다음 주기에 전체 보드 전송 예약
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        String destination = SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders());
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX)) return;
+
+        String period = destination.substring(DESTINATION_PREFIX.length());
+        if (PERIODS.contains(period)) snapshotRequested.add(period);
+    }
+
+    private void publish(String period, String destination) {
+        List<CompanyRankDto> current = withoutPlaceholders(read(period));
+        Board previous = boards.get(period);
+        long version = previous == null ? 0 : previous.version();
+
+        if (snapshotRequested.remove(period) || previous == null) {
+            boards.put(period, new Board(current, version + 1));
+            messagingTemplate.convertAndSend(destination, snapshot(period, version + 1, current));
+            return;
+        }
+
+        Map<String, Object> delta = delta(period, version + 1, previous.entries(), current);
+        if (delta == null) return;
+
+        boards.put(period, new Board(current, version + 1));
+        messagingTemplate.convertAndSend(destination, delta);
+    }
+
+    private List<CompanyRankDto> read(String period) {
+        return switch (period) {
+            // 빈 자리 채우기("-", 0) 없이: 회사명으로 비교하므로 채움 행이 중복 / 변경으로 잡힘
+            case "daily" -> redisRankingService.getTodayTop(BOARD_SIZE);
+            case "trending" -> trendingRankingService.topN(BOARD_SIZE);
+            default -> throw new IllegalArgumentException("unknown period " + period);
+        };
+    }
+
+    /**
+     * 빈 자리 채움 행 제거 (회사명이 키라서 남겨 두면 매 주기 delta + version 증가)
+     */
+    static List<CompanyRankDto> withoutPlaceholders(List<CompanyRankDto> entries) {
+        return entries.stream()
+                .filter(e -> !RedisRankingService.PLACEHOLDER.equals(e.company()))
+                .toList();
+    }
+
+    static Map<String, Object> snapshot(String period, long version, List<CompanyRankDto> entries) {
+        List<Map<String, Object>> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            rows.add(entry(i + 1, entries.get(i), null));
+        }
+        return Map.of("type", "snapshot", "period", period, "version", version, "entries", rows);
+    }
+
+    /**
+     * 이전 보드 대비 바뀐 항목만. 바뀐 게 없으면 null
+     */
+    static Map<String, Object> delta(String period, long version,
+                                     List<CompanyRankDto> previous, List<CompanyRankDto> current) {
+        Map<String, Integer> previousRank = new HashMap<>();
+        Map<String, Long> previousCount = new HashMap<>();
+        for (int i = 0; i < previous.size(); i++) {
+            previousRank.put(previous.get(i).company(), i + 1);
+            previousCount.put(previous.get(i).company(), previous.get(i).companyCount());
+        }
+
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            CompanyRankDto dto = current.get(i);
+            Integer before = previousRank.remove(dto.company());
+            if (before != null && before == i + 1 && Objects.equals(previousCount.get(dto.company()), dto.companyCount())) {
+                continue;
+            }
+            changes.add(entry(i + 1, dto, before));
+        }
+
+        // 남은 건 보드에서 빠진 회사
+        List<String> removed = new ArrayList<>(previousRank.keySet());
+        if (changes.isEmpty() && removed.isEmpty()) return null;
+
+        return Map.of("type", "delta", "period", period, "version", version, "changes", changes, "removed", removed);
+    }
+
+    private static Map<String, Object> entry(int rank, CompanyRankDto dto, Integer previousRank) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("rank", rank);
+        row.put("company", dto.company());
+        row.put("count", dto.companyCount());
+        // null = 새로 진입
+        if (previousRank != null) row.put("previousRank", previousRank);
+        return row;
+    }
+}
@@ -0,0 +1,61 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 회사 랭킹 차원 (분석 결과의 prediction / sentiment 기준)
+ * <p>
+ * 분석 서버가 돌려주는 값은 영문(up/down, positive/negative)과 한글(상승/하락, 긍정/부정)이 섞여 있어
+ * 여기서 한 번 정규화한다. 알 수 없는 값은 어느 차원에도 세지 않는다.
+ */
+public enum RankingDimension {
+    BULLISH("bullish"),
+    BEARISH("bearish"),
+    POSITIVE("positive"),
+    NEGATIVE("negative");
+
+    private static final Set<String> UP = Set.of("up", "rise", "bullish", "상승");
+    private static final Set<String> DOWN = Set.of("down", "fall", "bearish", "하락");
+    private static final Set<String> POS = Set.of("positive", "pos", "긍정");
+    private static final Set<String> NEG = Set.of("negative", "neg", "부정");
+
+    private final String param;
+
+    RankingDimension(String param) {
+        this.param = param;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    /**
+     * 분석 결과 하나가 더해질 차원들
+     */
+    public static Set<RankingDimension> of(String prediction, String sentiment) {
+        Set<RankingDimension> dims = EnumSet.noneOf(RankingDimension.class);
+        String p = normalize(prediction);
+        String s = normalize(sentiment);
+        if (UP.contains(p)) dims.add(BULLISH);
+        if (DOWN.contains(p)) dims.add(BEARISH);
+        if (POS.contains(s)) dims.add(POSITIVE);
+        if (NEG.contains(s)) dims.add(NEGATIVE);
+        return dims;
+    }
+
+    /**
+     * API 파라미터 → 차원 (없으면 null)
+     */
+    public static RankingDimension fromParam(String param) {
+        for (RankingDimension d : values()) {
+            if (d.param.equalsIgnoreCase(param)) return d;
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,15 +1,29 @@
 package com.mysite.sbb.fastapi.optimization;
 
-import lombok.RequiredArgsConstructor;
+import com.mysite.sbb.util.JobLease;
+import com.mysite.sbb.util.ResourceVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Redis에 저장된 일간 회사별 조회/분석 카운트를
@@ -18,52 +32,201 @@ import java.util.Map;
  * 설계 의도:
  * 1. 실시간 트래픽 집계는 Redis에서 처리 (빠른 쓰기)
  * 2. 하루가 끝나면 RDB로 영속 저장 (통계/랭킹용)
- * 3. 이후 주간/월간 랭킹은 RDB 집계 기반으로 계산
+ * 3. 이후 주간/월간 랭킹은 RDB 집계 + 아직 이관 전인 Redis 일간 키로 계산 (RollingRankingService)
+ * <p>
+ * 처리 방식:
+ * - ZSCAN 으로 ranking.flush.chunk-size 개씩 읽고, chunk 마다 multi-row upsert 한 번
+ * (rewriteBatchedStatements=true 이므로 JDBC batch 가 INSERT ... VALUES (...),(...) 로 전송)
+ * - 메모리에는 chunk 하나만 올라가고, 긴 트랜잭션 없이 chunk 단위로 커밋
+ * - 하루치가 끝나면 그 날짜의 주간 / 월간 롤업(company_rank_rollup)을 다시 계산
+ * - upsert 는 cnt = 값 으로 덮어쓰므로 중간 실패 후 재실행해도 결과가 같다
+ * (Redis 키는 전부 이관된 뒤에만 삭제)
+ * - 이관 후 늦게 들어온 증가분(버퍼 재시도 등)은 새 일간 키에 델타만 쌓인다.
+ * 그대로 덮어쓰면 하루치가 델타로 줄어드므로, 이관 완료 표시가 있는 날짜는
+ * DB 값을 Redis 키에 먼저 되돌려(restoreFlushed, 원자적) 하루치 전체로 만든 뒤 같은 방식으로 덮어쓴다.
+ * <p>
+ * 클러스터 / catch-up:
+ * - 여러 인스턴스가 떠 있어도 JobLease("ranking-flush") 를 잡은 한 노드만 이관
+ * - 기동 시 + 매일 밤, 오늘 이전의 남아 있는 일간 키를 모두 찾아 오래된 날짜부터 이관
+ * (배치 시각에 앱이 내려가 있었어도 키 TTL 안에만 다시 뜨면 유실 없음)
+ * - 날짜 하나 끝날 때마다 리스 연장, 연장에 실패하면(다른 노드가 가져감) 중단
+ * <p>
+ * 메트릭: ranking.flush.rows / ranking.flush.chunks (counter), ranking.flush.duration (timer)
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class RankingFlushBatch {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO company_rank_daily (stat_date, company, cnt)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE cnt = VALUES(cnt)
+            """;
+
+    private static final String SELECT_PERSISTED_SQL = """
+            SELECT company, cnt FROM company_rank_daily WHERE stat_date = ?
+            """;
+
+    static final String LEASE_NAME = "ranking-flush";
+    private static final Duration LEASE_TTL = Duration.ofMinutes(10);
+
     private final RedisRankingService redisRankingService;
-    private final CompanyRankDailyRepository companyRankDailyRepository;
+    private final RollingRankingService rollingRankingService;
+    private final RangeRankingService rangeRankingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLease jobLease;
+    private final ResourceVersions resourceVersions;
+    private final int chunkSize;
+
+    // 인스턴스 식별자 (리스 owner)
+    private final String owner = UUID.randomUUID().toString();
 
+    private final Counter rowsCounter;
+    private final Counter chunksCounter;
+    private final Timer flushTimer;
+
+    public RankingFlushBatch(
+            RedisRankingService redisRankingService,
+            RollingRankingService rollingRankingService,
+            RangeRankingService rangeRankingService,
+            JdbcTemplate jdbcTemplate,
+            JobLease jobLease,
+            ResourceVersions resourceVersions,
+            MeterRegistry meterRegistry,
+            @Value("${ranking.flush.chunk-size:500}") int chunkSize
+    ) {
+        this.redisRankingService = redisRankingService;
+        this.rollingRankingService = rollingRankingService;
+        this.rangeRankingService = rangeRankingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobLease = jobLease;
+        this.resourceVersions = resourceVersions;
+        this.chunkSize = chunkSize;
+        this.rowsCounter = meterRegistry.counter("ranking.flush.rows");
+        this.chunksCounter = meterRegistry.counter("ranking.flush.chunks");
+        this.flushTimer = meterRegistry.timer("ranking.flush.duration");
+    }
 
     /**
      * 매일 00:05 (KST) 실행
      * <p>
-     * - 전날 Redis 집계 데이터를 조회
-     * - DB에 upsert 저장
+     * - 전날(및 밀린 날짜) Redis 집계 데이터를 chunk 단위로 DB에 upsert
      * - Redis 데이터 삭제
-     * - 주간/월간 캐시 무효화
+     * - rolling window 재생성 (지우지 않고 제자리에서, 조회 중 빈 window 가 보이지 않도록)
      * <p>
-     * 캐시 무효화 이유:
-     * 일간 데이터가 갱신되었으므로
-     * 주간/월간 랭킹 재계산 필요
+     * 재생성 이유:
+     * window 는 "DB 합계 + 남아 있는 Redis 일간 키" 로 만들어지는데
+     * 이관 중에 만들어진 window 는 이미 커밋된 chunk 를 두 번 셀 수 있음
      */
-
-    @Caching(evict = {
-            @CacheEvict(cacheNames = "rankWeekly", allEntries = true),
-            @CacheEvict(cacheNames = "rankMonthly", allEntries = true)
-    })
     @Scheduled(cron = "0 5 0 * * *", zone = "Asia/Seoul")
-    @Transactional
     public void flushYesterday() {
-        LocalDate target = LocalDate.now().minusDays(1);
-        // Redis에서 회사별 카운트 전체 조회
-        Map<String, Integer> counts = redisRankingService.getAllCounts(target);
-        // 집계 데이터가 없으면 종료
-        if (counts.isEmpty()) {
-            log.info("flushYesterday {}", target);
-            return;
+        flushPending();
+    }
+
+    /**
+     * 기동 시 밀린 날짜 catch-up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void flushOnStartup() {
+        try {
+            flushPending();
+        } catch (Exception e) {
+            // 기동을 막지 않음, 다음 야간 배치에서 재시도
+            log.warn("[ranking] startup catch-up failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 리스를 잡고 오늘 이전의 남아 있는 일간 키를 오래된 순으로 이관
+     *
+     * @return 이관한 날짜 수 (리스를 못 잡으면 0)
+     */
+    public int flushPending() {
+        if (!jobLease.tryAcquire(LEASE_NAME, owner, LEASE_TTL)) {
+            log.info("[ranking] flush skipped, lease held by another instance");
+            return 0;
         }
 
-        // company + 날짜 기준 upsert
-        counts.forEach((company, count) -> {
-            companyRankDailyRepository.upsert(target, company, count);
+        int flushed = 0;
+        try {
+            List<LocalDate> pending = redisRankingService.pendingDates(LocalDate.now());
+            for (LocalDate date : pending) {
+                if (flushed > 0 && !jobLease.renew(LEASE_NAME, owner, LEASE_TTL)) {
+                    log.warn("[ranking] flush lease lost, stop after {} of {} dates", flushed, pending.size());
+                    break;
+                }
+                flush(date);
+                flushed++;
+            }
+            return flushed;
+        } finally {
+            jobLease.release(LEASE_NAME, owner);
+        }
+    }
+
+    /**
+     * 특정 날짜 집계 이관
+     *
+     * @return 이관한 회사 수
+     */
+    public int flush(LocalDate target) {
+        long started = System.nanoTime();
+        AtomicInteger rows = new AtomicInteger();
+        AtomicInteger chunks = new AtomicInteger();
+
+        restoreIfFlushed(target);
+
+        redisRankingService.scanCounts(target, chunkSize, chunk -> {
+            upsert(target, chunk);
+            rowsCounter.increment(chunk.size());
+            chunksCounter.increment();
+            log.debug("flush {} progress: chunk={}, rows={}", target, chunks.incrementAndGet(), rows.addAndGet(chunk.size()));
         });
 
+        // 집계 데이터가 없으면 종료
+        if (rows.get() == 0) {
+            log.info("flushYesterday {} (no data)", target);
+            return 0;
+        }
+
+        // 그 날짜가 속한 주 / 월 롤업 재계산 (실패하면 Redis 키를 남겨 두고 다음 실행에서 통째로 재시도)
+        rangeRankingService.refreshRollups(target);
+
         // 이관 완료 후 Redis 데이터 삭제 (중복 방지)
         redisRankingService.delete(target);
-        log.info("flushYesterday {}", target);
+        rollingRankingService.rebuild();
+        resourceVersions.bump(ResourceVersions.RANKING);
+
+        long elapsedNanos = System.nanoTime() - started;
+        flushTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("flushYesterday {}: rows={}, chunks={}, {}ms ({} rows/s)",
+                target, rows.get(), chunks.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                Math.round(rows.get() / Math.max(elapsedNanos / 1e9, 1e-3)));
+        return rows.get();
+    }
+
+    /**
+     * 이미 이관한 날짜에 늦게 들어온 증가분이면 이관된 값을 Redis 키에 되돌려 놓는다.
+     * (덮어쓰기 upsert 가 델타만으로 하루치를 줄이지 않도록)
+     */
+    private void restoreIfFlushed(LocalDate target) {
+        if (!redisRankingService.isFlushed(target)) return;
+
+        Map<String, Long> persisted = new HashMap<>();
+        jdbcTemplate.query(SELECT_PERSISTED_SQL,
+                (RowCallbackHandler) rs -> persisted.put(rs.getString(1), rs.getLong(2)),
+                Date.valueOf(target));
+        if (redisRankingService.restoreFlushed(target, persisted)) {
+            log.info("flushYesterday {}: late increments, restored {} persisted rows", target, persisted.size());
+        }
+    }
+
+    private void upsert(LocalDate target, Map<String, Integer> chunk) {
+        Date statDate = Date.valueOf(target);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(chunk.entrySet()), chunk.size(), (ps, e) -> {
+            ps.setDate(1, statDate);
+            ps.setString(2, e.getKey());
+            ps.setInt(3, e.getValue());
+        });
     }
 }
@@ -0,0 +1,205 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.util.ResourceVersions;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 랭킹 증가분 write-behind 버퍼
+ * <p>
+ * 목적:
+ * - 분석 저장 경로(Kafka 리스너 스레드)에서 Redis 호출 제거
+ * - 피크 때 회사당 수백 번의 ZINCRBY 를 주기당 스크립트 1회로 합침
+ * <p>
+ * 구조:
+ * - 날짜 → (회사 → LongAdder) 로 누적 (락 없음, 자정 전후 증가분이 서로 섞이지 않음)
+ * - ranking.buffer.flush-interval-ms 마다 sumThenReset 으로 비우고 RedisRankingService.increaseBy 로 반영
+ * - 반영 실패 시 증가분을 다시 더해 두고 다음 주기에 재시도
+ * - 오늘 증가분은 TrendingRankingService 에도 반영 (best-effort, 실패해도 재시도하지 않음)
+ * - 차원별(상승/하락 전망, 긍정/부정 감성) 증가분도 같은 방식으로 모아 DimensionRankingService 로 반영
+ * - 키워드 증가분도 같은 방식으로 모아 KeywordRankingService 로 반영
+ * - ranking.engine=sketch 이면 오늘 증가분을 HeavyHitterRankingService 에도 더한다. (일간 랭킹 조회용)
+ * 정확한 일간 집계에는 모드와 무관하게 전체 증가분을 쓰고, sketch 는 그 반영이 성공한 뒤에 더한다. (재시도 시 중복 방지)
+ * - 하나라도 반영되면 랭킹 리소스 버전 증가 (ETag)
+ * - 종료 시 마지막으로 한 번 더 flush
+ * <p>
+ * 일간 랭킹 조회에는 최대 한 주기만큼 늦게 반영된다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RankingIncrementBuffer {
+
+    private final RedisRankingService redisRankingService;
+    private final TrendingRankingService trendingRankingService;
+    private final DimensionRankingService dimensionRankingService;
+    private final HeavyHitterRankingService heavyHitterRankingService;
+    private final KeywordRankingService keywordRankingService;
+    private final ResourceVersions resourceVersions;
+
+    private final Map<LocalDate, ConcurrentHashMap<String, LongAdder>> buckets = new ConcurrentHashMap<>();
+    // 날짜 → 차원 → (회사 → 증가분)
+    private final Map<LocalDate, ConcurrentHashMap<RankingDimension, ConcurrentHashMap<String, LongAdder>>> dimensionBuckets =
+            new ConcurrentHashMap<>();
+    // 날짜 → (정규화 키워드 → 증가분)
+    private final Map<LocalDate, ConcurrentHashMap<String, LongAdder>> keywordBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * 오늘 날짜 기준 회사 점수 +1 (메모리에만 반영)
+     */
+    public void increment(String company) {
+        if (company == null || company.isBlank()) return;
+        buckets.computeIfAbsent(LocalDate.now(), d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(company, c -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * 회사 점수 +1 과 함께 분석 결과의 차원별 점수도 +1
+     */
+    public void increment(String company, Set<RankingDimension> dimensions) {
+        increment(company);
+        if (company == null || company.isBlank() || dimensions.isEmpty()) return;
+
+        ConcurrentHashMap<RankingDimension, ConcurrentHashMap<String, LongAdder>> byDimension =
+                dimensionBuckets.computeIfAbsent(LocalDate.now(), d -> new ConcurrentHashMap<>());
+        for (RankingDimension dimension : dimensions) {
+            byDimension.computeIfAbsent(dimension, d -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(company, c -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    /**
+     * 분석 결과의 키워드 점수 +1 (ArticleKeywords.normalized 결과, 메모리에만 반영)
+     */
+    public void incrementKeywords(Collection<String> keywords) {
+        if (keywords.isEmpty()) return;
+        ConcurrentHashMap<String, LongAdder> counters =
+                keywordBuckets.computeIfAbsent(LocalDate.now(), d -> new ConcurrentHashMap<>());
+        for (String keyword : keywords) {
+            counters.computeIfAbsent(keyword, k -> new LongAdder()).increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ranking.buffer.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        LocalDate today = LocalDate.now();
+        AtomicBoolean changed = new AtomicBoolean();
+        AtomicBoolean sketchPublished = new AtomicBoolean();
+        buckets.forEach((date, counters) -> {
+            Map<String, Long> deltas = drain(counters);
+
+            if (deltas.isEmpty()) {
+                // 지난 날짜는 한 주기 동안 아무것도 안 들어왔을 때만 정리
+                // (늦게 들어온 증가분은 computeIfAbsent 로 새 버킷에 들어가 다음 주기에 반영)
+                if (date.isBefore(today)) buckets.remove(date, counters);
+                return;
+            }
+
+            boolean sketch = heavyHitterRankingService.enabled() && !date.isBefore(today);
+
+            try {
+                redisRankingService.increaseBy(date, deltas);
+            } catch (Exception e) {
+                log.warn("[ranking] flush failed, retry next cycle: date={}, companies={}, err={}",
+                        date, deltas.size(), e.getMessage());
+                deltas.forEach((company, delta) ->
+                        counters.computeIfAbsent(company, c -> new LongAdder()).add(delta));
+                return;
+            }
+            changed.set(true);
+
+            if (sketch) {
+                heavyHitterRankingService.offer(date, deltas);
+                heavyHitterRankingService.publish(date, deltas.keySet());
+                sketchPublished.set(true);
+            }
+
+            if (!date.isBefore(today)) {
+                try {
+                    trendingRankingService.increaseBy(deltas);
+                } catch (Exception e) {
+                    log.warn("[ranking] trending flush failed: companies={}, err={}", deltas.size(), e.getMessage());
+                }
+            }
+        });
+
+        // 증가분이 없던 주기에도 다른 인스턴스가 올린 전역 상위 K 를 받아 옴
+        if (heavyHitterRankingService.enabled() && !sketchPublished.get()) {
+            heavyHitterRankingService.publish(today, Set.of());
+        }
+
+        dimensionBuckets.forEach((date, byDimension) -> {
+            Map<RankingDimension, Map<String, Long>> deltas = new EnumMap<>(RankingDimension.class);
+            byDimension.forEach((dimension, counters) -> {
+                Map<String, Long> drained = drain(counters);
+                if (!drained.isEmpty()) deltas.put(dimension, drained);
+            });
+
+            if (deltas.isEmpty()) {
+                if (date.isBefore(today)) dimensionBuckets.remove(date, byDimension);
+                return;
+            }
+
+            try {
+                dimensionRankingService.increaseBy(date, deltas);
+                changed.set(true);
+            } catch (Exception e) {
+                log.warn("[ranking] dimension flush failed, retry next cycle: date={}, dimensions={}, err={}",
+                        date, deltas.keySet(), e.getMessage());
+                deltas.forEach((dimension, counts) -> counts.forEach((company, delta) ->
+                        byDimension.computeIfAbsent(dimension, d -> new ConcurrentHashMap<>())
+                                .computeIfAbsent(company, c -> new LongAdder()).add(delta)));
+            }
+        });
+
+        keywordBuckets.forEach((date, counters) -> {
+            Map<String, Long> deltas = drain(counters);
+
+            if (deltas.isEmpty()) {
+                if (date.isBefore(today)) keywordBuckets.remove(date, counters);
+                return;
+            }
+
+            try {
+                keywordRankingService.increaseBy(date, deltas);
+                changed.set(true);
+            } catch (Exception e) {
+                log.warn("[ranking] keyword flush failed, retry next cycle: date={}, keywords={}, err={}",
+                        date, deltas.size(), e.getMessage());
+                deltas.forEach((keyword, delta) ->
+                        counters.computeIfAbsent(keyword, k -> new LongAdder()).add(delta));
+            }
+        });
+
+        if (changed.get()) resourceVersions.bump(ResourceVersions.RANKING);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private static Map<String, Long> drain(ConcurrentHashMap<String, LongAdder> counters) {
+        Map<String, Long> deltas = new HashMap<>();
+        counters.forEach((company, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) deltas.put(company, delta);
+        });
+        return deltas;
+    }
+}
@@ -2,16 +2,22 @@ package com.mysite.sbb.fastapi.optimization;
 
 import com.mysite.sbb.fastapi.CompanyRankDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -25,31 +31,160 @@ import java.util.stream.Collectors;
  * <p>
  * Key 전략:
  * rank:company:daily:{yyyy-MM-dd}
+ * rank:company:window:{N}d:{yyyy-MM-dd} (+ :ready) → RollingRankingService 가 만드는 최근 N일 누적
+ * rank:company:flushed:{yyyy-MM-dd} → RankingFlushBatch 가 DB 로 이관을 마친 날짜 표시
  * <p>
  * → 하루 단위로 랭킹 분리
  */
 @Service
 @RequiredArgsConstructor
 public class RedisRankingService {
+
+    /**
+     * 실시간으로 같이 갱신하는 rolling window 크기 (일)
+     */
+    public static final List<Integer> ROLLING_WINDOWS = List.of(7, 30);
+
+    /**
+     * getTodayTopN 이 빈 자리를 채우는 행의 회사명
+     */
+    public static final String PLACEHOLDER = "-";
+
+    /**
+     * 일간 키 보관 기간 (일)
+     * <p>
+     * 이관 전에 앱이 며칠 내려가 있어도 RankingFlushBatch 의 catch-up 이 따라잡을 수 있도록 넉넉히.
+     * 이관 전 일간 키는 이보다 오래 남아 있지 않는다. (RangeRankingService 가 Redis 를 볼 범위)
+     */
+    public static final int DAILY_RETENTION_DAYS = 7;
+
+    private static final Duration DAILY_TTL = Duration.ofDays(DAILY_RETENTION_DAYS);
+
+    private static final String DAILY_PREFIX = "rank:company:daily:";
+
+    private static final String FLUSHED_PREFIX = "rank:company:flushed:";
+
+    /**
+     * 이관 완료 표시 보관 기간
+     * <p>
+     * 이관 뒤 늦게 들어온 증가분으로 다시 생긴 일간 키(TTL 7일)보다 오래 남아야
+     * 그 키를 "하루치 전체" 로 잘못 덮어쓰지 않는다.
+     */
+    private static final Duration FLUSHED_TTL = DAILY_TTL.multipliedBy(2);
+
+    /**
+     * KEYS[1] = 일간 키, KEYS[2..] = (window, ready) 쌍
+     * ARGV[1] = 일간 키 TTL(초), ARGV[2..] = (회사, 증가량) 쌍
+     * <p>
+     * - TTL 은 키에 아직 없을 때만 설정 (하루 첫 반영 때 한 번)
+     * - 이미 만들어진(ready) window 에만 같이 더한다.
+     * 아직 없는 window 는 다음 조회 때 일간 키를 포함해서 새로 만들어지므로 빠지는 값이 없다.
+     */
+    private static final DefaultRedisScript<Long> INCREASE = new DefaultRedisScript<>("""
+            for i = 2, #ARGV, 2 do
+              redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])
+            end
+            if redis.call('TTL', KEYS[1]) < 0 then
+              redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            for k = 2, #KEYS, 2 do
+              if redis.call('EXISTS', KEYS[k + 1]) == 1 then
+                for i = 2, #ARGV, 2 do
+                  redis.call('ZINCRBY', KEYS[k], ARGV[i + 1], ARGV[i])
+                end
+              end
+            end
+            return (#ARGV - 1) / 2
+            """, Long.class);
+
+    /**
+     * KEYS[1] = 일간 키, KEYS[2] = 이관 완료 표시
+     * ARGV[1] = 표시 TTL(초)
+     * <p>
+     * 키 삭제와 완료 표시를 한 번에 (둘 사이에 들어온 증가분이 표시 없이 남지 않도록)
+     */
+    private static final DefaultRedisScript<Long> MARK_FLUSHED = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('SET', KEYS[2], '1', 'EX', ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS[1] = 일간 키, KEYS[2] = 이관 완료 표시
+     * ARGV = (회사, DB 에 이관된 값) 쌍
+     * <p>
+     * 완료 표시가 남아 있을 때만 이관된 값을 일간 키에 다시 더하고 표시를 지운다.
+     * (한 번에 처리되므로 중간에 실패해도 두 번 더해지지 않음)
+     */
+    private static final DefaultRedisScript<Long> RESTORE_FLUSHED = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+              return 0
+            end
+            for i = 1, #ARGV, 2 do
+              redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])
+            end
+            redis.call('DEL', KEYS[2])
+            return 1
+            """, Long.class);
+
     private final StringRedisTemplate stringRedisTemplate;
 
-    private String dailyKey(LocalDate date) {
-        return "rank:company:daily:" + date;
+    static String dailyKey(LocalDate date) {
+        return DAILY_PREFIX + date;
+    }
+
+    static String flushedKey(LocalDate date) {
+        return FLUSHED_PREFIX + date;
+    }
+
+    static String windowKey(int days, LocalDate date) {
+        return "rank:company:window:" + days + "d:" + date;
+    }
+
+    static String windowReadyKey(int days, LocalDate date) {
+        return windowKey(days, date) + ":ready";
     }
 
     /**
-     * 오늘 날짜 기준 특정 회사 점수 +1 증가
+     * 오늘 날짜 기준 특정 회사 점수 +1 증가 (동기)
      * <p>
-     * - ZSet score를 1 증가
-     * - TTL 3일 설정 (배치 이관 후 자동 만료 대비)
+     * 저장 경로에서는 RankingIncrementBuffer 로 모아서 increaseBy 를 쓰고,
+     * 이 메서드는 즉시 반영이 필요한 곳(테스트/운영 보정)용.
      */
     public void increaseToday(String company) {
         if (company == null || company.isBlank()) return;
-        String key = dailyKey(LocalDate.now());
-        // ZSet score 증가 (자동 정렬 유지)
-        stringRedisTemplate.opsForZSet().incrementScore(key, company, 1.0);
-        // 3일 후 만료 (백업 안정성 확보)
-        stringRedisTemplate.expire(key, Duration.ofDays(3));
+        increaseBy(LocalDate.now(), Map.of(company, 1L));
+    }
+
+    /**
+     * 특정 날짜 일간 ZSet 에 회사별 증가량을 한 번에 반영 (스크립트 1회 = round trip 1회)
+     * <p>
+     * - TTL 7일은 키에 TTL 이 없을 때만 설정 (배치 이관 후 자동 만료 대비)
+     * - 오늘자 rolling window(7일/30일)도 같은 스크립트 안에서 갱신
+     * (date 가 어제여도 오늘 window 범위 안이므로 같이 더함)
+     * - 미리 만들어 둔 내일자 window 가 있으면 거기에도 더함 (RollingRankingService.prebuildTomorrow)
+     */
+    public void increaseBy(LocalDate date, Map<String, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        LocalDate today = LocalDate.now();
+
+        List<String> keys = new ArrayList<>();
+        keys.add(dailyKey(date));
+        for (LocalDate windowDate : List.of(today, today.plusDays(1))) {
+            for (int days : ROLLING_WINDOWS) {
+                if (date.isBefore(windowDate.minusDays(days))) continue;
+                keys.add(windowKey(days, windowDate));
+                keys.add(windowReadyKey(days, windowDate));
+            }
+        }
+
+        List<String> args = new ArrayList<>(1 + deltas.size() * 2);
+        args.add(String.valueOf(DAILY_TTL.toSeconds()));
+        deltas.forEach((company, delta) -> {
+            args.add(company);
+            args.add(String.valueOf(delta));
+        });
+        stringRedisTemplate.execute(INCREASE, keys, args.toArray());
     }
 
     /**
@@ -57,19 +192,47 @@ public class RedisRankingService {
      * <p>
      * reverseRangeWithScores:
      * score 높은 순으로 조회
+     * <p>
+     * n 개보다 적으면 ("-", 0) 으로 채운다. (화면 표시용, 비교 / 합산에는 getTodayTop 사용)
      */
     public List<CompanyRankDto> getTodayTopN(int n) {
+        List<CompanyRankDto> list = getTodayTop(n);
+        if (list.isEmpty()) return List.of();
+
+        while (list.size() < n) list.add(new CompanyRankDto(PLACEHOLDER, 0L));
+        return list;
+    }
+
+    /**
+     * 오늘 기준 상위 최대 n개 (빈 자리 채우기 없음)
+     */
+    public List<CompanyRankDto> getTodayTop(int n) {
         String key = dailyKey(LocalDate.now());
         Set<ZSetOperations.TypedTuple<String>> tuples =
                 stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, 0, n - 1);
-        if (tuples == null || tuples.isEmpty()) return List.of();
+        if (tuples == null || tuples.isEmpty()) return new ArrayList<>();
 
-        List<CompanyRankDto> list = tuples.stream()
+        return tuples.stream()
                 .map(t -> new CompanyRankDto(t.getValue(), t.getScore() == null ? 0L : t.getScore().longValue()))
                 .collect(Collectors.toList());
+    }
 
-        while (list.size() < n) list.add(new CompanyRankDto("-", 0L));
-        return list;
+    /**
+     * 특정 날짜 상위 n개 점수 (빈 자리 채우기 없음, 없으면 빈 맵)
+     * <p>
+     * 조회 경로용: ZSET 전체가 아니라 앞의 n개만 읽는다.
+     */
+    public Map<String, Long> topCounts(LocalDate date, int n) {
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                stringRedisTemplate.opsForZSet().reverseRangeWithScores(dailyKey(date), 0, n - 1);
+        if (tuples == null) return Map.of();
+
+        Map<String, Long> map = new HashMap<>();
+        for (var t : tuples) {
+            if (t.getValue() == null) continue;
+            map.put(t.getValue(), t.getScore() == null ? 0L : t.getScore().longValue());
+        }
+        return map;
     }
 
     /**
@@ -94,9 +257,86 @@ public class RedisRankingService {
         return map;
     }
 
-    // 끝난 키는 삭제
+    /**
+     * 특정 날짜의 스코어를 ZSCAN 으로 chunkSize 개씩 나눠 전달 (배치용)
+     * <p>
+     * 전체를 한 번에 메모리에 올리지 않는다. (getAllCounts 대체)
+     * 스캔 도중 키가 바뀌어도 처음부터 있던 회사는 최소 한 번 전달된다. (중복 가능 → 받는 쪽은 멱등 upsert)
+     */
+    public void scanCounts(LocalDate date, int chunkSize, Consumer<Map<String, Integer>> sink) {
+        ScanOptions options = ScanOptions.scanOptions().count(chunkSize).build();
+        Map<String, Integer> chunk = new HashMap<>();
+        try (Cursor<ZSetOperations.TypedTuple<String>> cursor =
+                     stringRedisTemplate.opsForZSet().scan(dailyKey(date), options)) {
+            while (cursor.hasNext()) {
+                ZSetOperations.TypedTuple<String> t = cursor.next();
+                if (t.getValue() == null) continue;
+                chunk.put(t.getValue(), t.getScore() == null ? 0 : (int) Math.floor(t.getScore()));
+                if (chunk.size() >= chunkSize) {
+                    sink.accept(chunk);
+                    chunk = new HashMap<>();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) sink.accept(chunk);
+    }
+
+    /**
+     * 아직 DB 로 이관되지 않은(= Redis 에 남아 있는) before 이전 날짜들, 오래된 순
+     * <p>
+     * KEYS 대신 SCAN 으로 훑는다. (야간 / 기동 시에만 호출)
+     */
+    public List<LocalDate> pendingDates(LocalDate before) {
+        ScanOptions options = ScanOptions.scanOptions().match(DAILY_PREFIX + "*").count(1000).build();
+        List<LocalDate> dates = new ArrayList<>();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                try {
+                    LocalDate date = LocalDate.parse(key.substring(DAILY_PREFIX.length()));
+                    if (date.isBefore(before) && !dates.contains(date)) dates.add(date);
+                } catch (DateTimeParseException ignored) {
+                    // 다른 형식의 키는 무시
+                }
+            }
+        }
+        dates.sort(null);
+        return dates;
+    }
+
+    /**
+     * 이관이 끝난 일간 키 삭제 + 이관 완료 표시
+     * <p>
+     * 이후 늦게 들어온 증가분은 새 일간 키에 쌓이고 (조회 시 DB 값에 더해짐),
+     * 다음 이관 때 restoreFlushed 로 이관된 값과 합쳐 다시 덮어쓴다.
+     */
     public void delete(LocalDate date) {
-        stringRedisTemplate.delete(dailyKey(date));
+        stringRedisTemplate.execute(MARK_FLUSHED, List.of(dailyKey(date), flushedKey(date)),
+                String.valueOf(FLUSHED_TTL.toSeconds()));
+    }
+
+    /**
+     * 이미 한 번 DB 로 이관된 날짜인지
+     */
+    public boolean isFlushed(LocalDate date) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(flushedKey(date)));
+    }
+
+    /**
+     * 이미 이관된 날짜의 DB 값을 일간 키에 다시 더해 하루치 전체로 되돌림
+     * <p>
+     * 이후 일반 이관(덮어쓰기 upsert)이 그대로 맞는 값을 쓰게 된다.
+     * 완료 표시가 없으면(이미 되돌렸거나 이관 전) 아무것도 하지 않고 false.
+     */
+    public boolean restoreFlushed(LocalDate date, Map<String, Long> persisted) {
+        List<String> args = new ArrayList<>(persisted.size() * 2);
+        persisted.forEach((company, cnt) -> {
+            args.add(company);
+            args.add(String.valueOf(cnt));
+        });
+        Long restored = stringRedisTemplate.execute(RESTORE_FLUSHED,
+                List.of(dailyKey(date), flushedKey(date)), args.toArray());
+        return restored != null && restored == 1L;
     }
 
 
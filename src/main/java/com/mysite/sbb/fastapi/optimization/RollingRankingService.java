@@ -0,0 +1,191 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import com.mysite.sbb.util.JobLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 최근 N일(오늘 포함) rolling window 회사 랭킹
+ * <p>
+ * 목적:
+ * - 주간/월간 랭킹에 오늘 실시간 집계(Redis 일간 ZSet)까지 반영
+ * - 조회는 ZREVRANGE 한 번 (O(log n + k)), DB SUM 은 window 당 하루 한 번
+ * <p>
+ * 구조:
+ * rank:company:window:{N}d:{오늘} = company_rank_daily[오늘-N, 오늘] 합계
+ * + 아직 DB 로 이관되지 않은 Redis 일간 키 합계
+ * <p>
+ * - 처음 조회될 때 위 합계로 만들고 ready 표시 (스크립트 한 번이라 중간 증가분이 빠지거나 겹치지 않음)
+ * - 이후 증가분은 RankingIncrementBuffer → RedisRankingService.increaseBy 가 window 에도 바로 더함
+ * - 키에 날짜가 들어가므로 자정이 지나면 자동으로 새 window 를 만든다 (어제 window 는 TTL 로 정리)
+ * - 전날 데이터가 DB 로 이관되면(RankingFlushBatch) rebuild 로 제자리에서 다시 만든다
+ * <p>
+ * 캐시 교체 시점 DB 부하 (stampede 방지):
+ * - refresh-ahead: 자정 전에 내일자 window 를 미리 만들고, 그 뒤 증가분은 increaseBy 가 내일 window 에도 더함
+ * - single-flight: window 를 만드는 건 JobLease 를 잡은 한 노드의 한 요청뿐
+ * - stale-while-revalidate: 리스를 못 잡은 요청은 기다리지 않고 어제자 window 로 응답
+ * - rebuild 는 DEL + 채우기가 스크립트 한 번이라 조회 중에 빈 window 가 보이지 않음
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollingRankingService {
+
+    private static final Duration WINDOW_TTL = Duration.ofDays(2);
+    static final String LEASE_PREFIX = "rank-window:";
+    private static final Duration BUILD_LEASE_TTL = Duration.ofMinutes(1);
+    // 어제 window 도 없을 때(첫 배포 등) 다른 노드의 빌드를 기다리는 최대 시간
+    private static final long BUILD_WAIT_MS = 2_000;
+
+    /**
+     * KEYS[1] = window, KEYS[2] = ready, KEYS[3..] = 아직 남아 있는 일간 키
+     * ARGV[1] = TTL(초), ARGV[2..] = (company, DB 합계) 쌍
+     */
+    private static final DefaultRedisScript<Long> BUILD = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            for i = 2, #ARGV, 2 do
+              redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])
+            end
+            for i = 3, #KEYS do
+              if redis.call('EXISTS', KEYS[i]) == 1 then
+                redis.call('ZUNIONSTORE', KEYS[1], 2, KEYS[1], KEYS[i])
+              end
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            redis.call('SET', KEYS[2], '1', 'EX', ARGV[1])
+            return redis.call('ZCARD', KEYS[1])
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CompanyRankDailyRepository companyRankDailyRepository;
+    private final JobLease jobLease;
+
+    // 인스턴스 식별자 (리스 owner)
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * 최근 days 일 + 오늘 상위 n개 (빈 자리 채우기는 호출 측에서)
+     */
+    public List<CompanyRankDto> topN(int days, int n) {
+        String window = resolve(days, LocalDate.now());
+
+        Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                .reverseRangeWithScores(window, 0, n - 1);
+        if (tuples == null) return List.of();
+
+        List<CompanyRankDto> list = new ArrayList<>(tuples.size());
+        for (var t : tuples) {
+            if (t.getValue() == null) continue;
+            list.add(new CompanyRankDto(t.getValue(), t.getScore() == null ? 0L : t.getScore().longValue()));
+        }
+        return list;
+    }
+
+    /**
+     * 오늘자 window 를 DB 기준으로 제자리에서 다시 만든다.
+     * (전날 집계가 DB 로 이관된 직후 RankingFlushBatch 가 리스를 잡은 채로 호출)
+     */
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        for (int days : RedisRankingService.ROLLING_WINDOWS) {
+            build(days, today);
+        }
+    }
+
+    /**
+     * refresh-ahead: 자정 전에 내일자 window 를 미리 만든다. (한 노드만)
+     * <p>
+     * 만든 뒤 들어오는 오늘 증가분은 RedisRankingService.increaseBy 가 내일 window 에도 더하므로
+     * 자정이 지나도 빌드 없이 바로 내일(=새 오늘) window 를 읽는다.
+     */
+    @Scheduled(cron = "0 55 23 * * *", zone = "Asia/Seoul")
+    public void prebuildTomorrow() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        for (int days : RedisRankingService.ROLLING_WINDOWS) {
+            buildUnderLease(days, tomorrow);
+        }
+    }
+
+    /**
+     * 조회할 window 키
+     * <p>
+     * 오늘자가 없으면 리스를 잡은 요청만 만들고, 나머지는 어제자 window(stale)로 응답한다.
+     */
+    private String resolve(int days, LocalDate today) {
+        String window = RedisRankingService.windowKey(days, today);
+        if (isReady(days, today)) return window;
+
+        if (buildUnderLease(days, today)) return window;
+
+        LocalDate yesterday = today.minusDays(1);
+        if (isReady(days, yesterday)) {
+            log.debug("rolling window {}d:{} building elsewhere, serving {}", days, today, yesterday);
+            return RedisRankingService.windowKey(days, yesterday);
+        }
+
+        // 어제 window 도 없으면 다른 노드의 빌드를 잠깐 기다림 (그래도 없으면 빈 window 를 읽음)
+        long deadline = System.currentTimeMillis() + BUILD_WAIT_MS;
+        while (!isReady(days, today) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return window;
+    }
+
+    /**
+     * 리스를 잡으면 (아직 없을 때만) 만들고 true, 다른 노드 / 요청이 만드는 중이면 false
+     */
+    private boolean buildUnderLease(int days, LocalDate date) {
+        String lease = LEASE_PREFIX + days + "d:" + date;
+        if (!jobLease.tryAcquire(lease, owner, BUILD_LEASE_TTL)) return false;
+        try {
+            if (!isReady(days, date)) build(days, date);
+            return true;
+        } finally {
+            jobLease.release(lease, owner);
+        }
+    }
+
+    private boolean isReady(int days, LocalDate date) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(RedisRankingService.windowReadyKey(days, date)));
+    }
+
+    private void build(int days, LocalDate date) {
+        LocalDate start = date.minusDays(days);
+        List<Object[]> persisted = companyRankDailyRepository.sumRange(start, date.plusDays(1));
+
+        List<String> keys = new ArrayList<>();
+        keys.add(RedisRankingService.windowKey(days, date));
+        keys.add(RedisRankingService.windowReadyKey(days, date));
+        for (LocalDate d = start; !d.isAfter(date); d = d.plusDays(1)) {
+            keys.add(RedisRankingService.dailyKey(d));
+        }
+
+        List<String> args = new ArrayList<>(1 + persisted.size() * 2);
+        args.add(String.valueOf(WINDOW_TTL.toSeconds()));
+        for (Object[] row : persisted) {
+            args.add((String) row[0]);
+            args.add(String.valueOf(((Number) row[1]).longValue()));
+        }
+
+        Long size = stringRedisTemplate.execute(BUILD, keys, args.toArray());
+        log.info("rolling window built: days={}, date={}, companies={}", days, date, size);
+    }
+}
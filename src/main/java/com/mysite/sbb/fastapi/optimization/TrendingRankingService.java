@@ -0,0 +1,127 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 시간 감쇠(지수) "지금 뜨는" 회사 랭킹
+ * <p>
+ * 목적:
+ * - 일간 ZSet 은 단순 누적이라 새벽에 몰린 회사가 지금 급증하는 회사보다 위에 있음
+ * - 최근 언급일수록 가중치를 크게 (half-life 마다 가중치 1/2)
+ * <p>
+ * 구현 (forward decay):
+ * - 모든 점수를 epoch 시작 시점 기준으로 저장: 증가량 × 2^((now - epoch) / halfLife)
+ * → 감쇠를 위해 기존 점수를 다시 계산할 필요가 없고, 갱신/조회 모두 O(log n)
+ * - 조회 시 2^(-(now - epoch) / halfLife) 를 곱하면 현재 시점 감쇠 점수
+ * - 가중치가 너무 커지지 않도록 epoch 는 half-life 24배마다 새 키로 넘어가고,
+ * 새 키에 처음 쓸 때 이전 키를 한 번만 축소 복사(ZUNIONSTORE WEIGHTS) + 거의 0 인 회사 정리
+ * <p>
+ * Key 전략:
+ * rank:company:trending:{epoch 번호}
+ */
+@Service
+public class TrendingRankingService {
+
+    static final int HALF_LIVES_PER_EPOCH = 24;
+    private static final double MIN_SCORE = 0.01;
+
+    /**
+     * KEYS[1] = 현재 epoch 키, KEYS[2] = 이전 epoch 키
+     * ARGV[1] = 이전 → 현재 epoch 축소 비율, ARGV[2] = TTL(초), ARGV[3] = 정리 기준 점수
+     * ARGV[4..] = (회사, 가중치 적용된 증가량) 쌍
+     */
+    private static final DefaultRedisScript<Long> INCREASE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 and redis.call('EXISTS', KEYS[2]) == 1 then
+              redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[2], 'WEIGHTS', ARGV[1])
+              redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])
+            end
+            for i = 4, #ARGV, 2 do
+              redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return (#ARGV - 3) / 2
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Clock clock;
+    private final long halfLifeMs;
+    private final long epochMs;
+
+    @Autowired
+    public TrendingRankingService(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${ranking.trending.half-life-minutes:60}") long halfLifeMinutes
+    ) {
+        this(stringRedisTemplate, Clock.systemDefaultZone(), halfLifeMinutes);
+    }
+
+    TrendingRankingService(StringRedisTemplate stringRedisTemplate, Clock clock, long halfLifeMinutes) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clock = clock;
+        this.halfLifeMs = Duration.ofMinutes(halfLifeMinutes).toMillis();
+        this.epochMs = halfLifeMs * HALF_LIVES_PER_EPOCH;
+    }
+
+    static String trendingKey(long epoch) {
+        return "rank:company:trending:" + epoch;
+    }
+
+    /**
+     * 지금 시점 기준 회사별 증가량 반영 (RankingIncrementBuffer flush 에서 호출)
+     */
+    public void increaseBy(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        long now = clock.millis();
+        long epoch = now / epochMs;
+        double weight = Math.pow(2, (double) (now - epoch * epochMs) / halfLifeMs);
+
+        List<String> args = new ArrayList<>(3 + deltas.size() * 2);
+        args.add(String.valueOf(Math.pow(2, -HALF_LIVES_PER_EPOCH)));
+        args.add(String.valueOf(Duration.ofMillis(epochMs * 2).toSeconds()));
+        args.add(String.valueOf(MIN_SCORE));
+        deltas.forEach((company, delta) -> {
+            args.add(company);
+            args.add(String.valueOf(delta * weight));
+        });
+
+        stringRedisTemplate.execute(INCREASE, List.of(trendingKey(epoch), trendingKey(epoch - 1)), args.toArray());
+    }
+
+    /**
+     * 현재 감쇠 점수 기준 상위 n개 (점수는 반올림, 빈 자리 채우기는 호출 측에서)
+     * <p>
+     * epoch 가 막 넘어가 아직 새 키에 쓰기가 없으면 이전 키를 읽는다.
+     */
+    public List<CompanyRankDto> topN(int n) {
+        long now = clock.millis();
+        long epoch = now / epochMs;
+
+        for (long e = epoch; e >= epoch - 1; e--) {
+            Set<ZSetOperations.TypedTuple<String>> tuples =
+                    stringRedisTemplate.opsForZSet().reverseRangeWithScores(trendingKey(e), 0, n - 1);
+            if (tuples == null || tuples.isEmpty()) continue;
+
+            double decay = Math.pow(2, -(double) (now - e * epochMs) / halfLifeMs);
+            List<CompanyRankDto> list = new ArrayList<>(tuples.size());
+            for (var t : tuples) {
+                if (t.getValue() == null || t.getScore() == null) continue;
+                list.add(new CompanyRankDto(t.getValue(), Math.round(t.getScore() * decay)));
+            }
+            return list;
+        }
+        return List.of();
+    }
+}
@@ -3,6 +3,7 @@ package com.mysite.sbb.mail;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import com.mysite.sbb.util.IdempotencyGate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.RedisSystemException;
@@ -15,7 +16,6 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
  * - Consumer Group(mail-group)으로 다중 워커 확장 가능
  * - 처리 중 락(mail:processing:{jobId})으로 중복 발송 방지
  * - 성공 시 sent 마킹(mail:sent:{jobId})으로 idempotency 보장
+ * (확인/락/마킹은 IdempotencyGate 로 전이마다 한 번의 원자적 호출)
  * <p>
  * 실패 처리:
  * - 1~5회까지 지수적 backoff로 재시도
@@ -42,10 +43,13 @@ public class MailWorker {
     private static final String CONSUMER = "mail-worker-1";
     private static final String DELAY_ZSET = "mail:delay";
     private static final String DLQ_STREAM = "mail:dlq";
+    private static final Duration PROCESSING_TTL = Duration.ofMinutes(2);
+    private static final Duration SENT_TTL = Duration.ofDays(7);
 
     private final RedisTemplate<String, String> redisTemplate;
     private final MailService mailService;
     private final ObjectMapper objectMapper;
+    private final IdempotencyGate idempotencyGate;
 
     @PostConstruct
     public void init() {
@@ -132,15 +136,8 @@ public class MailWorker {
         String sentKey = "mail:sent:" + jobId;
         String processingKey = "mail:processing:" + jobId;
 
-        if (redisTemplate.hasKey(sentKey)) {
-            redisTemplate.opsForStream().acknowledge(STREAM, GROUP, record.getId());
-            return;
-        }
-
-        Boolean locked = redisTemplate.opsForValue()
-                .setIfAbsent(processingKey, "1", 2, TimeUnit.MINUTES);
-
-        if (Boolean.FALSE.equals(locked)) {
+        // 이미 발송했거나 다른 워커가 처리 중이면 ACK 후 스킵
+        if (idempotencyGate.tryAcquire(sentKey, processingKey, PROCESSING_TTL) != IdempotencyGate.Status.ACQUIRED) {
             redisTemplate.opsForStream().acknowledge(STREAM, GROUP, record.getId());
             return;
         }
@@ -149,11 +146,10 @@ public class MailWorker {
             boolean signup = type.equals(MailType.SIGNUP_VERIFY.name());
             mailService.sendMail(email, signup);
 
-            redisTemplate.opsForValue().set(sentKey, "1", 7, TimeUnit.DAYS);
-            redisTemplate.delete(processingKey);
+            idempotencyGate.complete(sentKey, processingKey, SENT_TTL);
             redisTemplate.opsForStream().acknowledge(STREAM, GROUP, record.getId());
         } catch (Exception e) {
-            redisTemplate.delete(processingKey);
+            idempotencyGate.release(processingKey);
             onFailure(jobId, email, type, retry, createdAt, record, e);
         }
     }
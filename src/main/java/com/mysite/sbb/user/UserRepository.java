@@ -4,6 +4,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<SiteUser, Long> {
@@ -17,6 +19,8 @@ public interface UserRepository extends JpaRepository<SiteUser, Long> {
 
     SiteUser findByUsername(String username);
 
+    List<SiteUser> findByUsernameIn(Collection<String> usernames);
+
 
     SiteUser findByNameAndBirthDate(String name, java.sql.Date birthDate);
 
@@ -0,0 +1,49 @@
+package com.mysite.sbb.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * If-None-Match 조건부 GET 응답 유틸
+ * <p>
+ * ETag 는 ResourceVersions 의 버전(+ 날짜, 사용자 등 응답을 바꾸는 값)으로 만든다.
+ * 클라이언트가 보낸 ETag 와 같으면 body 를 만들지 않고 304 를 돌려준다.
+ * (Spring 의 ShallowEtagHeaderFilter 와 달리 조회 자체를 건너뜀)
+ * <p>
+ * Cache-Control 도 같이 내려서 Nginx proxy_cache 가 재검증(proxy_cache_revalidate)에 쓸 수 있게 한다.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    public static <T> ResponseEntity<T> respond(String ifNoneMatch, String etag, CacheControl cacheControl,
+                                                Supplier<T> body) {
+        String quoted = quote(etag);
+        if (matches(ifNoneMatch, quoted)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(quoted).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(quoted).cacheControl(cacheControl).body(body.get());
+    }
+
+    /**
+     * If-None-Match 헤더(콤마 구분, W/ 약한 비교, *) 와 비교
+     */
+    static boolean matches(String ifNoneMatch, String quotedEtag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(quotedEtag)) return true;
+        }
+        return false;
+    }
+
+    private static String quote(String etag) {
+        return etag.startsWith("\"") ? etag : "\"" + etag + "\"";
+    }
+}
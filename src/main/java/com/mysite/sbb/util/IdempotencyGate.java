@@ -0,0 +1,71 @@
+package com.mysite.sbb.util;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 메시지 소비자용 멱등성 게이트
+ * <p>
+ * 목적:
+ * - "이미 처리됐나? → 처리 락 획득 → 처리완료 마킹 + 락 해제" 를
+ * 상태 전이마다 한 번의 원자적 호출로 처리한다.
+ * - get / setIfAbsent / set / delete 를 따로 호출할 때 생기는
+ * 왕복 비용과 그 사이의 경쟁 구간을 없애기 위함.
+ * <p>
+ * 키:
+ * - doneKey : 처리완료 마킹 (예: analysis:done:processed:{id}, mail:sent:{jobId})
+ * - lockKey : 처리 중 락 (예: analysis:done:lock:{id}, mail:processing:{jobId})
+ * <p>
+ * 구현:
+ * - 운영: Redis Lua 스크립트 (RedisIdempotencyGate)
+ * - 테스트: 인메모리 (LocalIdempotencyGate)
+ */
+public interface IdempotencyGate {
+
+    enum Status {
+        /** 락 획득 → 호출 측이 처리 후 complete 또는 release 해야 함 */
+        ACQUIRED,
+        /** 이미 처리완료 */
+        ALREADY_DONE,
+        /** 다른 소비자가 처리 중 */
+        IN_FLIGHT
+    }
+
+    /**
+     * doneKey 가 있으면 ALREADY_DONE, 없으면 lockKey 를 lockTtl 로 잡아 ACQUIRED, 이미 잡혀 있으면 IN_FLIGHT
+     */
+    default Status tryAcquire(String doneKey, String lockKey, Duration lockTtl) {
+        return tryAcquireAll(List.of(doneKey), List.of(lockKey), lockTtl).get(0);
+    }
+
+    /**
+     * 처리완료 마킹(doneTtl) + 락 해제를 원자적으로 수행
+     */
+    default void complete(String doneKey, String lockKey, Duration doneTtl) {
+        completeAll(List.of(doneKey), List.of(lockKey), doneTtl);
+    }
+
+    /**
+     * 처리 실패 시 락만 해제 (재처리 가능하도록)
+     */
+    default void release(String lockKey) {
+        releaseAll(List.of(lockKey));
+    }
+
+    /**
+     * 배치 버전: doneKeys[i] / lockKeys[i] 쌍마다 tryAcquire 와 같은 판정을 한 번의 호출로 수행
+     *
+     * @return 입력 순서와 같은 순서의 판정 결과
+     */
+    List<Status> tryAcquireAll(List<String> doneKeys, List<String> lockKeys, Duration lockTtl);
+
+    /**
+     * 배치 버전 complete
+     */
+    void completeAll(List<String> doneKeys, List<String> lockKeys, Duration doneTtl);
+
+    /**
+     * 배치 버전 release
+     */
+    void releaseAll(List<String> lockKeys);
+}
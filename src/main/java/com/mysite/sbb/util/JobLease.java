@@ -0,0 +1,35 @@
+package com.mysite.sbb.util;
+
+import java.time.Duration;
+
+/**
+ * 여러 인스턴스 중 한 곳에서만 도는 작업용 리스(lease)
+ * <p>
+ * 목적:
+ * - 스케일 아웃 후에도 야간 배치 같은 단일 작업이 한 노드에서만 실행되도록 함
+ * - 리스는 TTL 로 만료되므로 보유 노드가 죽어도 다음 실행에서 다른 노드가 가져간다.
+ * <p>
+ * owner 는 인스턴스마다 다른 값(예: UUID)을 쓰고,
+ * renew / release 는 자기 owner 로 잡은 리스에만 적용된다.
+ * <p>
+ * 구현:
+ * - 운영: Redis SET NX PX + Lua 비교 (RedisJobLease)
+ * - 테스트: 인메모리 (LocalJobLease)
+ */
+public interface JobLease {
+
+    /**
+     * 비어 있으면 ttl 동안 리스 획득
+     */
+    boolean tryAcquire(String name, String owner, Duration ttl);
+
+    /**
+     * 아직 내 리스면 ttl 연장, 이미 잃었으면 false
+     */
+    boolean renew(String name, String owner, Duration ttl);
+
+    /**
+     * 내 리스일 때만 해제
+     */
+    void release(String name, String owner);
+}
@@ -0,0 +1,64 @@
+package com.mysite.sbb.util;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 테스트용 인메모리 멱등성 게이트
+ * <p>
+ * Redis 없이 단일 JVM 안에서 같은 상태 전이를 재현한다.
+ * 키별 만료 시각(ms)을 들고 있다가 조회 시점에 만료 여부를 판단한다.
+ */
+@Component
+@Profile("test")
+public class LocalIdempotencyGate implements IdempotencyGate {
+
+    private final Map<String, Long> expiresAt = new HashMap<>();
+
+    @Override
+    public synchronized List<Status> tryAcquireAll(List<String> doneKeys, List<String> lockKeys, Duration lockTtl) {
+        long now = System.currentTimeMillis();
+        List<Status> result = new ArrayList<>(doneKeys.size());
+        for (int i = 0; i < doneKeys.size(); i++) {
+            if (alive(doneKeys.get(i), now)) {
+                result.add(Status.ALREADY_DONE);
+            } else if (alive(lockKeys.get(i), now)) {
+                result.add(Status.IN_FLIGHT);
+            } else {
+                expiresAt.put(lockKeys.get(i), now + lockTtl.toMillis());
+                result.add(Status.ACQUIRED);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void completeAll(List<String> doneKeys, List<String> lockKeys, Duration doneTtl) {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < doneKeys.size(); i++) {
+            expiresAt.put(doneKeys.get(i), now + doneTtl.toMillis());
+            expiresAt.remove(lockKeys.get(i));
+        }
+    }
+
+    @Override
+    public synchronized void releaseAll(List<String> lockKeys) {
+        lockKeys.forEach(expiresAt::remove);
+    }
+
+    private boolean alive(String key, long now) {
+        Long until = expiresAt.get(key);
+        if (until == null) return false;
+        if (until <= now) {
+            expiresAt.remove(key);
+            return false;
+        }
+        return true;
+    }
+}
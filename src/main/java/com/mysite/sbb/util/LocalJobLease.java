@@ -0,0 +1,47 @@
+package com.mysite.sbb.util;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 테스트용 인메모리 작업 리스
+ * <p>
+ * 이름별 (owner, 만료 시각) 을 들고 있다가 조회 시점에 만료 여부를 판단한다.
+ */
+@Component
+@Profile("test")
+public class LocalJobLease implements JobLease {
+
+    private record Holder(String owner, long expiresAt) {
+    }
+
+    private final Map<String, Holder> leases = new HashMap<>();
+
+    @Override
+    public synchronized boolean tryAcquire(String name, String owner, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Holder holder = leases.get(name);
+        if (holder != null && holder.expiresAt() > now) return false;
+        leases.put(name, new Holder(owner, now + ttl.toMillis()));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean renew(String name, String owner, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Holder holder = leases.get(name);
+        if (holder == null || holder.expiresAt() <= now || !holder.owner().equals(owner)) return false;
+        leases.put(name, new Holder(owner, now + ttl.toMillis()));
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String name, String owner) {
+        Holder holder = leases.get(name);
+        if (holder != null && holder.owner().equals(owner)) leases.remove(name);
+    }
+}
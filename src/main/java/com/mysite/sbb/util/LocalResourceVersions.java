@@ -0,0 +1,27 @@
+package com.mysite.sbb.util;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 테스트용 인메모리 리소스 버전
+ */
+@Component
+@Profile("test")
+public class LocalResourceVersions implements ResourceVersions {
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public String current(String resource) {
+        return String.valueOf(versions.getOrDefault(resource, 0L));
+    }
+
+    @Override
+    public void increment(String resource) {
+        versions.merge(resource, 1L, Long::sum);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mysite.sbb.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis Lua 스크립트 기반 멱등성 게이트
+ * <p>
+ * KEYS 는 (doneKey, lockKey) 쌍을 순서대로 펼친 목록이다.
+ * 배치 소비자도 상태 전이마다 EVAL 한 번이면 된다.
+ * (여러 키를 한 스크립트에서 다루므로 단일 Redis 노드 기준)
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class RedisIdempotencyGate implements IdempotencyGate {
+
+    /**
+     * ARGV[1] = 락 TTL(ms)
+     * 반환: 쌍마다 0(ACQUIRED) / 1(ALREADY_DONE) / 2(IN_FLIGHT)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> ACQUIRE = new DefaultRedisScript<>("""
+            local out = {}
+            for i = 1, #KEYS, 2 do
+              if redis.call('EXISTS', KEYS[i]) == 1 then
+                out[#out + 1] = 1
+              elseif redis.call('SET', KEYS[i + 1], '1', 'NX', 'PX', ARGV[1]) then
+                out[#out + 1] = 0
+              else
+                out[#out + 1] = 2
+              end
+            end
+            return out
+            """, List.class);
+
+    /**
+     * ARGV[1] = 처리완료 TTL(ms)
+     */
+    private static final DefaultRedisScript<Long> COMPLETE = new DefaultRedisScript<>("""
+            for i = 1, #KEYS, 2 do
+              redis.call('SET', KEYS[i], '1', 'PX', ARGV[1])
+              redis.call('DEL', KEYS[i + 1])
+            end
+            return #KEYS / 2
+            """, Long.class);
+
+    private static final Status[] CODES = {Status.ACQUIRED, Status.ALREADY_DONE, Status.IN_FLIGHT};
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public List<Status> tryAcquireAll(List<String> doneKeys, List<String> lockKeys, Duration lockTtl) {
+        if (doneKeys.isEmpty()) return List.of();
+
+        List<?> codes = stringRedisTemplate.execute(
+                ACQUIRE, interleave(doneKeys, lockKeys), String.valueOf(lockTtl.toMillis()));
+
+        List<Status> result = new ArrayList<>(doneKeys.size());
+        for (int i = 0; i < doneKeys.size(); i++) {
+            result.add(CODES[((Number) codes.get(i)).intValue()]);
+        }
+        return result;
+    }
+
+    @Override
+    public void completeAll(List<String> doneKeys, List<String> lockKeys, Duration doneTtl) {
+        if (doneKeys.isEmpty()) return;
+        stringRedisTemplate.execute(COMPLETE, interleave(doneKeys, lockKeys), String.valueOf(doneTtl.toMillis()));
+    }
+
+    @Override
+    public void releaseAll(List<String> lockKeys) {
+        if (lockKeys.isEmpty()) return;
+        stringRedisTemplate.delete(lockKeys);
+    }
+
+    private static List<String> interleave(List<String> doneKeys, List<String> lockKeys) {
+        if (doneKeys.size() != lockKeys.size()) {
+            throw new IllegalArgumentException("doneKeys / lockKeys 크기가 다릅니다.");
+        }
+        List<String> keys = new ArrayList<>(doneKeys.size() * 2);
+        for (int i = 0; i < doneKeys.size(); i++) {
+            keys.add(doneKeys.get(i));
+            keys.add(lockKeys.get(i));
+        }
+        return keys;
+    }
+}
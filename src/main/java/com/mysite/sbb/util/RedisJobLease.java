@@ -0,0 +1,63 @@
+package com.mysite.sbb.util;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis 기반 작업 리스
+ * <p>
+ * 키: lease:{name} = owner (PX ttl)
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class RedisJobLease implements JobLease {
+
+    /**
+     * ARGV[1] = owner, ARGV[2] = TTL(ms)
+     */
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * ARGV[1] = owner
+     */
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private static String key(String name) {
+        return "lease:" + name;
+    }
+
+    @Override
+    public boolean tryAcquire(String name, String owner, Duration ttl) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key(name), owner, ttl));
+    }
+
+    @Override
+    public boolean renew(String name, String owner, Duration ttl) {
+        Long renewed = stringRedisTemplate.execute(RENEW, List.of(key(name)), owner, String.valueOf(ttl.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    @Override
+    public void release(String name, String owner) {
+        stringRedisTemplate.execute(RELEASE, List.of(key(name)), owner);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mysite.sbb.util;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis 기반 리소스 버전
+ * <p>
+ * - 버전: version:{resource} (INCR)
+ * - 조회는 인스턴스 로컬 캐시에서, 캐시가 없거나 MAX_AGE_MS 가 지났을 때만 GET
+ * - 버전을 올리면 resource-version 채널로 알리고, 받은 인스턴스는 로컬 캐시를 버린다.
+ * (알림이 유실돼도 MAX_AGE_MS 안에 따라잡음)
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisResourceVersions implements ResourceVersions {
+
+    static final String CHANNEL = "resource-version";
+    private static final long MAX_AGE_MS = 30_000L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private record Cached(String version, long loadedAt) {
+    }
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+
+    private static String key(String resource) {
+        return "version:" + resource;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> cache.remove(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL)
+        );
+    }
+
+    @Override
+    public String current(String resource) {
+        long now = System.currentTimeMillis();
+        Cached cached = cache.get(resource);
+        if (cached != null && now - cached.loadedAt() < MAX_AGE_MS) return cached.version();
+
+        String version = stringRedisTemplate.opsForValue().get(key(resource));
+        if (version == null) version = "0";
+        cache.put(resource, new Cached(version, now));
+        return version;
+    }
+
+    @Override
+    public void increment(String resource) {
+        try {
+            Long version = stringRedisTemplate.opsForValue().increment(key(resource));
+            cache.put(resource, new Cached(String.valueOf(version), System.currentTimeMillis()));
+            stringRedisTemplate.convertAndSend(CHANNEL, resource);
+        } catch (Exception e) {
+            // 버전을 못 올리면 이 인스턴스라도 다음 조회에서 다시 읽도록
+            cache.remove(resource);
+            log.warn("[version] increment failed resource={} msg={}", resource, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.mysite.sbb.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 읽기 위주 리소스의 버전 번호 (ETag 용)
+ * <p>
+ * 목적:
+ * - 쓰기 쪽(랭킹 반영, 소개글 수정, 기사 저장, 댓글 등록 ...)이 리소스 버전만 올리고
+ * - 조회 쪽은 If-None-Match 가 현재 버전과 같으면 DB / Redis 조회 없이 304 로 응답 (ConditionalGet)
+ * <p>
+ * 버전은 인스턴스 간에 공유되고, 조회 시에는 인스턴스 로컬 값을 쓴다.
+ * <p>
+ * 구현:
+ * - 운영: Redis INCR + Pub/Sub 무효화 (RedisResourceVersions)
+ * - 테스트: 인메모리 (LocalResourceVersions)
+ */
+public interface ResourceVersions {
+
+    String RANKING = "ranking";
+    String INFO = "info";
+
+    static String companyPosts(String company) {
+        return "company-posts:" + company;
+    }
+
+    static String comments(String company) {
+        return "comments:" + company;
+    }
+
+    /**
+     * 현재 버전 (한 번도 안 올렸으면 "0")
+     */
+    String current(String resource);
+
+    /**
+     * 바로 버전 증가
+     */
+    void increment(String resource);
+
+    /**
+     * 버전 증가. 트랜잭션 안이면 커밋된 뒤에 올린다.
+     * <p>
+     * 커밋 전에 올리면 그 사이 조회가 이전 데이터를 새 ETag 로 캐시할 수 있기 때문.
+     */
+    default void bump(String resource) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(resource);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(resource);
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.mysite.sbb.util;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 뉴스 URL 정규화 + 고정 길이 해시 유틸
+ * <p>
+ * 목적:
+ * - 사실상 같은 기사인데 URL 문자열만 다른 경우를 같은 캐시 키로 취급
+ * (추적 파라미터, #fragment, m./www. 호스트, 끝 슬래시, http/https 차이)
+ * - news_articles 조회를 긴 VARCHAR 비교 대신 CHAR(64) 인덱스 조회로 처리
+ * <p>
+ * 정규화 규칙:
+ * 1. scheme 은 https 로 통일, host 소문자 + www./m./mobile. 접두어 제거, 기본 포트 제거
+ * 2. path 끝 슬래시 제거 (루트 제외)
+ * 3. utm_* 및 광고/공유 추적 파라미터 제거, 나머지 파라미터는 이름순 정렬
+ * 4. fragment 제거
+ * <p>
+ * 파싱할 수 없는 값은 trim 만 한 원문을 그대로 사용한다.
+ */
+public final class UrlCanonicalizer {
+
+    private static final Set<String> TRACKING_PARAMS = Set.of(
+            "fbclid", "gclid", "dclid", "msclkid", "yclid", "igshid",
+            "mc_cid", "mc_eid", "_ga", "_gl", "ref_src", "cmpid", "ocid"
+    );
+
+    private static final List<String> HOST_PREFIXES = List.of("www.", "m.", "mobile.");
+
+    private UrlCanonicalizer() {
+    }
+
+    public static String canonicalize(String url) {
+        if (url == null) return null;
+        String trimmed = url.trim();
+
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (Exception e) {
+            return trimmed;
+        }
+        if (uri.getHost() == null) return trimmed;
+
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        for (String prefix : HOST_PREFIXES) {
+            if (host.startsWith(prefix) && host.length() > prefix.length()) {
+                host = host.substring(prefix.length());
+                break;
+            }
+        }
+
+        int port = uri.getPort();
+        boolean defaultPort = port == -1 || port == 80 || port == 443;
+
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) path = "/";
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        StringBuilder sb = new StringBuilder("https://").append(host);
+        if (!defaultPort) sb.append(':').append(port);
+        sb.append(path);
+
+        String query = canonicalQuery(uri.getRawQuery());
+        if (!query.isEmpty()) sb.append('?').append(query);
+
+        return sb.toString();
+    }
+
+    /**
+     * 정규화된 URL의 SHA-256 (hex 64자)
+     */
+    public static String hash(String url) {
+        String canonical = canonicalize(url);
+        if (canonical == null) return null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 미지원 JVM", e);
+        }
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return "";
+
+        List<String> params = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) continue;
+            String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+            if (name.startsWith("utm_") || TRACKING_PARAMS.contains(name)) continue;
+            params.add(param);
+        }
+        params.sort(null);
+        return String.join("&", params);
+    }
+}
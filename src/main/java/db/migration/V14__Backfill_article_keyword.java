@@ -0,0 +1,83 @@
+package db.migration;
+
+import com.mysite.sbb.fastapi.ArticleKeywords;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기존 news_articles.keywords_json → article_keyword 백필 (V10 에서 만든 역색인)
+ * <p>
+ * 키워드 정규화(ArticleKeywords)는 SQL 로 할 수 없어 Java 마이그레이션으로 한 번만 실행한다.
+ * <p>
+ * - url_hash 마다 (created_at, id) 가 가장 큰 기사 하나만 읽는다 (레거시 사용자별 복사본은 건너뜀)
+ * → (keyword, url_hash) 가 겹치지 않으므로 단순 INSERT
+ * - id 커서로 청크 단위 조회, 본문 컬럼은 읽지 않음
+ */
+public class V14__Backfill_article_keyword extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V14__Backfill_article_keyword.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String SELECT_SQL = """
+            SELECT a.id, a.url_hash, a.created_at, a.keywords_json
+            FROM news_articles a
+            WHERE a.url_hash IS NOT NULL AND a.keywords_json IS NOT NULL AND a.id > ?
+            AND NOT EXISTS (SELECT 1 FROM news_articles b
+                            WHERE b.url_hash = a.url_hash
+                            AND (b.created_at > a.created_at OR (b.created_at = a.created_at AND b.id > a.id)))
+            ORDER BY a.id
+            LIMIT ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO article_keyword (keyword, url_hash, article_id, created_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private record Row(String keyword, String urlHash, long articleId, Timestamp createdAt) {
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        long lastId = 0L;
+        while (true) {
+            List<Row> rows = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            jdbc.query(SELECT_SQL, rs -> {
+                long id = rs.getLong("id");
+                ids.add(id);
+                List<String> keywords;
+                try {
+                    keywords = ArticleKeywords.normalized(ArticleKeywords.read(rs.getString("keywords_json")));
+                } catch (Exception e) {
+                    log.warn("[article_keyword backfill] unreadable keywords_json: id={}", id);
+                    return;
+                }
+                for (String keyword : keywords) {
+                    rows.add(new Row(keyword, rs.getString("url_hash"), id, rs.getTimestamp("created_at")));
+                }
+            }, lastId, CHUNK_SIZE);
+            if (ids.isEmpty()) break;
+            lastId = ids.get(ids.size() - 1);
+
+            if (rows.isEmpty()) continue;
+            jdbc.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.keyword());
+                ps.setString(2, row.urlHash());
+                ps.setLong(3, row.articleId());
+                ps.setTimestamp(4, row.createdAt());
+            });
+        }
+    }
+}
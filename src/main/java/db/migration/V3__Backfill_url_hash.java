@@ -0,0 +1,52 @@
+package db.migration;
+
+import com.mysite.sbb.util.UrlCanonicalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기존 news_articles 행의 url_hash 백필 (V2 에서 추가한 컬럼)
+ * <p>
+ * 해시는 UrlCanonicalizer 규칙이라 SQL 로 계산할 수 없어 Java 마이그레이션으로 한 번만 실행한다.
+ * <p>
+ * - id 커서로 청크 단위 조회 (id, url 만) → JDBC batch UPDATE
+ * - 같은 사용자가 정규화하면 같은 URL 을 여러 번 저장해 둔 경우 가장 최근 행만 해시를 갖게 한다.
+ * (다음 V4 의 (user_id, url_hash) 유니크 키를 위해. 행은 댓글 FK 가 있을 수 있어 지우지 않음)
+ */
+public class V3__Backfill_url_hash extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        long lastId = 0L;
+        while (true) {
+            List<Object[]> updates = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            jdbc.query("SELECT id, url FROM news_articles WHERE url_hash IS NULL AND id > ? ORDER BY id LIMIT ?",
+                    rs -> {
+                        ids.add(rs.getLong("id"));
+                        String hash = UrlCanonicalizer.hash(rs.getString("url"));
+                        if (hash != null) updates.add(new Object[]{hash, rs.getLong("id")});
+                    }, lastId, CHUNK_SIZE);
+            if (ids.isEmpty()) break;
+            lastId = ids.get(ids.size() - 1);
+            if (!updates.isEmpty()) jdbc.batchUpdate("UPDATE news_articles SET url_hash = ? WHERE id = ?", updates);
+        }
+
+        List<Object[]> older = jdbc.query("""
+                SELECT a.id FROM news_articles a
+                WHERE a.user_id IS NOT NULL AND a.url_hash IS NOT NULL
+                AND EXISTS (SELECT 1 FROM news_articles b
+                            WHERE b.url_hash = a.url_hash AND b.user_id = a.user_id AND b.id > a.id)
+                """, (rs, i) -> new Object[]{rs.getLong("id")});
+        if (!older.isEmpty()) jdbc.batchUpdate("UPDATE news_articles SET url_hash = NULL WHERE id = ?", older);
+    }
+}
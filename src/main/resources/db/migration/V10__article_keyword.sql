@@ -0,0 +1,26 @@
+-- 키워드 역색인: 정규화 키워드 → 기사 (ArticleKeyword)
+
+create table article_keyword (
+    article_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    url_hash CHAR(64) not null,
+    keyword varchar(100) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- 키워드별 최신 기사 Seek Pagination
+create index idx_keyword_seek
+    on article_keyword (keyword, created_at, article_id);
+
+alter table article_keyword
+    add constraint uk_keyword_url unique (keyword, url_hash);
+
+-- FK 인덱스
+create index idx_keyword_article
+    on article_keyword (article_id);
+
+alter table article_keyword
+    add constraint FK_keyword_article
+    foreign key (article_id)
+    references news_articles (id);
@@ -0,0 +1,22 @@
+-- 공유 기사(user_id NULL)는 url_hash 당 한 행
+-- (user_id, url_hash) 유니크 키는 NULL 끼리 서로 다른 값으로 보므로 공유 기사 중복을 막지 못한다.
+-- 공유 행에서만 url_hash 를 갖는 생성 컬럼에 유니크 키를 건다. (레거시 사용자별 행은 NULL → 제약 없음)
+
+-- 이전에 비로그인으로 저장된 같은 URL 공유 행이 여러 개면 가장 오래된 행만 남기고 나머지는 해시를 비운다.
+-- (기존 기록 / 댓글이 가리킬 수 있어 행은 지우지 않음, DISTINCT 는 MySQL 이 같은 테이블 서브쿼리를 먼저 구체화하도록)
+update news_articles
+set url_hash = null
+where id in (select id
+             from (select distinct a.id
+                   from news_articles a
+                   where a.user_id is null
+                     and a.url_hash is not null
+                     and exists (select 1
+                                 from news_articles b
+                                 where b.user_id is null and b.url_hash = a.url_hash and b.id < a.id)) dup);
+
+alter table news_articles
+    add column shared_url_hash CHAR(64) generated always as (case when user_id is null then url_hash end);
+
+create unique index uk_news_shared_url
+    on news_articles (shared_url_hash);
@@ -0,0 +1,9 @@
+-- 레거시 사용자별 news_articles 행 → news_history (한 번만)
+-- 공유 기사 구조 이전에는 사용자마다 기사 행을 복사해서 저장했다 (user_id NOT NULL).
+-- 그 행들을 "자기 자신을 가리키는 기록"으로 옮겨서 내 기록 조회 / 개수 제한이 news_history 만 보면 되도록 한다.
+-- 새 코드는 이 마이그레이션 이후에만 기동하므로 news_history 는 비어 있다.
+
+insert into news_history (user_id, article_id, created_at)
+select user_id, id, created_at
+from news_articles
+where user_id is not null;
@@ -0,0 +1,14 @@
+-- 기존 news_articles 행 → company_feed (한 번만)
+-- (company, url_hash) 마다 (created_at, id) 가 가장 큰 행 하나 (레거시 사용자별 복사본 포함)
+-- idx_news_company_url_hash (company, url_hash, created_at, id) 로 더 최신 행 유무를 확인한다.
+
+insert into company_feed (company, url_hash, article_id, created_at)
+select a.company, a.url_hash, a.id, a.created_at
+from news_articles a
+where a.company is not null
+  and a.url_hash is not null
+  and not exists (select 1
+                  from news_articles b
+                  where b.company = a.company
+                    and b.url_hash = a.url_hash
+                    and (b.created_at > a.created_at or (b.created_at = a.created_at and b.id > a.id)));
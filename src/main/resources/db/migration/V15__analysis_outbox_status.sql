@@ -0,0 +1,8 @@
+-- analysis_outbox: 최대 시도 횟수를 넘긴 행은 DEAD 로 표시하고 릴레이 대상에서 제외 (AnalysisOutbox.Status)
+-- 이전 버전에서 attempts 가 소진된 채 남아 있던 행은 PENDING 으로 한 번 더 시도된 뒤 DEAD 가 된다.
+
+alter table analysis_outbox
+    add column status enum ('DEAD','PENDING') not null default 'PENDING';
+
+create index idx_analysis_outbox_status
+    on analysis_outbox (status, id);
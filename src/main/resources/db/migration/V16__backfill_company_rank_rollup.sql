@@ -0,0 +1,17 @@
+-- 기존 company_rank_daily 행 → 주간 / 월간 롤업 (한 번만)
+-- 롤업 도입 전에 쌓인 일간 행으로 company_rank_rollup 을 채운다. 이후에는 RankingFlushBatch 가 하루 단위로 유지.
+-- 주 = 월요일 시작 (ISO, mod(dayofweek + 5, 7) = 월요일부터 지난 일수), 월 = 1일 시작. 기동 시 백필하던 컴포넌트가 이미 만든 행이 있어도 일간 합계로 덮어쓴다.
+
+insert into company_rank_rollup (grain, period_start, company, cnt)
+select 'WEEK', w.period_start, w.company, sum(w.cnt)
+from (select timestampadd(day, -mod(dayofweek(stat_date) + 5, 7), stat_date) as period_start, company, cnt
+      from company_rank_daily) w
+group by w.period_start, w.company
+on duplicate key update cnt = values(cnt);
+
+insert into company_rank_rollup (grain, period_start, company, cnt)
+select 'MONTH', m.period_start, m.company, sum(m.cnt)
+from (select timestampadd(day, 1 - dayofmonth(stat_date), stat_date) as period_start, company, cnt
+      from company_rank_daily) m
+group by m.period_start, m.company
+on duplicate key update cnt = values(cnt);
@@ -0,0 +1,6 @@
+-- 회사별 최신 기사(URL 중복 제거)는 company_feed 에서 읽고, 남은 용도였던 V13 백필도 끝났으므로
+-- news_articles 의 (company, url_hash, created_at, id) 인덱스는 쓰는 조회가 없다. (기사 INSERT 마다 유지 비용만 듦)
+-- 회사별 최신 기사 단건 조회는 idx_news_company_created (V9) 를 쓴다.
+
+alter table news_articles
+    drop index idx_news_company_url_hash;
@@ -0,0 +1,159 @@
+-- 기준 스키마 (이 마이그레이션 도입 전 ddl-auto: update 가 만들던 테이블 그대로)
+-- 이미 운영 중인 DB 는 spring.flyway.baseline-on-migrate 로 이 버전을 적용된 것으로 표시하고 V2 부터 실행한다.
+-- 그 뒤에 추가된 테이블 / 컬럼 / 제약은 모두 V2 이후 버전에서 만든다.
+
+create table chat_ban (
+    ban_days integer not null,
+    ban_started_at datetime(6) not null,
+    expire_date datetime(6),
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table chat_message_entity (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    from_user varchar(255),
+    text varchar(255),
+    type varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table comment_entity (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    news_id bigint,
+    user_id bigint,
+    content TEXT not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table company_rank_daily (
+    cnt integer not null,
+    stat_date date not null,
+    id bigint not null auto_increment,
+    company varchar(64) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table info_entity (
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    content TEXT,
+    modifier_name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table news_articles (
+    prob float(23) not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint,
+    company varchar(255),
+    content TEXT,
+    keywords_json TEXT,
+    news_time varchar(255),
+    prediction varchar(255),
+    sentiment varchar(255),
+    summary TEXT,
+    thumbnail_url varchar(255),
+    title varchar(255),
+    url varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table reaction_entity (
+    comment_id bigint,
+    id bigint not null auto_increment,
+    user_id bigint,
+    type enum ('DISLIKE','LIKE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table role (
+    id bigint not null auto_increment,
+    role_name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table site_user (
+    birth_date date,
+    is_admin bit not null,
+    create_date datetime(6),
+    id bigint not null auto_increment,
+    email varchar(255),
+    name varchar(255),
+    password varchar(255),
+    provider varchar(255),
+    provider_id varchar(255),
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table siteuser_roles (
+    role_id bigint not null,
+    siteuser_id bigint not null,
+    primary key (role_id, siteuser_id)
+) engine=InnoDB;
+
+alter table chat_ban
+    add constraint UK7sj3gxcvhp2reg09jncl11kth unique (user_id);
+
+alter table company_rank_daily
+    add constraint UKrqjtmtbt30a63kyif67ko3xx7 unique (stat_date, company);
+
+alter table news_articles
+    add constraint UKhv80lyn4pdn7gr3fw099grdst unique (user_id, url);
+
+alter table reaction_entity
+    add constraint uk_reaction_comment_user unique (comment_id, user_id);
+
+alter table role
+    add constraint UKiubw515ff0ugtm28p8g3myt0h unique (role_name);
+
+alter table site_user
+    add constraint UK8vlkw482t3gpnebxcm03ywk9p unique (email);
+
+alter table site_user
+    add constraint UKjerlw3g2urnh55wcrm2b5kqnj unique (username);
+
+alter table chat_ban
+    add constraint FK47ivxjcwa3ia5hex692xn196t
+    foreign key (user_id)
+    references site_user (id);
+
+alter table comment_entity
+    add constraint FKoipype7cgqm44es0ukay9ak2t
+    foreign key (news_id)
+    references news_articles (id);
+
+alter table comment_entity
+    add constraint FKbqb90oykljj29t47spuom3pew
+    foreign key (user_id)
+    references site_user (id);
+
+alter table news_articles
+    add constraint FK_news_user
+    foreign key (user_id)
+    references site_user (id);
+
+alter table reaction_entity
+    add constraint FKak2hebyet7i2s03iwjm6tv8ma
+    foreign key (comment_id)
+    references comment_entity (id);
+
+alter table reaction_entity
+    add constraint FKc3pnefs3wdu14vuurdmkolhc1
+    foreign key (user_id)
+    references site_user (id);
+
+alter table siteuser_roles
+    add constraint FKcolsa2p7y31642en51yr659t8
+    foreign key (role_id)
+    references role (id);
+
+alter table siteuser_roles
+    add constraint FKg082n4ep0xkbjinpwdwdytuub
+    foreign key (siteuser_id)
+    references site_user (id);
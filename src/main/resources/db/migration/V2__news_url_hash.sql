@@ -0,0 +1,12 @@
+-- news_articles 정규화 URL 해시 (UrlCanonicalizer, SHA-256 hex)
+-- 기존 행의 값은 V3 (db.migration.V3__Backfill_url_hash) 이 채우고, 유니크 키는 그 다음 V4 에서 바꾼다.
+
+alter table news_articles
+    add column url_hash CHAR(64);
+
+create index idx_news_url_hash
+    on news_articles (url_hash);
+
+-- 회사별 최신 기사 (URL 중복 제거)
+create index idx_news_company_url_hash
+    on news_articles (company, url_hash, created_at, id);
@@ -0,0 +1,8 @@
+-- 사용자별 중복 기준을 원문 url → url_hash 로 변경
+-- FK_news_user(user_id) 가 쓸 인덱스가 남도록 새 키를 먼저 만든 뒤 기존 키를 지운다.
+
+alter table news_articles
+    add constraint UKen9dv8oq4wny5j2b2qmdlidjj unique (user_id, url_hash);
+
+alter table news_articles
+    drop constraint UKhv80lyn4pdn7gr3fw099grdst;
@@ -0,0 +1,11 @@
+-- 분석 요청 transactional outbox (AnalysisOutbox)
+
+create table analysis_outbox (
+    attempts integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    analysis_id varchar(64) not null,
+    last_error varchar(500),
+    payload TEXT not null,
+    primary key (id)
+) engine=InnoDB;
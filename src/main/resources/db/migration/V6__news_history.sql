@@ -0,0 +1,25 @@
+-- 사용자별 뉴스 기록 (기사는 news_articles 에 URL 당 한 번, 사용자 연결은 여기)
+
+create table news_history (
+    article_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_history_user_id
+    on news_history (user_id, id);
+
+alter table news_history
+    add constraint uk_history_user_article unique (user_id, article_id);
+
+alter table news_history
+    add constraint FK_history_article
+    foreign key (article_id)
+    references news_articles (id);
+
+alter table news_history
+    add constraint FK_history_user
+    foreign key (user_id)
+    references site_user (id);
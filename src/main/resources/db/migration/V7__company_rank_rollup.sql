@@ -0,0 +1,13 @@
+-- 주간 / 월간 랭킹 롤업 (CompanyRankRollup)
+
+create table company_rank_rollup (
+    period_start date not null,
+    cnt bigint not null,
+    id bigint not null auto_increment,
+    company varchar(64) not null,
+    grain enum ('MONTH','WEEK') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table company_rank_rollup
+    add constraint UKtrt8u57c3qkeab34kkv0fvdlp unique (grain, period_start, company);
@@ -0,0 +1,21 @@
+-- 회사별 뉴스 피드 (CompanyFeed)
+
+create table company_feed (
+    article_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    url_hash CHAR(64) not null,
+    company varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_feed_company_seek
+    on company_feed (company, created_at, article_id);
+
+alter table company_feed
+    add constraint uk_feed_company_url unique (company, url_hash);
+
+alter table company_feed
+    add constraint FK_feed_article
+    foreign key (article_id)
+    references news_articles (id);
@@ -0,0 +1,31 @@
+-- 조회 경로 인덱스 명시 (SchemaQueryPlanTest 가 EXPLAIN 으로 풀 스캔 여부를 검사)
+
+-- 레거시 사용자별 기사 행: 내 기록 id 커서
+create index idx_news_user_id
+    on news_articles (user_id, id);
+
+-- 회사별 최신 기사 (findTopByCompanyOrderByCreatedAt 등)
+create index idx_news_company_created
+    on news_articles (company, created_at, id);
+
+-- 레거시 월간 집계 (created_at 범위)
+create index idx_news_created_at
+    on news_articles (created_at);
+
+-- 기사별 댓글 최신순
+create index idx_comment_news_created
+    on comment_entity (news_id, created_at);
+
+-- 내 댓글 최신순
+create index idx_comment_user_created
+    on comment_entity (user_id, created_at);
+
+-- 댓글별 좋아요 / 싫어요 개수
+create index idx_reaction_comment_type
+    on reaction_entity (comment_id, type);
+
+-- 현재 밴 중인 유저 (만료일 범위 / NULL = 영구)
+create index idx_ban_expire_date
+    on chat_ban (expire_date);
+
+-- chat_message_entity 는 PK(id) 순서로만 읽으므로 추가 인덱스 없음
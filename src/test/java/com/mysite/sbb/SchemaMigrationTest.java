@@ -0,0 +1,171 @@
+package com.mysite.sbb;
+
+import com.mysite.sbb.util.UrlCanonicalizer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 기준 스키마(V1)만 있는 기존 DB 에 나머지 마이그레이션을 적용하는 경로 검사
+ * <p>
+ * 운영 DB 는 baseline-on-migrate 로 V1 을 건너뛰고 V2 부터 실행하므로,
+ * V1 까지만 적용한 임베디드 H2 (MySQL 모드) 에 레거시 행을 넣은 뒤 나머지를 적용해 본다.
+ */
+@DisplayName("기존 DB 마이그레이션")
+class SchemaMigrationTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        flyway("1").migrate();
+        jdbc.update("INSERT INTO site_user (id, username, is_admin) VALUES (1, 'alice', false)");
+    }
+
+    @Test
+    @DisplayName("url_hash 백필: 같은 사용자의 정규화 URL 중복은 최신 행만 해시를 가짐")
+    void backfillsUrlHash() {
+        insertLegacyArticle(1, "https://news.example.com/a?utm_source=x");
+        insertLegacyArticle(2, "https://news.example.com/a");
+        insertLegacyArticle(3, "https://news.example.com/b");
+
+        flyway(null).migrate();
+
+        assertThat(urlHash(1)).isNull();
+        assertThat(urlHash(2)).isEqualTo(UrlCanonicalizer.hash("https://news.example.com/a"));
+        assertThat(urlHash(3)).isEqualTo(UrlCanonicalizer.hash("https://news.example.com/b"));
+    }
+
+    @Test
+    @DisplayName("레거시 사용자별 기사 행은 자기 자신을 가리키는 news_history 기록으로 옮김")
+    void backfillsNewsHistory() {
+        insertLegacyArticle(1, "https://news.example.com/a");
+        insertArticle(2, null, "https://news.example.com/b");
+
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForList("SELECT article_id FROM news_history WHERE user_id = 1", Long.class))
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("company_feed 백필: (company, url_hash) 마다 가장 최신 기사 한 건")
+    void backfillsCompanyFeed() {
+        jdbc.update("INSERT INTO site_user (id, username, is_admin) VALUES (2, 'bob', false)");
+        insertLegacyArticle(1, "https://news.example.com/a");
+        insertArticle(2, 2L, "https://news.example.com/a");
+        insertLegacyArticle(3, "https://news.example.com/b");
+
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForList("SELECT article_id FROM company_feed WHERE company = 'Samsung' ORDER BY article_id",
+                Long.class)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("article_keyword 백필: URL 마다 최신 기사 하나의 정규화 키워드만, 읽을 수 없는 JSON 은 건너뜀")
+    void backfillsArticleKeywords() {
+        jdbc.update("INSERT INTO site_user (id, username, is_admin) VALUES (2, 'bob', false)");
+        insertLegacyArticle(1, "https://news.example.com/a");
+        insertArticle(2, 2L, "https://news.example.com/a");
+        insertLegacyArticle(3, "https://news.example.com/b");
+        jdbc.update("UPDATE news_articles SET keywords_json = ? WHERE id IN (1, 2)",
+                "[{\"word\": \"#HBM\", \"score\": 0.9}, {\"word\": \"실적\", \"score\": 0.5}]");
+        jdbc.update("UPDATE news_articles SET keywords_json = 'not json' WHERE id = 3");
+
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForList("SELECT CONCAT(keyword, ':', article_id) FROM article_keyword ORDER BY keyword",
+                String.class)).containsExactly("hbm:2", "실적:2");
+    }
+
+    @Test
+    @DisplayName("롤업 백필: 기존 일간 행을 월요일 시작 주 / 1일 시작 월로 합산, 이미 있는 롤업 행은 덮어씀")
+    void backfillsCompanyRankRollup() {
+        flyway("15").migrate();
+        insertDaily("2026-01-31", "Samsung", 3);  // 토요일
+        insertDaily("2026-02-01", "Samsung", 4);  // 일요일 (같은 주, 다른 달)
+        insertDaily("2026-02-02", "Samsung", 5);  // 월요일
+        insertDaily("2026-02-02", "SK", 1);
+        jdbc.update("INSERT INTO company_rank_rollup (grain, period_start, company, cnt) VALUES ('WEEK', '2026-01-26', 'Samsung', 1)");
+
+        flyway(null).migrate();
+
+        assertThat(jdbc.queryForList("""
+                SELECT CONCAT(grain, ':', period_start, ':', company, ':', cnt) FROM company_rank_rollup
+                ORDER BY grain, period_start, company
+                """, String.class)).containsExactly(
+                "MONTH:2026-01-01:Samsung:3",
+                "MONTH:2026-02-01:SK:1",
+                "MONTH:2026-02-01:Samsung:9",
+                "WEEK:2026-01-26:Samsung:7",
+                "WEEK:2026-02-02:SK:1",
+                "WEEK:2026-02-02:Samsung:5");
+    }
+
+    @Test
+    @DisplayName("공유 기사는 url_hash 당 한 행: 기존 중복은 가장 오래된 행만 남기고, 이후 같은 URL 은 무시")
+    void sharedArticlesAreUniquePerUrlHash() {
+        insertArticle(1, null, "https://news.example.com/a");
+        insertArticle(2, null, "https://news.example.com/a?fbclid=1");
+
+        flyway(null).migrate();
+
+        String hash = UrlCanonicalizer.hash("https://news.example.com/a");
+        assertThat(urlHash(1)).isEqualTo(hash);
+        assertThat(urlHash(2)).isNull();
+
+        // 같은 URL 공유 기사는 유니크 키 위반 (저장 경로는 ON DUPLICATE KEY 로 무시하고 id 를 다시 조회,
+        // H2 는 생성 컬럼 키에 ON DUPLICATE KEY 를 처리하지 못해 키 자체만 검사)
+        assertThatThrownBy(() -> jdbc.update("""
+                INSERT INTO news_articles (url, url_hash, user_id, created_at, prob)
+                VALUES (?, ?, NULL, CURRENT_TIMESTAMP, 0.5)
+                """, "https://news.example.com/a", hash))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        // 사용자별 레거시 행은 제약 대상이 아님
+        jdbc.update("UPDATE news_articles SET user_id = 1 WHERE id = 2");
+        jdbc.update("UPDATE news_articles SET url_hash = ? WHERE id = 2", hash);
+        assertThat(urlHash(2)).isEqualTo(hash);
+    }
+
+    private Flyway flyway(String target) {
+        var config = Flyway.configure().dataSource(dataSource);
+        if (target != null) config.target(target);
+        return config.load();
+    }
+
+    private void insertLegacyArticle(long id, String url) {
+        insertArticle(id, 1L, url);
+    }
+
+    private void insertArticle(long id, Long userId, String url) {
+        jdbc.update("""
+                INSERT INTO news_articles (id, user_id, url, company, created_at, prob)
+                VALUES (?, ?, ?, 'Samsung', TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP), 0.5)
+                """, id, userId, url, id);
+    }
+
+    private void insertDaily(String statDate, String company, int cnt) {
+        jdbc.update("INSERT INTO company_rank_daily (stat_date, company, cnt) VALUES (?, ?, ?)",
+                java.sql.Date.valueOf(statDate), company, cnt);
+    }
+
+    private String urlHash(long id) {
+        return jdbc.queryForObject("SELECT url_hash FROM news_articles WHERE id = ?", String.class, id);
+    }
+}
@@ -0,0 +1,192 @@
+package com.mysite.sbb;
+
+import com.mysite.sbb.chat.Ban.BanRepository;
+import com.mysite.sbb.comment.CommentRepository;
+import com.mysite.sbb.comment.Reaction.ReactionRepository;
+import com.mysite.sbb.comment.Reaction.ReactionType;
+import com.mysite.sbb.fastapi.ArticleKeywordRepository;
+import com.mysite.sbb.fastapi.FastApiRepository;
+import com.mysite.sbb.fastapi.NewsHistoryRepository;
+import com.mysite.sbb.fastapi.optimization.CompanyRankDailyRepository;
+import com.mysite.sbb.user.SiteUser;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 마이그레이션(db/migration) 으로 만든 스키마에서 조회 쿼리가 풀 스캔으로 떨어지지 않는지 검사
+ * <p>
+ * - 임베디드 H2 (MySQL 모드) 에 Flyway 마이그레이션 적용
+ * - 각 Repository 메서드를 실제로 호출해 Hibernate 가 만든 SQL 을 모은 뒤 EXPLAIN
+ * - 실행 계획에 tableScan 이 보이면 실패
+ * <p>
+ * 입력 값에 따라 인덱스를 쓸 수 없는 쿼리(중간 일치 LIKE 등)는 FULL_SCAN_ALLOWED 에 이유와 함께 둔다.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.mysite.sbb.SchemaQueryPlanTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("마이그레이션 스키마 실행 계획")
+class SchemaQueryPlanTest {
+
+    // 회사명 부분 검색: '%q%' 는 어떤 B-tree 인덱스로도 범위를 좁힐 수 없음
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of("findByCompanyContainingIgnoreCase");
+
+    @Autowired
+    private FastApiRepository fastApiRepository;
+    @Autowired
+    private NewsHistoryRepository newsHistoryRepository;
+    @Autowired
+    private ArticleKeywordRepository articleKeywordRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ReactionRepository reactionRepository;
+    @Autowired
+    private BanRepository banRepository;
+    @Autowired
+    private CompanyRankDailyRepository companyRankDailyRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        SqlCapture.SQL.clear();
+    }
+
+    @Test
+    @DisplayName("FastApiRepository")
+    void fastApiRepository() {
+        assertNoFullScan("getMonthlyCompanyRanking_Legacy", () -> fastApiRepository.getMonthlyCompanyRanking_Legacy(now));
+        assertNoFullScan("findFirstByUrlHash", () -> fastApiRepository.findFirstByUrlHash("h"));
+        assertNoFullScan("findTopByCompanyOrderByCreatedAt", () -> fastApiRepository.findTopByCompanyOrderByCreatedAt("Samsung"));
+        assertNoFullScan("findLatestUniqueUrlByCompanySeek(first)",
+                () -> fastApiRepository.findLatestUniqueUrlByCompanySeek("Samsung", null, null, PageRequest.of(0, 11)));
+        assertNoFullScan("findLatestUniqueUrlByCompanySeek(next)",
+                () -> fastApiRepository.findLatestUniqueUrlByCompanySeek("Samsung", now, 10L, PageRequest.of(0, 11)));
+        assertNoFullScan("findByCompanyContainingIgnoreCase", () -> fastApiRepository.findByCompanyContainingIgnoreCase("sam"));
+        assertNoFullScan("findArticleIdsByUrlHashes", () -> fastApiRepository.findArticleIdsByUrlHashes(List.of("a", "b")));
+    }
+
+    @Test
+    @DisplayName("NewsHistoryRepository 내 기록 목록")
+    void newsHistoryRepository() {
+        assertNoFullScan("findUserArticlesSeek(first)", () -> newsHistoryRepository.findUserArticlesSeek(1L, null, PageRequest.of(0, 21)));
+        assertNoFullScan("findUserArticlesSeek(next)", () -> newsHistoryRepository.findUserArticlesSeek(1L, 10L, PageRequest.of(0, 21)));
+    }
+
+    @Test
+    @DisplayName("ArticleKeywordRepository 키워드 역색인")
+    void articleKeywordRepository() {
+        assertNoFullScan("findArticlesByKeywordSeek(first)",
+                () -> articleKeywordRepository.findArticlesByKeywordSeek("반도체", null, null, PageRequest.of(0, 21)));
+        assertNoFullScan("findArticlesByKeywordSeek(next)",
+                () -> articleKeywordRepository.findArticlesByKeywordSeek("반도체", now, 10L, PageRequest.of(0, 21)));
+    }
+
+    @Test
+    @DisplayName("CommentRepository")
+    void commentRepository() {
+        assertNoFullScan("findByNews_CompanyOrderByCreatedAtDesc", () -> commentRepository.findByNews_CompanyOrderByCreatedAtDesc("Samsung"));
+        assertNoFullScan("findByUser_UsernameOrderByCreatedAtDesc", () -> commentRepository.findByUser_UsernameOrderByCreatedAtDesc("alice"));
+        assertNoFullScan("findCommentPageByCompany", () -> commentRepository.findCommentPageByCompany("Samsung", PageRequest.of(1, 10)));
+    }
+
+    @Test
+    @DisplayName("ReactionRepository")
+    void reactionRepository() {
+        assertNoFullScan("findByComment_IdAndUser_Id", () -> reactionRepository.findByComment_IdAndUser_Id(1L, 1L));
+        assertNoFullScan("countByComment_IdAndType", () -> reactionRepository.countByComment_IdAndType(1L, ReactionType.LIKE));
+        assertNoFullScan("countGroupedByCommentIds", () -> reactionRepository.countGroupedByCommentIds(List.of(1L, 2L)));
+        assertNoFullScan("findUserReactionsByCommentIds", () -> reactionRepository.findUserReactionsByCommentIds(List.of(1L, 2L), "alice"));
+    }
+
+    @Test
+    @DisplayName("BanRepository")
+    void banRepository() {
+        SiteUser user = new SiteUser();
+        user.setId(1L);
+        assertNoFullScan("findByUser_Username", () -> banRepository.findByUser_Username("alice"));
+        assertNoFullScan("findByUser", () -> banRepository.findByUser(user));
+        assertNoFullScan("existsActiveBan", () -> banRepository.existsActiveBan("alice", now));
+        assertNoFullScan("findAllActiveUsers", () -> banRepository.findAllActiveUsers(now));
+    }
+
+    @Test
+    @DisplayName("CompanyRankDailyRepository")
+    void companyRankDailyRepository() {
+        LocalDate today = LocalDate.now();
+        assertNoFullScan("sumRangeTopN", () -> companyRankDailyRepository.sumRangeTopN(today.minusDays(7), today, 10));
+        assertNoFullScan("sumRange", () -> companyRankDailyRepository.sumRange(today.minusDays(30), today));
+    }
+
+    private void assertNoFullScan(String name, Runnable query) {
+        SqlCapture.SQL.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(SqlCapture.SQL);
+        assertThat(statements).as("%s: 실행된 SQL 없음", name).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (FULL_SCAN_ALLOWED.contains(name)) continue;
+            assertThat(plan).as("%s 풀 스캔%n%s", name, plan).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    /**
+     * 바인드 값 없이 계획만 본다. (H2 는 prepare 시점에 인덱스를 고름)
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                int params = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= params; i++) ps.setNull(i, Types.NULL);
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    /**
+     * Hibernate 가 실행하는 SQL 수집
+     */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.mysite.sbb;
+
+import com.mysite.sbb.fastapi.ArticleKeywordRepository;
+import com.mysite.sbb.fastapi.FastApiRepository;
+import com.mysite.sbb.fastapi.FastApiResponse;
+import com.mysite.sbb.fastapi.FastApiService;
+import com.mysite.sbb.fastapi.NewsHistoryRepository;
+import com.mysite.sbb.fastapi.optimization.DimensionRankingService;
+import com.mysite.sbb.fastapi.optimization.HeavyHitterRankingService;
+import com.mysite.sbb.fastapi.optimization.KeywordRankingService;
+import com.mysite.sbb.fastapi.optimization.RangeRankingService;
+import com.mysite.sbb.fastapi.optimization.RankingIncrementBuffer;
+import com.mysite.sbb.fastapi.optimization.RedisRankingService;
+import com.mysite.sbb.fastapi.optimization.RollingRankingService;
+import com.mysite.sbb.fastapi.optimization.TrendingRankingService;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.ResourceVersions;
+import com.mysite.sbb.util.UrlCanonicalizer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 마이그레이션(db/migration) 으로 만든 MySQL 스키마에서 공유 기사 중복 방지 검사
+ * <p>
+ * FastApiService.saveAll 의 INSERT ... ON DUPLICATE KEY UPDATE 는 V11 의 uk_news_shared_url (생성 컬럼 유니크 키) 에 기대는데,
+ * H2 MySQL 모드는 이 구문을 생성 컬럼 키로 처리하지 못하므로 실제 MySQL 에서만 돌린다.
+ * (H2 에서는 SchemaMigrationTest 가 제약 자체만 확인)
+ * <p>
+ * 통합 테스트와 같은 로컬 MySQL 에 전용 DB 를 만들어 Flyway 로 올리며, MySQL 에 접속할 수 없으면 건너뛴다.
+ */
+@EnabledIf("mysqlAvailable")
+@DisplayName("MySQL 마이그레이션 스키마 공유 기사 저장")
+class SharedArticleMySqlTest {
+
+    private static final String JDBC_URL =
+            "jdbc:mysql://localhost:3306/restapi_migration_test?createDatabaseIfNotExist=true&connectTimeout=2000";
+    private static final String USERNAME = "practice_user";
+    private static final String PASSWORD = "tiger";
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactionTemplate;
+    private String url;
+
+    // 기사 id 조회만 가로채서 "조회 → INSERT" 사이에 다른 트랜잭션이 먼저 넣은 상황을 만든다
+    private final FastApiRepository lookup = mock(FastApiRepository.class);
+
+    private FastApiService fastApiService;
+
+    static boolean mysqlAvailable() {
+        try (Connection ignored = DriverManager.getConnection(JDBC_URL, USERNAME, PASSWORD)) {
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(JDBC_URL, USERNAME, PASSWORD);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        // DB 를 실행마다 비우지 않으므로 URL 을 매번 새로 만든다
+        url = "https://news.example.com/" + UUID.randomUUID();
+
+        // 트랜잭션은 운영과 같이 DB 기본 격리 수준 (MySQL REPEATABLE READ)
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        fastApiService = service(lookup, jdbc);
+    }
+
+    @Test
+    @DisplayName("같은 URL 을 두 번 저장하면 공유 기사는 한 행")
+    void savesSameUrlOnce() {
+        when(lookup.findArticleIdsByUrlHashes(anyCollection())).thenAnswer(inv -> realLookup(inv.getArgument(0)));
+
+        fastApiService.saveAll(List.of(new FastApiService.SaveRequest(null, response(url))));
+        fastApiService.saveAll(List.of(new FastApiService.SaveRequest(null, response(url + "?utm_source=x"))));
+
+        assertThat(sharedRows()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("조회에서 못 찾은 기사가 이미 있으면 유니크 키로 INSERT 가 무시되고 기존 행을 씀")
+    void duplicateInsertKeepsSingleRow() {
+        when(lookup.findArticleIdsByUrlHashes(anyCollection())).thenAnswer(inv -> realLookup(inv.getArgument(0)));
+        fastApiService.saveAll(List.of(new FastApiService.SaveRequest(null, response(url))));
+        Long existingId = jdbc.queryForObject(
+                "SELECT id FROM news_articles WHERE url_hash = ?", Long.class, UrlCanonicalizer.hash(url));
+
+        // 두 번째 저장: 첫 조회는 아직 없다고 보고 INSERT, 다시 조회할 때 기존 행을 찾음
+        when(lookup.findArticleIdsByUrlHashes(anyCollection()))
+                .thenReturn(List.of())
+                .thenAnswer(inv -> realLookup(inv.getArgument(0)));
+        fastApiService.saveAll(List.of(new FastApiService.SaveRequest(null, response(url))));
+
+        assertThat(sharedRows()).isEqualTo(1);
+        assertThat(jdbc.queryForList("SELECT article_id FROM company_feed WHERE url_hash = ?",
+                Long.class, UrlCanonicalizer.hash(url))).containsExactly(existingId);
+    }
+
+    @Test
+    @DisplayName("조회 뒤 다른 트랜잭션이 같은 URL 을 커밋하면 (REPEATABLE READ 스냅샷에 없음) 그 행으로 피드와 기록을 씀")
+    void lostInsertRaceUsesCommittedRow() {
+        // 경쟁 상대: 별도 커넥션에서 같은 URL 을 저장하고 바로 커밋
+        JdbcTemplate otherJdbc = new JdbcTemplate(new DriverManagerDataSource(JDBC_URL, USERNAME, PASSWORD));
+        FastApiRepository otherLookup = mock(FastApiRepository.class);
+        when(otherLookup.findArticleIdsByUrlHashes(anyCollection()))
+                .thenAnswer(inv -> realLookup(otherJdbc, inv.getArgument(0)));
+        FastApiService other = service(otherLookup, otherJdbc);
+
+        // 이쪽 첫 조회(스냅샷 시작) 직후에 상대가 커밋
+        when(lookup.findArticleIdsByUrlHashes(anyCollection())).thenAnswer(inv -> {
+            List<Object[]> rows = realLookup(jdbc, inv.getArgument(0));
+            other.saveAll(List.of(new FastApiService.SaveRequest(null, response(url))));
+            return rows;
+        });
+        SiteUser alice = user();
+
+        transactionTemplate.executeWithoutResult(status ->
+                fastApiService.saveAll(List.of(new FastApiService.SaveRequest(alice, response(url)))));
+
+        Long committedId = jdbc.queryForObject(
+                "SELECT id FROM news_articles WHERE url_hash = ?", Long.class, UrlCanonicalizer.hash(url));
+        assertThat(sharedRows()).isEqualTo(1);
+        assertThat(jdbc.queryForList("SELECT article_id FROM company_feed WHERE url_hash = ?",
+                Long.class, UrlCanonicalizer.hash(url))).containsExactly(committedId);
+        assertThat(jdbc.queryForList("SELECT article_id FROM news_history WHERE user_id = ?",
+                Long.class, alice.getId())).containsExactly(committedId);
+    }
+
+    private FastApiService service(FastApiRepository repository, JdbcTemplate jdbcTemplate) {
+        return new FastApiService(repository, mock(UserService.class), mock(RestTemplate.class),
+                mock(SimpMessagingTemplate.class), mock(RedisRankingService.class), mock(RollingRankingService.class),
+                mock(RankingIncrementBuffer.class), mock(TrendingRankingService.class), mock(DimensionRankingService.class),
+                mock(RangeRankingService.class), mock(HeavyHitterRankingService.class), mock(ResourceVersions.class),
+                jdbcTemplate, mock(NewsHistoryRepository.class), mock(ArticleKeywordRepository.class),
+                mock(KeywordRankingService.class));
+    }
+
+    private SiteUser user() {
+        String username = "race-" + UUID.randomUUID();
+        jdbc.update("INSERT INTO site_user (username, is_admin) VALUES (?, false)", username);
+        SiteUser user = new SiteUser();
+        user.setId(jdbc.queryForObject("SELECT id FROM site_user WHERE username = ?", Long.class, username));
+        user.setUsername(username);
+        return user;
+    }
+
+    // FastApiRepository.findArticleIdsByUrlHashes 와 같은 조회 (잠금 없는 일반 SELECT)
+    private List<Object[]> realLookup(Collection<String> urlHashes) {
+        return realLookup(jdbc, urlHashes);
+    }
+
+    private static List<Object[]> realLookup(JdbcTemplate jdbc, Collection<String> urlHashes) {
+        String placeholders = String.join(",", Collections.nCopies(urlHashes.size(), "?"));
+        return jdbc.query("SELECT url_hash, MIN(id) FROM news_articles WHERE url_hash IN (" + placeholders + ")"
+                        + " GROUP BY url_hash",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)}, urlHashes.toArray());
+    }
+
+    private long sharedRows() {
+        return jdbc.queryForObject(
+                "SELECT COUNT(*) FROM news_articles WHERE user_id IS NULL AND url_hash = ?",
+                Long.class, UrlCanonicalizer.hash(url));
+    }
+
+    private static FastApiResponse response(String url) {
+        return new FastApiResponse(null, "title", "2026-01-01", "content", null, url,
+                "summary", "삼성전자", List.of(), "positive", "up", 0.9f, null);
+    }
+}
@@ -0,0 +1,295 @@
+package com.mysite.sbb.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.sbb.jwt.JwtConstants;
+import com.mysite.sbb.jwt.JwtTokenProvider;
+import com.mysite.sbb.user.Role.Role;
+import com.mysite.sbb.user.Role.RoleRepository;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * analyze 파이프라인 종단 간 처리량 벤치마크
+ * <p>
+ * 흐름:
+ * HTTP /api/analyze-async → analysis_outbox → Embedded Kafka(news-analyze) → FakeAnalyzer
+ * → analysis-progress / analysis-done → KafkaAnalysisListener → STOMP /topic/analyze-progress/{id} DONE
+ * <p>
+ * 측정:
+ * - 처리량(완료 분석 수 / 초), 요청 접수 지연, 종단 간 지연(p50/p90/p99/max)
+ * - 분석 1건당 DB statement 수, Redis 명령 수 (OperationCounters)
+ * <p>
+ * test 프로필을 켜지 않는다: test 프로필은 멱등 게이트 / 진행 중 레지스트리 / 완료 채널 / 리소스 버전 / 작업 임대를
+ * 메모리 구현으로 바꾸므로 Redis 명령 수가 운영보다 적게 나온다. 여기서는 운영 빈 그대로 로컬 Redis 를 쓴다.
+ * (메일 워커 등 같은 노드의 백그라운드 작업 호출도 함께 세어짐)
+ * <p>
+ * 실행: gradle benchmark (기본 test 태스크에서는 제외)
+ * - 결과는 로그와 build/reports/benchmark/analyze-pipeline.txt 로 남김
+ * - 로컬 MySQL(restapi_bench, Flyway) / Redis 는 application-benchmark.properties 설정을 사용
+ * - bench.requests / bench.concurrency / bench.duplicate-ratio / bench.timeout-seconds 로 부하 조정
+ * - analysis.fake-analyzer.* 로 분석 지연 조정
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"fake-analyzer", "benchmark"})
+@EmbeddedKafka(partitions = 2, topics = {"news-analyze", "analysis-progress", "analysis-done"})
+@Import(OperationCounters.class)
+class AnalyzePipelineBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyzePipelineBenchmark.class);
+
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 200);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 16);
+    private static final double DUPLICATE_RATIO = Double.parseDouble(System.getProperty("bench.duplicate-ratio", "0.2"));
+    private static final long TIMEOUT_SECONDS = Long.getLong("bench.timeout-seconds", 120);
+    private static final String BENCH_USER = "bench-user";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, CompletableFuture<Long>> doneAt = new ConcurrentHashMap<>();
+    private final Set<String> subscribed = ConcurrentHashMap.newKeySet();
+
+    private WebSocketStompClient stompClient;
+    private StompSession stompSession;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        listenerRegistry.getListenerContainers().forEach(container ->
+                ContainerTestUtils.waitForAssignment(container, embeddedKafka.getPartitionsPerTopic()));
+
+        Role roleUser = roleRepository.findByRoleName("ROLE_USER")
+                .orElseGet(() -> roleRepository.save(new Role("ROLE_USER")));
+        if (userRepository.findByUsername(BENCH_USER) == null) {
+            SiteUser user = new SiteUser();
+            user.setUsername(BENCH_USER);
+            user.setEmail(BENCH_USER + "@bench.example.com");
+            user.setRoles(Set.of(roleUser));
+            userRepository.save(user);
+        }
+        token = jwtTokenProvider.createAccessToken(BENCH_USER);
+
+        stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompSession = stompClient
+                .connectAsync("ws://localhost:" + port + "/analyze", new StompSessionHandlerAdapter() {
+                })
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (stompSession != null) stompSession.disconnect();
+        if (stompClient != null) stompClient.stop();
+    }
+
+    @Test
+    @DisplayName("analyze-async → Kafka → fake analyzer → WebSocket DONE 처리량/지연/호출 수 측정")
+    void measurePipeline() throws Exception {
+        List<String> urls = urls();
+        List<Long> acceptLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> endToEndLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        long dbBefore = OperationCounters.DB_STATEMENTS.sum();
+        long redisBefore = OperationCounters.REDIS_COMMANDS.sum();
+        long started = System.nanoTime();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        List<CompletableFuture<Void>> runs = new ArrayList<>();
+        for (String url : urls) {
+            runs.add(CompletableFuture.runAsync(() -> {
+                try {
+                    long t0 = System.nanoTime();
+                    JsonNode accepted = analyzeAsync(url);
+                    acceptLatencies.add(System.nanoTime() - t0);
+
+                    long finishedAt = accepted.path("cacheHit").asBoolean()
+                            ? System.nanoTime()
+                            : awaitDone(accepted.path("analysisId").asText());
+                    endToEndLatencies.add(finishedAt - t0);
+                } catch (Exception e) {
+                    failures.add(url + " → " + e);
+                }
+            }, clients));
+        }
+        CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+        clients.shutdown();
+
+        long elapsed = System.nanoTime() - started;
+        long dbOps = OperationCounters.DB_STATEMENTS.sum() - dbBefore;
+        long redisOps = OperationCounters.REDIS_COMMANDS.sum() - redisBefore;
+
+        String report = report(elapsed, acceptLatencies, endToEndLatencies, failures, dbOps, redisOps);
+        log.info(report);
+        writeReport(report);
+
+        assertThat(failures).isEmpty();
+    }
+
+    /**
+     * 중복 비율만큼 앞서 나온 URL 을 재사용 (진행 중 합류 / 캐시 히트 경로 포함)
+     */
+    private List<String> urls() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        int distinct = Math.max(1, (int) Math.round(REQUESTS * (1 - DUPLICATE_RATIO)));
+        List<String> urls = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i < distinct ? i : ThreadLocalRandom.current().nextInt(distinct);
+            urls.add("https://bench.example.com/" + run + "/news/" + index);
+        }
+        Collections.shuffle(urls);
+        return urls;
+    }
+
+    private JsonNode analyzeAsync(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/analyze-async"))
+                .header("Content-Type", "application/json")
+                .header(JwtConstants.AUTH_HEADER, JwtConstants.AUTH_PREFIX + token)
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("url", url, "id", BENCH_USER))))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("analyze-async status=" + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    /**
+     * 진행률 토픽 구독 후 DONE/ERROR 수신 시각(nanoTime) 반환
+     * (구독 전에 끝났어도 coalescer 가 구독 시점에 마지막 상태를 다시 보내 준다)
+     */
+    private long awaitDone(String analysisId) throws Exception {
+        CompletableFuture<Long> future = doneAt.computeIfAbsent(analysisId, id -> new CompletableFuture<>());
+        if (subscribed.add(analysisId)) {
+            subscribe(analysisId, future);
+        }
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * STOMP 세션 하나를 클라이언트 스레드들이 같이 쓰므로 전송(SUBSCRIBE)은 한 번에 하나씩
+     * (SockJS 세션에 동시에 쓰면 MessageDeliveryException)
+     */
+    private synchronized void subscribe(String analysisId, CompletableFuture<Long> future) {
+        stompSession.subscribe("/topic/analyze-progress/" + analysisId, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                Object stage = ((Map<?, ?>) payload).get("stage");
+                if ("DONE".equals(stage) || "ERROR".equals(stage)) {
+                    future.complete(System.nanoTime());
+                }
+            }
+        });
+    }
+
+    private static String report(long elapsedNanos, List<Long> accept, List<Long> endToEnd,
+                                 List<String> failures, long dbOps, long redisOps) {
+        double seconds = elapsedNanos / 1e9;
+        int completed = endToEnd.size();
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n=== analyze pipeline benchmark ===\n");
+        sb.append(String.format("requests=%d concurrency=%d duplicate-ratio=%.2f%n", REQUESTS, CONCURRENCY, DUPLICATE_RATIO));
+        sb.append(String.format("completed=%d failed=%d elapsed=%.2fs throughput=%.1f req/s%n",
+                completed, failures.size(), seconds, completed / seconds));
+        sb.append("accept latency   ").append(percentiles(accept)).append('\n');
+        sb.append("end-to-end       ").append(percentiles(endToEnd)).append('\n');
+        sb.append(String.format("db statements=%d (%.1f / analysis)  redis commands=%d (%.1f / analysis)%n",
+                dbOps, dbOps / (double) Math.max(1, completed), redisOps, redisOps / (double) Math.max(1, completed)));
+        failures.stream().limit(10).forEach(f -> sb.append("  failure: ").append(f).append('\n'));
+        return sb.toString();
+    }
+
+    private static String percentiles(List<Long> nanos) {
+        if (nanos.isEmpty()) return "n/a";
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        return String.format("p50=%dms p90=%dms p99=%dms max=%dms",
+                millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), sorted.get(sorted.size() - 1) / 1_000_000);
+    }
+
+    private static long millis(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000;
+    }
+
+    private static void writeReport(String report) throws IOException {
+        Path dir = Path.of(System.getProperty("bench.report-dir", "build/reports/benchmark"));
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("analyze-pipeline.txt"), report);
+    }
+}
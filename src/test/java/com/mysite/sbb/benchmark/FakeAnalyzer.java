@@ -0,0 +1,177 @@
+package com.mysite.sbb.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.sbb.fastapi.FastApiResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FastAPI 분석 서버 대역 (벤치마크 전용, 테스트 소스에만 존재)
+ * <p>
+ * 목적:
+ * - Hugging Face FastAPI 서버 없이 analyze 파이프라인 전체를 돌려 보기 위함
+ * - news-analyze 를 소비하고, 실제 서버와 같은 모양의
+ * analysis-progress / analysis-done 메시지를 지연을 두고 발행한다.
+ * <p>
+ * 설정 (analysis.fake-analyzer.*):
+ * - latency-ms : 요청 수신 ~ done 발행까지 기본 지연
+ * - jitter-ms  : 지연에 더해지는 0 ~ jitter 랜덤 값
+ * - progress-steps : done 전에 보내는 중간 진행률 개수
+ * - content-length : 생성할 기사 본문 길이 (결과 저장/압축 비용을 실제와 비슷하게)
+ * <p>
+ * 지연은 스케줄러로 처리하므로 Kafka 소비 스레드를 막지 않는다.
+ * fake-analyzer 프로필에서만 등록된다. (AnalyzePipelineBenchmark)
+ */
+@Component
+@Profile("fake-analyzer")
+class FakeAnalyzer {
+
+    private static final Logger log = LoggerFactory.getLogger(FakeAnalyzer.class);
+
+    private static final String PROGRESS_TOPIC = "analysis-progress";
+    private static final String DONE_TOPIC = "analysis-done";
+
+    private static final List<String> STAGES = List.of("CRAWL", "SUMMARY", "KEYWORD", "SENTIMENT", "PREDICT");
+    private static final List<String> COMPANIES = List.of(
+            "삼성전자", "SK하이닉스", "LG에너지솔루션", "현대차", "NAVER", "카카오", "셀트리온", "기아", "POSCO홀딩스", "KB금융");
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final int progressSteps;
+    private final int contentLength;
+
+    FakeAnalyzer(
+            KafkaTemplate<String, String> kafkaTemplate,
+            ObjectMapper objectMapper,
+            @Value("${analysis.fake-analyzer.latency-ms:1500}") long latencyMs,
+            @Value("${analysis.fake-analyzer.jitter-ms:300}") long jitterMs,
+            @Value("${analysis.fake-analyzer.progress-steps:4}") int progressSteps,
+            @Value("${analysis.fake-analyzer.content-length:3000}") int contentLength,
+            @Value("${analysis.fake-analyzer.threads:4}") int threads
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.progressSteps = progressSteps;
+        this.contentLength = contentLength;
+        this.scheduler = Executors.newScheduledThreadPool(threads);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 분석 요청 수신 → 진행률/완료 발행 예약 후 바로 ack
+     */
+    @KafkaListener(topics = "${kafka.topic.request:news-analyze}", groupId = "fake-analyzer")
+    public void onRequest(String message, Acknowledgment ack) {
+        try {
+            JsonNode root = objectMapper.readTree(message);
+            String analysisId = root.path("analysisId").asText(null);
+            String url = root.path("url").asText(null);
+            String userId = root.path("userId").asText(null);
+
+            if (analysisId == null || url == null) {
+                log.warn("[fake-analyzer] invalid request dropped: {}", message);
+            } else {
+                schedule(analysisId, url, userId);
+            }
+        } catch (Exception e) {
+            log.warn("[fake-analyzer] unparsable request dropped: {}", e.getMessage());
+        }
+        ack.acknowledge();
+    }
+
+    private void schedule(String analysisId, String url, String userId) {
+        long total = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+
+        for (int step = 1; step <= progressSteps; step++) {
+            int percent = step * 100 / (progressSteps + 1);
+            String stage = STAGES.get((step - 1) % STAGES.size());
+            long delay = total * step / (progressSteps + 1);
+            scheduler.schedule(() -> sendProgress(analysisId, percent, stage), delay, TimeUnit.MILLISECONDS);
+        }
+        scheduler.schedule(() -> sendDone(analysisId, url, userId), total, TimeUnit.MILLISECONDS);
+    }
+
+    private void sendProgress(String analysisId, int percent, String stage) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("analysisId", analysisId);
+        payload.put("percent", percent);
+        payload.put("stage", stage);
+        payload.put("message", stage + " 진행 중");
+        send(PROGRESS_TOPIC, analysisId, payload);
+    }
+
+    private void sendDone(String analysisId, String url, String userId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("analysisId", analysisId);
+        payload.put("userId", userId);
+        payload.put("result", result(url));
+        send(DONE_TOPIC, analysisId, payload);
+    }
+
+    private void send(String topic, String analysisId, Map<String, Object> payload) {
+        try {
+            kafkaTemplate.send(topic, analysisId, objectMapper.writeValueAsString(payload));
+        } catch (Exception e) {
+            log.warn("[fake-analyzer] send failed: topic={}, analysisId={}, err={}", topic, analysisId, e.getMessage());
+        }
+    }
+
+    /**
+     * 실제 분석 결과와 같은 필드/크기의 결과 생성 (같은 URL 이면 같은 회사/예측)
+     */
+    private FastApiResponse result(String url) {
+        int seed = Math.floorMod(url.hashCode(), COMPANIES.size());
+        String company = COMPANIES.get(seed);
+        boolean up = seed % 2 == 0;
+
+        String sentence = company + " 관련 기사 본문입니다. 실적과 업황, 수급 동향을 다룹니다. ";
+        String content = sentence.repeat(Math.max(1, contentLength / sentence.length()));
+
+        List<Map<String, Object>> keywords = List.of(
+                Map.of("word", company, "score", 0.92),
+                Map.of("word", "실적", "score", 0.71),
+                Map.of("word", "반도체", "score", 0.55));
+
+        return new FastApiResponse(
+                "success",
+                company + " 뉴스 " + Math.floorMod(url.hashCode(), 10_000),
+                "2026-01-01 09:00",
+                content,
+                null,
+                url,
+                company + " 관련 요약입니다.",
+                company,
+                keywords,
+                up ? "positive" : "negative",
+                up ? "up" : "down",
+                0.5f + seed / 20f,
+                null
+        );
+    }
+}
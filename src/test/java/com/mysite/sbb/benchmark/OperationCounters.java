@@ -0,0 +1,111 @@
+package com.mysite.sbb.benchmark;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 벤치마크용 DB / Redis 호출 카운터
+ * <p>
+ * - DataSource: Statement 의 execute* 호출 수 (JDBC batch 는 executeBatch 1회 = 1)
+ * - RedisConnectionFactory: 커넥션에 대한 명령 호출 수 (파이프라인 안의 명령도 각각 1)
+ * <p>
+ * 원래 빈을 클래스 프록시로 감싸므로 타입(HikariDataSource, LettuceConnectionFactory)은 그대로 유지된다.
+ * 백그라운드 작업(outbox 폴링, 진행률 flush 등)의 호출도 함께 세어진다.
+ */
+@TestConfiguration
+public class OperationCounters {
+
+    static final LongAdder DB_STATEMENTS = new LongAdder();
+    static final LongAdder REDIS_COMMANDS = new LongAdder();
+
+    private static final Set<String> REDIS_NON_COMMANDS = Set.of(
+            "close", "isClosed", "getNativeConnection", "isQueueing", "isPipelined",
+            "openPipeline", "closePipeline", "getSentinelConnection", "isSubscribed", "getSubscription",
+            "toString", "hashCode", "equals");
+
+    @Bean
+    static BeanPostProcessor operationCountingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource) {
+                    return wrapFactory(bean, "getConnection", OperationCounters::countingConnection);
+                }
+                if (bean instanceof RedisConnectionFactory) {
+                    return wrapFactory(bean, "getConnection", OperationCounters::countingRedisConnection);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private interface Wrapper {
+        Object wrap(Object target);
+    }
+
+    private static Object wrapFactory(Object bean, String methodName, Wrapper wrapper) {
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            return methodName.equals(invocation.getMethod().getName()) && result != null
+                    ? wrapper.wrap(result)
+                    : result;
+        });
+        return factory.getProxy();
+    }
+
+    private static Object countingConnection(Object connection) {
+        return Proxy.newProxyInstance(OperationCounters.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return countingStatement(result, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private static Object countingStatement(Object statement, Class<?> type) {
+        return Proxy.newProxyInstance(OperationCounters.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        DB_STATEMENTS.increment();
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object countingRedisConnection(Object connection) {
+        return Proxy.newProxyInstance(OperationCounters.class.getClassLoader(),
+                ClassUtils.getAllInterfaces(connection),
+                (proxy, method, args) -> {
+                    if (!REDIS_NON_COMMANDS.contains(method.getName())) {
+                        REDIS_COMMANDS.increment();
+                    }
+                    return invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.mysite.sbb.fastapi.FastApiEntity;
 import com.mysite.sbb.fastapi.FastApiRepository;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserRepository;
+import com.mysite.sbb.util.ResourceVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -46,6 +47,9 @@ class CommentServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ResourceVersions resourceVersions;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -314,6 +318,8 @@ class CommentServiceTest {
                 .findByUsername("testuser");
         verify(commentRepository, times(1))
                 .save(any(CommentEntity.class));
+        verify(resourceVersions, times(1))
+                .bump(ResourceVersions.comments("samsung"));
     }
 
     @Test
@@ -8,6 +8,7 @@ import com.mysite.sbb.fastapi.FastApiEntity;
 import com.mysite.sbb.fastapi.FastApiRepository;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserRepository;
+import com.mysite.sbb.util.ResourceVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -45,6 +46,8 @@ class OptimizedCommentSystemTest {
     private UserRepository userRepository;
     @Mock
     private StringRedisTemplate redisTemplate;
+    @Mock
+    private ResourceVersions resourceVersions;
 
     @InjectMocks
     private CommentService commentService;
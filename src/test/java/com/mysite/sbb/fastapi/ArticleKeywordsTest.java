@@ -0,0 +1,54 @@
+package com.mysite.sbb.fastapi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("키워드 정규화")
+class ArticleKeywordsTest {
+
+    @Test
+    @DisplayName("전각 / 대소문자 / 앞의 '#' / 연속 공백 차이는 같은 키워드")
+    void normalizesSurfaceDifferences() {
+        assertThat(ArticleKeywords.normalize("  #ＨＢＭ  메모리 ")).isEqualTo("hbm 메모리");
+        assertThat(ArticleKeywords.normalize("Hbm\t메모리")).isEqualTo("hbm 메모리");
+        assertThat(ArticleKeywords.normalize(" # ")).isNull();
+        assertThat(ArticleKeywords.normalize("x".repeat(ArticleKeywords.MAX_LENGTH + 1))).isNull();
+    }
+
+    @Test
+    @DisplayName("모델 키워드 목록은 순서를 유지한 채 중복 / 빈 값을 빼고 최대 개수까지만")
+    void extractsDistinctKeywordsInOrder() {
+        Map<String, Object> missingWord = new HashMap<>();
+        missingWord.put("score", 0.1);
+        List<Map<String, Object>> keywords = new ArrayList<>(List.of(
+                Map.of("word", "실적", "score", 0.9),
+                Map.of("keyword", "반도체"),
+                missingWord,
+                Map.of("word", " 실적", "score", 0.5)));
+        for (int i = 0; i < 30; i++) keywords.add(Map.of("word", "k" + i));
+
+        List<String> normalized = ArticleKeywords.normalized(keywords);
+
+        assertThat(normalized).startsWith("실적", "반도체", "k0").hasSize(ArticleKeywords.MAX_PER_ARTICLE);
+        assertThat(ArticleKeywords.normalized(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("keywords_json 왕복 (엔티티 getter / setter 가 같은 ObjectMapper 사용)")
+    void roundTripsThroughEntity() {
+        FastApiEntity entity = new FastApiEntity();
+        entity.setKeywords(List.of(Map.of("word", "반도체", "score", 0.5)));
+
+        FastApiEntity loaded = new FastApiEntity();
+        loaded.setKeywordsJson(entity.getKeywordsJson());
+
+        assertThat(loaded.getKeywords()).containsExactly(Map.of("word", "반도체", "score", 0.5));
+    }
+}
@@ -0,0 +1,285 @@
+package com.mysite.sbb.fastapi;
+
+import com.mysite.sbb.fastapi.optimization.DimensionRankingService;
+import com.mysite.sbb.fastapi.optimization.HeavyHitterRankingService;
+import com.mysite.sbb.fastapi.optimization.KeywordRankingService;
+import com.mysite.sbb.fastapi.optimization.RangeRankingService;
+import com.mysite.sbb.fastapi.optimization.RankingDimension;
+import com.mysite.sbb.fastapi.optimization.RankingIncrementBuffer;
+import com.mysite.sbb.fastapi.optimization.RedisRankingService;
+import com.mysite.sbb.fastapi.optimization.RollingRankingService;
+import com.mysite.sbb.fastapi.optimization.TrendingRankingService;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.ResourceVersions;
+import com.mysite.sbb.util.UrlCanonicalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("분석 결과 배치 저장")
+class FastApiServiceSaveAllTest {
+
+    private static final String URL_A = "https://news.example.com/a";
+    private static final String URL_B = "https://news.example.com/b";
+
+    @Mock
+    private FastApiRepository fastApiRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private RestTemplate restTemplate;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private RedisRankingService redisRankingService;
+    @Mock
+    private RollingRankingService rollingRankingService;
+    @Mock
+    private RankingIncrementBuffer rankingIncrementBuffer;
+    @Mock
+    private TrendingRankingService trendingRankingService;
+    @Mock
+    private DimensionRankingService dimensionRankingService;
+    @Mock
+    private RangeRankingService rangeRankingService;
+    @Mock
+    private HeavyHitterRankingService heavyHitterRankingService;
+    @Mock
+    private ResourceVersions resourceVersions;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private NewsHistoryRepository newsHistoryRepository;
+    @Mock
+    private ArticleKeywordRepository articleKeywordRepository;
+    @Mock
+    private KeywordRankingService keywordRankingService;
+
+    private FastApiService fastApiService;
+
+    @BeforeEach
+    void setUp() {
+        fastApiService = new FastApiService(fastApiRepository, userService, restTemplate, messagingTemplate,
+                redisRankingService, rollingRankingService, rankingIncrementBuffer, trendingRankingService, dimensionRankingService, rangeRankingService, heavyHitterRankingService, resourceVersions, jdbcTemplate, newsHistoryRepository,
+                articleKeywordRepository, keywordRankingService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("기사는 URL 당 한 번만 저장하고, 이미 있는 (user, url) 기록은 건너뛰고 나머지 기록을 한 번의 batch 로 저장")
+    void savesSharedArticlesAndNewHistoryOnly() {
+        SiteUser alice = user(1L, "alice");
+        SiteUser bob = user(2L, "bob");
+        String hashA = UrlCanonicalizer.hash(URL_A);
+        String hashB = UrlCanonicalizer.hash(URL_B);
+
+        // A 기사는 이미 있고 alice 기록도 있음, B 기사는 새로 INSERT
+        when(fastApiRepository.findArticleIdsByUrlHashes(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{hashA, 10L}));
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(ResultSetExtractor.class)))
+                .thenReturn(Map.of(hashB, 11L));
+        when(newsHistoryRepository.findUserUrlHashes(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, hashA}));
+        when(newsHistoryRepository.countByUser_Id(2L)).thenReturn(1L);
+
+        int saved = fastApiService.saveAll(List.of(
+                new FastApiService.SaveRequest(alice, response(URL_A, "삼성전자")),
+                new FastApiService.SaveRequest(bob, response(URL_A, "삼성전자")),
+                new FastApiService.SaveRequest(bob, response(URL_A + "?utm_source=x", "삼성전자")), // 배치 내 중복
+                new FastApiService.SaveRequest(null, response(URL_B, "LG전자"))
+        ));
+
+        assertThat(saved).isEqualTo(2);
+
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        // 기사 INSERT → 회사 피드 upsert → 기록 INSERT
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), rows.capture(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(rows.getAllValues().get(0))
+                .extracting(e -> ((FastApiEntity) e).getUrl())
+                .containsExactly(URL_B);
+        assertThat(rows.getAllValues().get(1))
+                .extracting(e -> ((FastApiEntity) e).getCompany())
+                .containsExactly("LG전자");
+        assertThat(rows.getAllValues().get(2)).hasSize(1);
+
+        // 분석 결과 positive / up → 긍정 감성 + 상승 전망 차원도 함께 +1
+        Set<RankingDimension> dims = EnumSet.of(RankingDimension.BULLISH, RankingDimension.POSITIVE);
+        verify(rankingIncrementBuffer).increment("삼성전자", dims);
+        verify(rankingIncrementBuffer).increment("LG전자", dims);
+        verify(newsHistoryRepository, times(1)).countByUser_Id(2L);
+        verify(newsHistoryRepository, never()).countByUser_Id(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("새 기사의 키워드는 정규화 / 중복 제거 후 역색인에 한 번의 batch 로 저장하고 키워드 랭킹에도 +1")
+    void indexesNormalizedKeywords() {
+        String hashB = UrlCanonicalizer.hash(URL_B);
+        when(fastApiRepository.findArticleIdsByUrlHashes(anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(ResultSetExtractor.class)))
+                .thenReturn(Map.of(hashB, 11L));
+        List<Map<String, Object>> keywords = List.of(
+                Map.of("word", " 반도체 ", "score", 0.9),
+                Map.of("word", "#HBM", "score", 0.8),
+                Map.of("word", "hbm", "score", 0.7));
+
+        fastApiService.saveAll(List.of(new FastApiService.SaveRequest(null,
+                new FastApiResponse(null, "title", "2026-01-01", "content", null, URL_B,
+                        "summary", "LG전자", keywords, "positive", "up", 0.9f, null))));
+
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        // 기사 INSERT → 회사 피드 upsert → 키워드 역색인 upsert
+        verify(jdbcTemplate, times(3)).batchUpdate(sql.capture(), rows.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(sql.getAllValues().get(2)).contains("article_keyword");
+        assertThat(rows.getAllValues().get(2)).hasSize(2);
+        verify(rankingIncrementBuffer).incrementKeywords(List.of("반도체", "hbm"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("조회 뒤 다른 트랜잭션이 같은 URL 을 먼저 커밋했으면 잠금 읽기로 찾은 그 기사 id 로 피드와 기록을 씀")
+    void usesCommittedArticleWhenInsertLosesRace() throws SQLException {
+        SiteUser alice = user(1L, "alice");
+        String hashA = UrlCanonicalizer.hash(URL_A);
+        // 첫 조회(스냅샷)에는 없고, INSERT 는 유니크 키로 무시됨 → FOR UPDATE 재조회에서 상대 행 10 을 찾음
+        when(fastApiRepository.findArticleIdsByUrlHashes(anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.query(contains("FOR UPDATE"), any(PreparedStatementSetter.class), any(ResultSetExtractor.class)))
+                .thenReturn(Map.of(hashA, 10L));
+        when(newsHistoryRepository.findUserUrlHashes(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        fastApiService.saveAll(List.of(new FastApiService.SaveRequest(alice, response(URL_A, "삼성전자"))));
+
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setters =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        // 기사 INSERT → 회사 피드 upsert → 기록 INSERT
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), rows.capture(), eq(1), setters.capture());
+
+        PreparedStatement feed = mock(PreparedStatement.class);
+        setters.getAllValues().get(1).setValues(feed, rows.getAllValues().get(1).iterator().next());
+        verify(feed).setLong(3, 10L);
+        PreparedStatement history = mock(PreparedStatement.class);
+        setters.getAllValues().get(2).setValues(history, rows.getAllValues().get(2).iterator().next());
+        verify(history).setLong(2, 10L);
+    }
+
+    @Test
+    @DisplayName("잠금 읽기로도 기사 id 를 못 찾으면 NULL id 로 쓰지 않고 실패 (배치 재처리)")
+    void failsWhenInsertedArticleIsMissing() {
+        when(fastApiRepository.findArticleIdsByUrlHashes(anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(ResultSetExtractor.class)))
+                .thenReturn(Map.of());
+        List<FastApiService.SaveRequest> requests =
+                List.of(new FastApiService.SaveRequest(null, response(URL_A, "삼성전자")));
+
+        assertThatThrownBy(() -> fastApiService.saveAll(requests))
+                .isInstanceOf(IllegalStateException.class);
+        // 기사 INSERT 한 번뿐, 피드 / 기록은 쓰지 않음
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("기사와 기록이 모두 이미 있으면 INSERT 하지 않음")
+    void skipsInsertWhenEverythingExists() {
+        SiteUser alice = user(1L, "alice");
+        String hashA = UrlCanonicalizer.hash(URL_A);
+        when(fastApiRepository.findArticleIdsByUrlHashes(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{hashA, 10L}));
+        when(newsHistoryRepository.findUserUrlHashes(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, hashA}));
+
+        int saved = fastApiService.saveAll(List.of(new FastApiService.SaveRequest(alice, response(URL_A, "삼성전자"))));
+
+        assertThat(saved).isZero();
+        verifyNoInteractions(jdbcTemplate, rankingIncrementBuffer);
+    }
+
+    @Test
+    @DisplayName("기록 INSERT 뒤 단계에서 실패하면 (롤백) 랭킹 버퍼에 반영하지 않고, 커밋된 경우에만 반영")
+    void defersRankingUntilCommit() {
+        SiteUser alice = user(1L, "alice");
+        String hashA = UrlCanonicalizer.hash(URL_A);
+        when(fastApiRepository.findArticleIdsByUrlHashes(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{hashA, 10L}));
+        when(newsHistoryRepository.findUserUrlHashes(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(newsHistoryRepository.countByUser_Id(1L))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1L);
+        List<FastApiService.SaveRequest> requests =
+                List.of(new FastApiService.SaveRequest(alice, response(URL_A, "삼성전자")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThatThrownBy(() -> fastApiService.saveAll(requests))
+                    .isInstanceOf(IllegalStateException.class);
+            TransactionSynchronizationManager.clearSynchronization();
+            verifyNoInteractions(rankingIncrementBuffer);
+
+            // 배치 재처리 → 커밋
+            TransactionSynchronizationManager.initSynchronization();
+            fastApiService.saveAll(requests);
+            verifyNoInteractions(rankingIncrementBuffer);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(rankingIncrementBuffer, times(1)).increment(eq("삼성전자"), anySet());
+    }
+
+    @Test
+    @DisplayName("기록이 30개를 넘으면 오래된 기록만 삭제 (기사는 유지)")
+    void limitDeletesOnlyHistoryRows() {
+        SiteUser alice = user(1L, "alice");
+        when(newsHistoryRepository.countByUser_Id(1L)).thenReturn(32L);
+        when(newsHistoryRepository.findOldestIds(eq(1L), any())).thenReturn(List.of(100L, 101L));
+
+        fastApiService.limitUserNewsRecords(alice);
+
+        verify(newsHistoryRepository).deleteByIdIn(List.of(100L, 101L));
+        verifyNoInteractions(fastApiRepository);
+    }
+
+    private static SiteUser user(Long id, String username) {
+        SiteUser user = new SiteUser();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+
+    private static FastApiResponse response(String url, String company) {
+        return new FastApiResponse(null, "title", "2026-01-01", "content", null, url,
+                "summary", company, List.of(), "positive", "up", 0.9f, null);
+    }
+}
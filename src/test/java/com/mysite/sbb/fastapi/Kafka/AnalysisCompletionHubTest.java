@@ -0,0 +1,95 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import com.mysite.sbb.fastapi.FastApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("분석 완료 long-poll 대기")
+class AnalysisCompletionHubTest {
+
+    private static final String ID = "a-1";
+
+    @Mock
+    private AnalysisResultStore analysisResultStore;
+
+    private AnalysisCompletionHub hub;
+    private LocalAnalysisCompletionChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        hub = new AnalysisCompletionHub(analysisResultStore);
+        channel = new LocalAnalysisCompletionChannel(hub);
+    }
+
+    @Test
+    @DisplayName("대기 중 완료 알림이 오면 모든 대기 요청이 같은 결과로 응답")
+    void completesParkedRequests() {
+        when(analysisResultStore.getResult(ID)).thenReturn(null);
+        DeferredResult<ResponseEntity<?>> first = hub.await(ID, 30_000);
+        DeferredResult<ResponseEntity<?>> second = hub.await(ID, 30_000);
+        assertThat(first.hasResult()).isFalse();
+
+        FastApiResponse result = response();
+        when(analysisResultStore.getResult(ID)).thenReturn(AnalysisResult.success(result));
+        channel.publish(List.of(ID));
+
+        assertThat(first.getResult()).isEqualTo(ResponseEntity.ok(result));
+        assertThat(second.getResult()).isEqualTo(ResponseEntity.ok(result));
+    }
+
+    @Test
+    @DisplayName("이미 결과가 있으면 즉시 응답")
+    void completesImmediatelyWhenAlreadyDone() {
+        FastApiResponse result = response();
+        when(analysisResultStore.getResult(ID)).thenReturn(AnalysisResult.success(result));
+
+        DeferredResult<ResponseEntity<?>> deferred = hub.await(ID, 30_000);
+
+        assertThat(deferred.getResult()).isEqualTo(ResponseEntity.ok(result));
+    }
+
+    @Test
+    @DisplayName("실패로 끝난 분석은 200 이 아니라 502 FAILED + 실패 코드로 응답")
+    void completesWithFailureStatus() {
+        when(analysisResultStore.getResult(ID)).thenReturn(AnalysisResult.failure("DONE_DEAD_LETTER"));
+
+        DeferredResult<ResponseEntity<?>> deferred = hub.await(ID, 30_000);
+
+        ResponseEntity<?> response = (ResponseEntity<?>) deferred.getResult();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(response.getBody()).isEqualTo(Map.of(
+                "status", "FAILED",
+                "code", "DONE_DEAD_LETTER",
+                "message", "분석 실패",
+                "analysisId", ID
+        ));
+    }
+
+    @Test
+    @DisplayName("이 인스턴스에 대기자가 없으면 결과 저장소를 읽지 않음")
+    void ignoresNotificationsWithoutWaiters() {
+        channel.publish(List.of("other"));
+
+        verify(analysisResultStore, never()).getResult(any());
+    }
+
+    private static FastApiResponse response() {
+        return new FastApiResponse(null, "title", "2026-01-01", "content", null, "https://news.example.com/a",
+                "summary", "삼성전자", List.of(), "positive", "up", 0.9f, null);
+    }
+}
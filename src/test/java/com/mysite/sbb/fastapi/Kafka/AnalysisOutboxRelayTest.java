@@ -0,0 +1,132 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("분석 요청 Outbox 릴레이")
+class AnalysisOutboxRelayTest {
+
+    @Mock
+    private AnalysisOutboxRepository outboxRepository;
+    @Mock
+    private AnalyzeKafkaProducer kafkaProducer;
+    @Mock
+    private AnalysisFailurePublisher failurePublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnalysisOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new AnalysisOutboxRelay(outboxRepository, kafkaProducer, failurePublisher, transactionManager, 10, 1, 20, 1_000);
+    }
+
+    @Test
+    @DisplayName("전송 완료된 행만 삭제하고, 실패한 행은 attempts 증가 후 남겨둔다")
+    void deletesOnlyAcknowledgedRows() {
+        AnalysisOutbox ok = row(1L, "a-1");
+        AnalysisOutbox failed = row(2L, "a-2");
+        when(outboxRepository.lockPending(10)).thenReturn(List.of(ok, failed));
+        when(kafkaProducer.send("a-1", "{}"))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaProducer.send("a-2", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int sent = relay.relayBatch();
+
+        assertThat(sent).isEqualTo(1);
+        verify(outboxRepository).deleteByIdIn(List.of(1L));
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("broker down");
+    }
+
+    @Test
+    @DisplayName("send 가 바로 던지는 예외(max.block.ms 초과 등)도 그 행만 실패로 기록하고 나머지는 전송")
+    void recordsSynchronousSendFailure() {
+        AnalysisOutbox blocked = row(1L, "a-1");
+        AnalysisOutbox ok = row(2L, "a-2");
+        when(outboxRepository.lockPending(10)).thenReturn(List.of(blocked, ok));
+        when(kafkaProducer.send("a-1", "{}"))
+                .thenThrow(new org.apache.kafka.common.errors.TimeoutException("metadata not available"));
+        when(kafkaProducer.send("a-2", "{}"))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+
+        verify(outboxRepository).deleteByIdIn(List.of(2L));
+        assertThat(blocked.getAttempts()).isEqualTo(1);
+        assertThat(blocked.getLastError()).contains("metadata not available");
+    }
+
+    @Test
+    @DisplayName("배치 전체에 마감 하나: 끝나지 않은 행은 행 수와 무관하게 한 번의 타임아웃 뒤 실패 처리")
+    void appliesOneDeadlinePerBatch() {
+        relay = new AnalysisOutboxRelay(outboxRepository, kafkaProducer, failurePublisher, transactionManager, 10, 1, 20, 100);
+        List<AnalysisOutbox> rows = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> row(id, "a-" + id)).toList();
+        when(outboxRepository.lockPending(10)).thenReturn(rows);
+        when(kafkaProducer.send(anyString(), eq("{}"))).thenReturn(new CompletableFuture<>());
+
+        long started = System.nanoTime();
+        assertThat(relay.relayBatch()).isZero();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // 행마다 기다리면 10 × 100ms
+        assertThat(elapsedMs).isLessThan(700);
+        assertThat(rows).allSatisfy(r -> {
+            assertThat(r.getAttempts()).isEqualTo(1);
+            assertThat(r.getLastError()).contains("timeout");
+        });
+        verify(outboxRepository, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("최대 시도 횟수에 닿은 행은 DEAD 로 남기고 대기자에게 실패를 알린다")
+    void marksDeadAndNotifiesAfterMaxAttempts() {
+        AnalysisOutbox last = row(1L, "a-1");
+        last.setAttempts(19);
+        AnalysisOutbox retry = row(2L, "a-2");
+        when(outboxRepository.lockPending(10)).thenReturn(List.of(last, retry));
+        when(kafkaProducer.send(anyString(), eq("{}")))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThat(relay.relayBatch()).isZero();
+
+        assertThat(last.getStatus()).isEqualTo(AnalysisOutbox.Status.DEAD);
+        assertThat(retry.getStatus()).isEqualTo(AnalysisOutbox.Status.PENDING);
+        verify(failurePublisher).publish("a-1", "OUTBOX_DEAD");
+        verifyNoMoreInteractions(failurePublisher);
+    }
+
+    @Test
+    @DisplayName("대기 중인 행이 없으면 아무것도 전송하지 않는다")
+    void noopWhenEmpty() {
+        when(outboxRepository.lockPending(10)).thenReturn(List.of());
+
+        assertThat(relay.relayBatch()).isZero();
+        verifyNoInteractions(kafkaProducer);
+    }
+
+    private static AnalysisOutbox row(Long id, String analysisId) {
+        AnalysisOutbox row = new AnalysisOutbox(analysisId, "{}");
+        row.setId(id);
+        return row;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import com.mysite.sbb.config.StompSubscriptionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("분석 진행률 병합 전송")
+class AnalysisProgressCoalescerTest {
+
+    private static final String ID = "a-1";
+    private static final String DEST = "/topic/analyze-progress/" + ID;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private StompSubscriptionRegistry subscriptionRegistry;
+    private AnalysisProgressCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRegistry = new StompSubscriptionRegistry();
+        coalescer = new AnalysisProgressCoalescer(messagingTemplate, subscriptionRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("한 주기 안의 여러 진행률은 마지막 값 하나만 전송")
+    void coalescesToLatest() {
+        subscribe("s1", "sub-0");
+
+        coalescer.offer(ID, 10, "CRAWL", "크롤링");
+        coalescer.offer(ID, 40, "SUMMARY", "요약");
+        coalescer.offer(ID, 30, "SUMMARY", "늦게 온 이전 값");
+        coalescer.flush();
+        coalescer.flush();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DEST), payload.capture());
+        assertThat((Map<String, Object>) payload.getValue()).containsEntry("percent", 40);
+    }
+
+    @Test
+    @DisplayName("구독자가 없으면 전송하지 않고, 늦게 구독하면 다음 flush 에서 현재 상태 전송")
+    void skipsWithoutSubscribersAndReplaysOnSubscribe() {
+        coalescer.offer(ID, 0, "START", "분석 요청 전송 중.");
+        coalescer.flush();
+        verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+
+        SessionSubscribeEvent event = subscribe("s1", "sub-0");
+        coalescer.onSubscribe(event);
+        coalescer.flush();
+
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DEST), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("종료 상태는 즉시 전송되고 이후 진행률로 덮어써지지 않음")
+    void terminalIsImmediateAndSticky() {
+        subscribe("s1", "sub-0");
+
+        coalescer.publishNow(ID, 100, "DONE", "분석 완료");
+        coalescer.offer(ID, 90, "PREDICT", "늦게 온 진행률");
+        coalescer.flush();
+
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DEST), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("세션이 끊기면 구독자 없음으로 처리")
+    void disconnectClearsSubscriptions() {
+        subscribe("s1", "sub-0");
+        assertThat(subscriptionRegistry.hasSubscribers(DEST)).isTrue();
+
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0],
+                SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT).getMessageHeaders());
+        subscriptionRegistry.onDisconnect(new SessionDisconnectEvent(this, message, "s1", CloseStatus.NORMAL));
+
+        assertThat(subscriptionRegistry.hasSubscribers(DEST)).isFalse();
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(DEST);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        SessionSubscribeEvent event = new SessionSubscribeEvent(this, message);
+        subscriptionRegistry.onSubscribe(event);
+        return event;
+    }
+}
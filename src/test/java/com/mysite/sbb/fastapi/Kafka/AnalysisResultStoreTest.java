@@ -0,0 +1,131 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mysite.sbb.fastapi.FastApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("분석 결과 near cache + 압축 저장")
+class AnalysisResultStoreTest {
+
+    private static final String ID = "a-1";
+    private static final String KEY = "analysis:result:v3:" + ID;
+
+    @Mock
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+    @Mock
+    private ValueOperations<String, byte[]> valueOps;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private AnalysisResultStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(binaryRedisTemplate.opsForValue()).thenReturn(valueOps);
+        store = new AnalysisResultStore(binaryRedisTemplate, objectMapper, 100, 300, 60_000);
+    }
+
+    @Test
+    @DisplayName("Redis 에는 압축된 바이트로 저장되고, 다른 인스턴스에서 읽으면 원래 값으로 복원")
+    void storesCompressedAndRoundTrips() throws Exception {
+        FastApiResponse resp = response("본문 ".repeat(2_000));
+
+        store.putResult(ID, resp);
+
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOps).set(eq(KEY), bytes.capture(), eq(10L), eq(TimeUnit.MINUTES));
+        int jsonSize = objectMapper.writeValueAsString(resp).getBytes(StandardCharsets.UTF_8).length;
+        assertThat(bytes.getValue().length).isLessThan(jsonSize / 10);
+
+        AnalysisResultStore otherNode = new AnalysisResultStore(binaryRedisTemplate, objectMapper, 100, 300, 60_000);
+        when(valueOps.get(KEY)).thenReturn(bytes.getValue());
+        assertThat(otherNode.getResult(ID)).isEqualTo(AnalysisResult.success(resp));
+    }
+
+    @Test
+    @DisplayName("한 번 읽은 결과는 near cache 에서 반환 (Redis 재조회 없음)")
+    void servesRepeatedReadsFromNearCache() {
+        store.putResult(ID, response("content"));
+
+        store.getResult(ID);
+        store.getResult(ID);
+
+        verify(valueOps, never()).get(anyString());
+    }
+
+    @Test
+    @DisplayName("아직 없는 결과는 짧게 캐시하고, 완료 알림을 받으면 바로 다시 조회")
+    void pendingIsCachedUntilCompletionNotice() throws Exception {
+        when(valueOps.get(KEY)).thenReturn(null);
+        assertThat(store.getResult(ID)).isNull();
+        assertThat(store.getResult(ID)).isNull();
+        verify(valueOps, times(1)).get(KEY);
+
+        store.onCompleted(ID);
+        reset(valueOps);
+        AnalysisResultStore writer = new AnalysisResultStore(binaryRedisTemplate, objectMapper, 100, 300, 60_000);
+        writer.putResult(ID, response("content"));
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOps).set(eq(KEY), bytes.capture(), anyLong(), any());
+        when(valueOps.get(KEY)).thenReturn(bytes.getValue());
+
+        assertThat(store.getResult(ID)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("실패는 빈 결과가 아니라 실패 코드로 저장되어 다른 인스턴스에서도 실패로 복원")
+    void storesFailureAsExplicitMarker() {
+        store.putFailure(ID, "DONE_DEAD_LETTER");
+
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOps).set(eq(KEY), bytes.capture(), eq(10L), eq(TimeUnit.MINUTES));
+        AnalysisResultStore otherNode = new AnalysisResultStore(binaryRedisTemplate, objectMapper, 100, 300, 60_000);
+        when(valueOps.get(KEY)).thenReturn(bytes.getValue());
+
+        AnalysisResult result = otherNode.getResult(ID);
+        assertThat(result.failed()).isTrue();
+        assertThat(result.failureCode()).isEqualTo("DONE_DEAD_LETTER");
+        assertThat(result.response()).isNull();
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 결과를 덮어쓰면 완료 알림으로 near cache 도 비워 새 결과를 읽음")
+    void overwriteInvalidatesNearCacheOnOtherNodes() {
+        store.putFailure(ID, "DONE_DEAD_LETTER");
+        assertThat(store.getResult(ID).failed()).isTrue();
+
+        AnalysisResultStore writer = new AnalysisResultStore(binaryRedisTemplate, objectMapper, 100, 300, 60_000);
+        FastApiResponse resp = response("content");
+        writer.putResult(ID, resp);
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(valueOps, times(2)).set(eq(KEY), bytes.capture(), anyLong(), any());
+        when(valueOps.get(KEY)).thenReturn(bytes.getValue());
+
+        store.onCompleted(ID);
+
+        assertThat(store.getResult(ID)).isEqualTo(AnalysisResult.success(resp));
+    }
+
+    private static FastApiResponse response(String content) {
+        return new FastApiResponse(null, "title", "2026-01-01", content, null, "https://news.example.com/a",
+                "summary", "삼성전자", List.of(), "positive", "up", 0.9f, null);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import com.mysite.sbb.fastapi.FastApiRepository;
+import com.mysite.sbb.fastapi.FastApiService;
+import com.mysite.sbb.fastapi.Kafka.DTO.AnalyzeAsyncResponseDTO;
+import com.mysite.sbb.user.UserRepository;
+import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.UrlCanonicalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("분석 요청 Single-flight 합류")
+class AnalyzeFetchAndSaveTest {
+
+    private static final String URL = "https://news.example.com/article/1";
+
+    @Mock
+    private FastApiRepository fastApiRepository;
+    @Mock
+    private FastApiService fastApiService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private AnalyzeKafkaProducer kafkaProducer;
+    @Mock
+    private AnalysisOutboxRepository outboxRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AnalysisProgressCoalescer progressCoalescer;
+    @Mock
+    private AnalysisFailurePublisher failurePublisher;
+
+    private InMemoryAnalysisInFlightRegistry registry;
+    private AnalyzeFetchAndSave analyzeFetchAndSave;
+
+    @BeforeEach
+    void setUp() {
+        registry = new InMemoryAnalysisInFlightRegistry();
+        analyzeFetchAndSave = new AnalyzeFetchAndSave(fastApiRepository, fastApiService, userService,
+                messagingTemplate, kafkaProducer, outboxRepository, userRepository, registry,
+                progressCoalescer, failurePublisher);
+        when(fastApiRepository.findFirstByUrlHash(UrlCanonicalizer.hash(URL))).thenReturn(null);
+    }
+
+    @Test
+    @DisplayName("같은 URL 동시 요청 → Kafka 요청은 1번, 후속 요청은 리더 analysisId 반환")
+    void concurrentRequestsShareAnalysisId() {
+        AnalyzeAsyncResponseDTO first = analyzeFetchAndSave.start(URL, "user1");
+        AnalyzeAsyncResponseDTO second = analyzeFetchAndSave.start(URL + "?utm_source=share#comments", "user2");
+        AnalyzeAsyncResponseDTO anonymous = analyzeFetchAndSave.start(URL, null);
+
+        assertThat(second.analysisId()).isEqualTo(first.analysisId());
+        assertThat(anonymous.analysisId()).isEqualTo(first.analysisId());
+        assertThat(second.cacheHit()).isFalse();
+
+        verify(outboxRepository, times(1)).save(any(AnalysisOutbox.class));
+        assertThat(registry.waiters(first.analysisId())).containsExactlyInAnyOrder("user1", "user2");
+    }
+
+    @Test
+    @DisplayName("분석 완료 후 같은 URL 요청 → 새 분석으로 시작")
+    void completedAnalysisReleasesUrl() {
+        AnalyzeAsyncResponseDTO first = analyzeFetchAndSave.start(URL, "user1");
+        registry.complete(first.analysisId());
+
+        AnalyzeAsyncResponseDTO next = analyzeFetchAndSave.start(URL, "user2");
+
+        assertThat(next.analysisId()).isNotEqualTo(first.analysisId());
+        assertThat(registry.waiters(first.analysisId())).isEmpty();
+        verify(outboxRepository, times(2)).save(any(AnalysisOutbox.class));
+    }
+
+    @Test
+    @DisplayName("Outbox INSERT 트랜잭션이 롤백되면 리더 등록을 풀고 실패 전달, 커밋되면 그대로 유지")
+    void releasesLeaderOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            AnalyzeAsyncResponseDTO rolledBack = analyzeFetchAndSave.start(URL, "user1");
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            verify(failurePublisher).publish(rolledBack.analysisId(), "START_ROLLED_BACK");
+
+            registry.complete(rolledBack.analysisId());
+            analyzeFetchAndSave.start(URL, "user2");
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+            verifyNoMoreInteractions(failurePublisher);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+    }
+}
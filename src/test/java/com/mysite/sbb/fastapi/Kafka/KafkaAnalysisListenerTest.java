@@ -0,0 +1,161 @@
+package com.mysite.sbb.fastapi.Kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysite.sbb.fastapi.FastApiService;
+import com.mysite.sbb.user.UserRepository;
+import com.mysite.sbb.user.UserService;
+import com.mysite.sbb.util.IdempotencyGate;
+import com.mysite.sbb.util.LocalIdempotencyGate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("analysis-done 배치 리스너 실패 처리")
+class KafkaAnalysisListenerTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private AnalysisProgressCoalescer progressCoalescer;
+    @Mock
+    private FastApiService fastApiService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private AnalysisResultStore analysisResultStore;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AnalysisInFlightRegistry inFlightRegistry;
+    @Mock
+    private AnalysisCompletionChannel completionChannel;
+    @Mock
+    private AnalysisFailurePublisher failurePublisher;
+    @Mock
+    private Acknowledgment ack;
+
+    private final IdempotencyGate gate = new LocalIdempotencyGate();
+    private KafkaAnalysisListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new KafkaAnalysisListener(new ObjectMapper(), messagingTemplate, progressCoalescer,
+                fastApiService, userService, analysisResultStore, gate, userRepository,
+                inFlightRegistry, completionChannel, failurePublisher);
+    }
+
+    @Test
+    @DisplayName("다른 컨슈머가 처리 중인 건은 예외 없이 그 인덱스부터 nack (재시도 예산 미사용)")
+    void nacksContendedRecord() {
+        gate.tryAcquire(processed("b"), lock("b"), Duration.ofMinutes(1));
+
+        listener.onDone(List.of(done("a"), done("b"), done("c")), ack);
+
+        verify(ack).nack(1, KafkaAnalysisListener.CONTENTION_BACKOFF);
+        verify(ack, never()).acknowledge();
+        // 나머지는 처리 완료 → 다시 받으면 ALREADY_DONE 으로 통과
+        assertThat(statusOf("a")).isEqualTo(IdempotencyGate.Status.ALREADY_DONE);
+        assertThat(statusOf("c")).isEqualTo(IdempotencyGate.Status.ALREADY_DONE);
+    }
+
+    @Test
+    @DisplayName("배치 저장이 실패하면 한 건씩 다시 처리해 실패 레코드 인덱스로 BatchListenerFailedException")
+    void isolatesFailingRecord() {
+        when(fastApiService.saveAll(anyList())).thenAnswer(inv -> {
+            List<FastApiService.SaveRequest> saves = inv.getArgument(0);
+            if (saves.stream().anyMatch(s -> "https://news/b".equals(s.response().url()))) {
+                throw new IllegalStateException("db down");
+            }
+            return saves.size();
+        });
+
+        assertThatThrownBy(() -> listener.onDone(List.of(done("a"), done("b"), done("c")), ack))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        verify(ack, never()).acknowledge();
+        // 앞 건은 처리 완료, 실패 건과 그 뒤 건은 락이 풀려 재처리 가능
+        assertThat(statusOf("a")).isEqualTo(IdempotencyGate.Status.ALREADY_DONE);
+        assertThat(statusOf("b")).isEqualTo(IdempotencyGate.Status.ACQUIRED);
+        assertThat(statusOf("c")).isEqualTo(IdempotencyGate.Status.ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("게이트(Redis) 장애는 예외 대신 배치 전체 nack → 재시도 예산 / DLT 미사용")
+    void nacksWholeBatchWhenGateIsDown() {
+        IdempotencyGate brokenGate = mock(IdempotencyGate.class);
+        when(brokenGate.tryAcquireAll(anyList(), anyList(), any())).thenThrow(new IllegalStateException("redis down"));
+        KafkaAnalysisListener brokenListener = new KafkaAnalysisListener(new ObjectMapper(), messagingTemplate,
+                progressCoalescer, fastApiService, userService, analysisResultStore, brokenGate, userRepository,
+                inFlightRegistry, completionChannel, failurePublisher);
+
+        brokenListener.onDone(List.of(done("a"), done("b")), ack);
+
+        verify(ack).nack(0, KafkaAnalysisListener.INFRA_BACKOFF);
+        verify(ack, never()).acknowledge();
+        verifyNoInteractions(fastApiService, failurePublisher);
+    }
+
+    @Test
+    @DisplayName("이미 처리된 건의 결과 재전송이 실패해도 배치는 그대로 커밋")
+    void ignoresResendFailureForProcessedRecord() {
+        gate.complete(processed("a"), lock("a"), Duration.ofMinutes(1));
+        when(analysisResultStore.getResult("a")).thenThrow(new IllegalStateException("redis down"));
+
+        listener.onDone(List.of(done("a")), ack);
+
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("대기자를 읽기 전에 url 매핑을 닫아 저장 도중 합류한 사용자가 빠지지 않음")
+    void closesUrlBeforeReadingWaiters() {
+        listener.onDone(List.of(done("a")), ack);
+
+        var order = inOrder(inFlightRegistry, fastApiService);
+        order.verify(inFlightRegistry).closeAll(List.of("a"));
+        order.verify(inFlightRegistry).waiters(List.of("a"));
+        order.verify(fastApiService).saveAll(anyList());
+        order.verify(inFlightRegistry).completeAll(List.of("a"));
+    }
+
+    @Test
+    @DisplayName("DLT 로 보낸 레코드는 대기자에게 실패를 알리고 in-flight 를 해제")
+    void notifiesFailureForRecoveredRecord() {
+        listener.onDoneRecovered(done("a"));
+
+        verify(failurePublisher).publish("a", "DONE_DEAD_LETTER");
+    }
+
+    private IdempotencyGate.Status statusOf(String analysisId) {
+        return gate.tryAcquire(processed(analysisId), lock(analysisId), Duration.ofMinutes(1));
+    }
+
+    private static String processed(String analysisId) {
+        return "analysis:done:processed:" + analysisId;
+    }
+
+    private static String lock(String analysisId) {
+        return "analysis:done:lock:" + analysisId;
+    }
+
+    private static String done(String analysisId) {
+        return "{\"analysisId\":\"" + analysisId + "\",\"userId\":null,"
+                + "\"result\":{\"url\":\"https://news/" + analysisId + "\",\"title\":\"t\"}}";
+    }
+}
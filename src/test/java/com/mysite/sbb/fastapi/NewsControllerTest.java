@@ -0,0 +1,41 @@
+package com.mysite.sbb.fastapi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("뉴스 API 입력 검증")
+class NewsControllerTest {
+
+    @Mock
+    private FastApiService fastApiService;
+
+    @InjectMocks
+    private NewsController newsController;
+
+    @Test
+    @DisplayName("임의 기간 랭킹: 1년을 넘는 기간은 조회하지 않고 400")
+    void rejectsRangeLongerThanOneYear() {
+        assertThatThrownBy(() -> newsController.getRangeRanking(
+                LocalDate.of(1, 1, 1), LocalDate.of(2026, 7, 1), null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> newsController.getRangeRanking(
+                LocalDate.of(2025, 7, 1), LocalDate.of(2026, 7, 2), null))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(fastApiService);
+    }
+}
@@ -0,0 +1,56 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("차원별 회사 랭킹")
+class DimensionRankingServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @InjectMocks
+    private DimensionRankingService service;
+
+    @Test
+    @DisplayName("분석 결과 값(영문/한글)을 차원으로 정규화, 모르는 값은 무시")
+    void normalizesAnalysisValues() {
+        assertThat(RankingDimension.of("up", "positive"))
+                .containsExactlyInAnyOrder(RankingDimension.BULLISH, RankingDimension.POSITIVE);
+        assertThat(RankingDimension.of("하락", "부정"))
+                .containsExactlyInAnyOrder(RankingDimension.BEARISH, RankingDimension.NEGATIVE);
+        assertThat(RankingDimension.of("보합", null)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("증가분은 그 날짜의 일간 키와 ISO 주(월요일) 키에 함께 반영")
+    void increasesDailyAndWeeklyKeys() {
+        LocalDate wednesday = LocalDate.of(2026, 7, 1);
+
+        service.increaseBy(wednesday, Map.of(RankingDimension.NEGATIVE, Map.of("SK", 2L)));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+        assertThat(keys.getValue()).containsExactly(
+                "rank:company:negative:daily:2026-07-01", "rank:company:negative:weekly:2026-06-29");
+        assertThat(args.getValue()).endsWith("SK", "2");
+    }
+}
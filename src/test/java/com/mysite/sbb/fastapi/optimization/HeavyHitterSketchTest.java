@@ -0,0 +1,92 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Count-Min heavy-hitter sketch")
+class HeavyHitterSketchTest {
+
+    @Test
+    @DisplayName("Zipf 분포 스트림: 상위 10개가 정확한 집계와 같고 추정 오차는 (e / width) * N 이내")
+    void matchesExactTopTenOnZipfStream() {
+        int distinct = 50_000;
+        int events = 500_000;
+        int width = 2048;
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, width, 100);
+        Map<String, Long> exact = new HashMap<>();
+
+        // Zipf(s=1) 누적 분포에서 역변환 샘플링
+        double[] cdf = new double[distinct];
+        double sum = 0;
+        for (int i = 0; i < distinct; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < events; i++) {
+            int idx = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            String company = "company-" + (idx < 0 ? -idx - 1 : idx);
+            sketch.add(company, 1);
+            exact.merge(company, 1L, Long::sum);
+        }
+
+        List<String> expectedTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<String> actualTop = new ArrayList<>();
+        sketch.topN(10).forEach(e -> actualTop.add(e.getKey()));
+        assertThat(actualTop).containsExactlyElementsOf(expectedTop);
+
+        long bound = (long) Math.ceil(Math.E / width * events);
+        for (String company : expectedTop) {
+            long estimate = sketch.estimate(company);
+            assertThat(estimate).isBetween(exact.get(company), exact.get(company) + bound);
+        }
+        assertThat(sketch.total()).isEqualTo(events);
+    }
+
+    @Test
+    @DisplayName("칸 단위로 더한 두 sketch 의 추정치는 한 sketch 에 모두 넣은 것과 같음")
+    void cellsMergeAcrossInstances() {
+        HeavyHitterSketch a = new HeavyHitterSketch(4, 64, 10);
+        HeavyHitterSketch b = new HeavyHitterSketch(4, 64, 10);
+        HeavyHitterSketch all = new HeavyHitterSketch(4, 64, 10);
+        for (int i = 0; i < 200; i++) {
+            String company = "c" + (i % 37);
+            (i % 2 == 0 ? a : b).add(company, i);
+            all.add(company, i);
+        }
+
+        long[][] merged = new long[4][64];
+        a.forEachCell((row, col, value) -> merged[row][col] += value);
+        b.forEachCell((row, col, value) -> merged[row][col] += value);
+
+        for (int i = 0; i < 37; i++) {
+            String company = "c" + i;
+            int[] cols = all.columns(company);
+            long estimate = Long.MAX_VALUE;
+            for (int r = 0; r < cols.length; r++) estimate = Math.min(estimate, merged[r][cols[r]]);
+            assertThat(estimate).isEqualTo(all.estimate(company));
+        }
+    }
+
+    @Test
+    @DisplayName("크기가 0 이하면 생성 실패")
+    void rejectsNonPositiveSize() {
+        assertThatThrownBy(() -> new HeavyHitterSketch(0, 10, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("키워드 빈도 랭킹")
+class KeywordRankingServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @InjectMocks
+    private KeywordRankingService service;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("증가분은 그 날짜의 일간 키와 ISO 주(월요일) 키에 함께 반영")
+    void increasesDailyAndWeeklyKeys() {
+        LocalDate wednesday = LocalDate.of(2026, 7, 1);
+
+        service.increaseBy(wednesday, Map.of("반도체", 3L));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+        assertThat(keys.getValue()).containsExactly(
+                "rank:keyword:daily:2026-07-01", "rank:keyword:weekly:2026-06-29");
+        assertThat(args.getValue()).endsWith("반도체", "3");
+    }
+
+    @Test
+    @DisplayName("증가분이 없으면 Redis 를 호출하지 않음")
+    void noopWhenEmpty() {
+        service.increaseBy(LocalDate.now(), Map.of());
+
+        verifyNoInteractions(stringRedisTemplate);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import com.mysite.sbb.fastapi.optimization.CompanyRankRollup.Grain;
+import com.mysite.sbb.fastapi.optimization.RangeRankingService.Piece;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("임의 기간 랭킹 (롤업 조합)")
+class RangeRankingServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private RedisRankingService redisRankingService;
+    @Mock
+    private CompanyRankRollupRepository companyRankRollupRepository;
+
+    @InjectMocks
+    private RangeRankingService service;
+
+    private static LocalDate d(int month, int day) {
+        return LocalDate.of(2026, month, day);
+    }
+
+    @Test
+    @DisplayName("끝난 월 → 끝난 주 → 남은 일간 순서로 가장 적은 조각으로 분해")
+    void plansMonthsThenWeeksThenDays() {
+        // 2026-03-25(수) ~ 2026-06-12(금), 오늘 6/20
+        List<Piece> pieces = RangeRankingService.plan(d(3, 25), d(6, 12), d(6, 20));
+
+        assertThat(pieces).containsExactlyInAnyOrder(
+                new Piece(Grain.MONTH, d(4, 1), d(5, 1)),
+                new Piece(Grain.MONTH, d(5, 1), d(6, 1)),
+                new Piece(null, d(3, 25), d(4, 1)),
+                new Piece(Grain.WEEK, d(6, 1), d(6, 8)),
+                new Piece(null, d(6, 8), d(6, 12)));
+    }
+
+    @Test
+    @DisplayName("진행 중인 주 / 월은 롤업 대신 일간 행으로")
+    void usesDailyRowsForUnfinishedPeriods() {
+        // 월요일 6/1 ~ 6/22, 오늘 6/17(수) → 6/1, 6/8 주만 롤업
+        List<Piece> pieces = RangeRankingService.plan(d(6, 1), d(6, 22), d(6, 17));
+
+        assertThat(pieces).containsExactlyInAnyOrder(
+                new Piece(Grain.WEEK, d(6, 1), d(6, 8)),
+                new Piece(Grain.WEEK, d(6, 8), d(6, 15)),
+                new Piece(null, d(6, 15), d(6, 22)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("아직 이관 안 된 오늘 Redis 점수를 DB 합계에 더해 순위 계산")
+    void mergesPendingRedisCounts() {
+        LocalDate today = LocalDate.now();
+        when(redisRankingService.topCounts(any(), anyInt())).thenReturn(Map.of());
+        when(redisRankingService.topCounts(today, 100)).thenReturn(Map.of("SK", 30L));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new CompanyRankDto("Samsung", 20L), new CompanyRankDto("SK", 5L)));
+
+        List<CompanyRankDto> result = service.topN(today.minusDays(3), today.plusDays(1), 10);
+
+        assertThat(result).containsExactly(new CompanyRankDto("SK", 35L), new CompanyRankDto("Samsung", 20L));
+        // 일간 ZSET 전체를 읽지 않고, DB 쪽도 후보 수만큼만
+        verify(redisRankingService, never()).getAllCounts(any());
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(contains("LIMIT ?"), any(RowMapper.class), args.capture());
+        assertThat(args.getValue()[args.getValue().length - 1]).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("하루치 이관 후 그 날짜의 ISO 주 / 월 롤업만 재계산")
+    void refreshesWeekAndMonthOfDate() {
+        service.refreshRollups(d(7, 1)); // 수요일
+
+        verify(companyRankRollupRepository).refresh("WEEK", d(6, 29), d(7, 6));
+        verify(companyRankRollupRepository).refresh("MONTH", d(7, 1), d(8, 1));
+    }
+}
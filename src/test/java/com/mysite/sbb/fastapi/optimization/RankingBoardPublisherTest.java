@@ -0,0 +1,130 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.config.StompSubscriptionRegistry;
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("실시간 랭킹 보드 전송")
+class RankingBoardPublisherTest {
+
+    private static final String DEST = "/topic/ranking/daily";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private RedisRankingService redisRankingService;
+    @Mock
+    private TrendingRankingService trendingRankingService;
+
+    private StompSubscriptionRegistry subscriptionRegistry;
+    private RankingBoardPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionRegistry = new StompSubscriptionRegistry();
+        publisher = new RankingBoardPublisher(messagingTemplate, subscriptionRegistry, redisRankingService, trendingRankingService);
+    }
+
+    @Test
+    @DisplayName("구독자가 없으면 Redis 도 읽지 않음")
+    void skipsWithoutSubscribers() {
+        publisher.publish();
+
+        verifyNoInteractions(redisRankingService, trendingRankingService, messagingTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("구독 직후 snapshot, 이후에는 바뀐 항목만 delta 로 전송하고 변화가 없으면 전송 안 함")
+    void snapshotThenDeltasOnlyOnChange() {
+        publisher.onSubscribe(subscribe("s1", "sub-0"));
+        when(redisRankingService.getTodayTop(10))
+                .thenReturn(List.of(rank("Samsung", 10), rank("SK", 5)))
+                .thenReturn(List.of(rank("Samsung", 10), rank("SK", 5)))
+                .thenReturn(List.of(rank("SK", 12), rank("Samsung", 10), rank("LG", 1)));
+
+        publisher.publish();
+        publisher.publish();
+        publisher.publish();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq(DEST), payload.capture());
+        Map<String, Object> snapshot = (Map<String, Object>) payload.getAllValues().get(0);
+        Map<String, Object> delta = (Map<String, Object>) payload.getAllValues().get(1);
+
+        assertThat(snapshot).containsEntry("type", "snapshot").containsEntry("version", 1L);
+        assertThat(delta).containsEntry("type", "delta").containsEntry("version", 2L);
+        assertThat((List<Map<String, Object>>) delta.get("changes")).containsExactly(
+                Map.of("rank", 1, "company", "SK", "count", 12L, "previousRank", 2),
+                Map.of("rank", 2, "company", "Samsung", "count", 10L, "previousRank", 1),
+                Map.of("rank", 3, "company", "LG", "count", 1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("빈 자리 채움 행(\"-\", 0)은 snapshot 에 싣지 않고, 보드가 그대로면 delta 도 보내지 않음")
+    void ignoresPlaceholderRows() {
+        publisher.onSubscribe(subscribe("s1", "sub-0"));
+        List<CompanyRankDto> padded = List.of(rank("Samsung", 10), rank("-", 0), rank("-", 0));
+        when(redisRankingService.getTodayTop(10)).thenReturn(padded);
+
+        publisher.publish();
+        publisher.publish();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DEST), payload.capture());
+        Map<String, Object> snapshot = (Map<String, Object>) payload.getValue();
+        assertThat((List<Map<String, Object>>) snapshot.get("entries")).containsExactly(
+                Map.of("rank", 1, "company", "Samsung", "count", 10L));
+        verify(redisRankingService, never()).getTodayTopN(anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("보드에서 빠진 회사는 removed 로 전달")
+    void reportsRemovedCompanies() {
+        Map<String, Object> delta = RankingBoardPublisher.delta("daily", 3,
+                List.of(rank("Samsung", 10), rank("SK", 5)),
+                List.of(rank("Samsung", 10)));
+
+        assertThat((List<Object>) delta.get("changes")).isEmpty();
+        assertThat((List<String>) delta.get("removed")).containsExactly("SK");
+    }
+
+    private static CompanyRankDto rank(String company, long count) {
+        return new CompanyRankDto(company, count);
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(DEST);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        SessionSubscribeEvent event = new SessionSubscribeEvent(this, message);
+        subscriptionRegistry.onSubscribe(event);
+        return event;
+    }
+}
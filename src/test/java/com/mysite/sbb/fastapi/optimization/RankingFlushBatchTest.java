@@ -0,0 +1,186 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.util.JobLease;
+import com.mysite.sbb.util.ResourceVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("일간 랭킹 chunk 이관")
+class RankingFlushBatchTest {
+
+    private static final LocalDate TARGET = LocalDate.of(2026, 1, 1);
+
+    @Mock
+    private RedisRankingService redisRankingService;
+    @Mock
+    private RollingRankingService rollingRankingService;
+    @Mock
+    private RangeRankingService rangeRankingService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private JobLease jobLease;
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RankingFlushBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        batch = new RankingFlushBatch(redisRankingService, rollingRankingService, rangeRankingService, jdbcTemplate, jobLease, resourceVersions, meterRegistry, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("chunk 마다 batch upsert 한 번, 모두 끝난 뒤 롤업 갱신 → Redis 키 삭제 + window 재생성")
+    void upsertsEachChunkThenDeletes() {
+        doAnswer(inv -> {
+            Consumer<Map<String, Integer>> sink = inv.getArgument(2);
+            sink.accept(Map.of("Samsung", 10, "SK", 5));
+            sink.accept(Map.of("LG", 1));
+            return null;
+        }).when(redisRankingService).scanCounts(eq(TARGET), eq(2), any());
+
+        int rows = batch.flush(TARGET);
+
+        assertThat(rows).isEqualTo(3);
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(anyString(), anyCollection(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        var order = inOrder(rangeRankingService, redisRankingService);
+        order.verify(rangeRankingService).refreshRollups(TARGET);
+        order.verify(redisRankingService).delete(TARGET);
+        verify(rollingRankingService).rebuild();
+        verify(resourceVersions).bump(ResourceVersions.RANKING);
+        assertThat(meterRegistry.counter("ranking.flush.rows").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.counter("ranking.flush.chunks").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("이관 중 DB 오류가 나면 Redis 키를 지우지 않음 (재실행 가능)")
+    void keepsRedisKeyOnFailure() {
+        doAnswer(inv -> {
+            Consumer<Map<String, Integer>> sink = inv.getArgument(2);
+            sink.accept(Map.of("Samsung", 10));
+            return null;
+        }).when(redisRankingService).scanCounts(eq(TARGET), eq(2), any());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> batch.flush(TARGET))
+                .isInstanceOf(IllegalStateException.class);
+        verify(redisRankingService, never()).delete(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("이관한 날짜에 늦게 들어온 증가분을 catch-up 하면 DB 값이 늘어남 (델타로 덮어쓰지 않음)")
+    void lateIncrementAfterFlushGrowsPersistedCount() {
+        JdbcTemplate h2 = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        h2.execute("create table company_rank_daily (cnt integer not null, stat_date date not null, "
+                + "company varchar(64) not null, unique (stat_date, company))");
+        RankingFlushBatch h2Batch = new RankingFlushBatch(redisRankingService, rollingRankingService, rangeRankingService,
+                h2, jobLease, resourceVersions, meterRegistry, 2);
+
+        // Redis 일간 키 + 이관 완료 표시를 메모리로 흉내
+        Map<String, Long> dailyKey = new HashMap<>();
+        AtomicBoolean flushedMark = new AtomicBoolean();
+        doAnswer(inv -> {
+            Map<String, Integer> chunk = new HashMap<>();
+            dailyKey.forEach((company, cnt) -> chunk.put(company, cnt.intValue()));
+            if (!chunk.isEmpty()) ((Consumer<Map<String, Integer>>) inv.getArgument(2)).accept(chunk);
+            return null;
+        }).when(redisRankingService).scanCounts(eq(TARGET), eq(2), any());
+        doAnswer(inv -> {
+            dailyKey.clear();
+            flushedMark.set(true);
+            return null;
+        }).when(redisRankingService).delete(TARGET);
+        when(redisRankingService.isFlushed(TARGET)).thenAnswer(inv -> flushedMark.get());
+        when(redisRankingService.restoreFlushed(eq(TARGET), anyMap())).thenAnswer(inv -> {
+            Map<String, Long> persisted = inv.getArgument(1);
+            persisted.forEach((company, cnt) -> dailyKey.merge(company, cnt, Long::sum));
+            flushedMark.set(false);
+            return true;
+        });
+        when(jobLease.tryAcquire(eq(RankingFlushBatch.LEASE_NAME), anyString(), any())).thenReturn(true);
+        when(redisRankingService.pendingDates(LocalDate.now())).thenReturn(List.of(TARGET));
+
+        dailyKey.put("Samsung", 100L);
+        h2Batch.flush(TARGET);
+
+        // 00:05 이관 뒤 버퍼 재시도로 델타만 든 일간 키가 다시 생김
+        dailyKey.put("Samsung", 3L);
+        h2Batch.flushPending();
+
+        Long cnt = h2.queryForObject("select cnt from company_rank_daily where stat_date = ? and company = ?",
+                Long.class, Date.valueOf(TARGET), "Samsung");
+        assertThat(cnt).isEqualTo(103L);
+        assertThat(flushedMark).isTrue();
+    }
+
+    @Test
+    @DisplayName("리스를 잡으면 남아 있는 지난 날짜를 오래된 순으로 이관 후 리스 해제")
+    void flushesPendingDatesInOrderUnderLease() {
+        LocalDate next = TARGET.plusDays(1);
+        when(jobLease.tryAcquire(eq(RankingFlushBatch.LEASE_NAME), anyString(), any())).thenReturn(true);
+        when(jobLease.renew(eq(RankingFlushBatch.LEASE_NAME), anyString(), any())).thenReturn(true);
+        when(redisRankingService.pendingDates(LocalDate.now())).thenReturn(List.of(TARGET, next));
+
+        int flushed = batch.flushPending();
+
+        assertThat(flushed).isEqualTo(2);
+        var order = inOrder(redisRankingService, jobLease);
+        order.verify(redisRankingService).scanCounts(eq(TARGET), eq(2), any());
+        order.verify(redisRankingService).scanCounts(eq(next), eq(2), any());
+        order.verify(jobLease).release(eq(RankingFlushBatch.LEASE_NAME), anyString());
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 리스를 잡고 있으면 아무것도 하지 않음")
+    void skipsWhenLeaseHeldElsewhere() {
+        when(jobLease.tryAcquire(eq(RankingFlushBatch.LEASE_NAME), anyString(), any())).thenReturn(false);
+
+        assertThat(batch.flushPending()).isZero();
+
+        verifyNoInteractions(redisRankingService, jdbcTemplate);
+        verify(jobLease, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("리스 연장에 실패하면 남은 날짜는 이관하지 않음")
+    void stopsWhenLeaseLost() {
+        when(jobLease.tryAcquire(eq(RankingFlushBatch.LEASE_NAME), anyString(), any())).thenReturn(true);
+        when(jobLease.renew(eq(RankingFlushBatch.LEASE_NAME), anyString(), any())).thenReturn(false);
+        when(redisRankingService.pendingDates(LocalDate.now())).thenReturn(List.of(TARGET, TARGET.plusDays(1)));
+
+        assertThat(batch.flushPending()).isEqualTo(1);
+
+        verify(redisRankingService).scanCounts(eq(TARGET), eq(2), any());
+        verify(redisRankingService, never()).scanCounts(eq(TARGET.plusDays(1)), anyInt(), any());
+    }
+}
@@ -0,0 +1,138 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.util.ResourceVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("랭킹 증가분 write-behind 버퍼")
+class RankingIncrementBufferTest {
+
+    @Mock
+    private RedisRankingService redisRankingService;
+    @Mock
+    private TrendingRankingService trendingRankingService;
+    @Mock
+    private DimensionRankingService dimensionRankingService;
+    @Mock
+    private HeavyHitterRankingService heavyHitterRankingService;
+    @Mock
+    private KeywordRankingService keywordRankingService;
+    @Mock
+    private ResourceVersions resourceVersions;
+
+    private RankingIncrementBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new RankingIncrementBuffer(redisRankingService, trendingRankingService, dimensionRankingService, heavyHitterRankingService, keywordRankingService, resourceVersions);
+    }
+
+    @Test
+    @DisplayName("여러 스레드의 증가분을 회사별로 합쳐 주기당 한 번만 반영")
+    void aggregatesConcurrentIncrements() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            String company = i % 4 == 0 ? "SK" : "Samsung";
+            pool.execute(() -> buffer.increment(company));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        buffer.flush();
+        buffer.flush();
+
+        verify(redisRankingService, times(1))
+                .increaseBy(LocalDate.now(), Map.of("Samsung", 750L, "SK", 250L));
+        verify(trendingRankingService, times(1)).increaseBy(Map.of("Samsung", 750L, "SK", 250L));
+        verify(resourceVersions, times(1)).bump(ResourceVersions.RANKING);
+    }
+
+    @Test
+    @DisplayName("반영에 실패하면 다음 주기에 다시 반영")
+    void retriesAfterFailure() {
+        doThrow(new IllegalStateException("redis down")).doNothing()
+                .when(redisRankingService).increaseBy(any(), anyMap());
+
+        buffer.increment("Samsung");
+        buffer.flush();
+        buffer.increment("Samsung");
+        buffer.flush();
+
+        verify(redisRankingService).increaseBy(LocalDate.now(), Map.of("Samsung", 2L));
+    }
+
+    @Test
+    @DisplayName("증가분이 없으면 Redis 를 호출하지 않음")
+    void noopWhenEmpty() {
+        buffer.flush();
+
+        verifyNoInteractions(redisRankingService, trendingRankingService, dimensionRankingService, resourceVersions);
+    }
+
+    @Test
+    @DisplayName("차원별 증가분도 회사별로 합쳐 한 번에 반영")
+    void aggregatesDimensionIncrements() {
+        buffer.increment("Samsung", Set.of(RankingDimension.BULLISH, RankingDimension.POSITIVE));
+        buffer.increment("Samsung", Set.of(RankingDimension.BULLISH));
+        buffer.increment("SK", Set.of());
+
+        buffer.flush();
+
+        verify(redisRankingService).increaseBy(LocalDate.now(), Map.of("Samsung", 2L, "SK", 1L));
+        verify(dimensionRankingService).increaseBy(LocalDate.now(), Map.of(
+                RankingDimension.BULLISH, Map.of("Samsung", 2L),
+                RankingDimension.POSITIVE, Map.of("Samsung", 1L)));
+    }
+
+    @Test
+    @DisplayName("키워드 증가분을 합쳐 반영하고, 실패하면 다음 주기에 다시 반영")
+    void aggregatesAndRetriesKeywordIncrements() {
+        doThrow(new IllegalStateException("redis down")).doNothing()
+                .when(keywordRankingService).increaseBy(any(), anyMap());
+
+        buffer.incrementKeywords(List.of("반도체", "실적"));
+        buffer.flush();
+        buffer.incrementKeywords(List.of("반도체"));
+        buffer.flush();
+
+        verify(keywordRankingService).increaseBy(LocalDate.now(), Map.of("반도체", 2L, "실적", 1L));
+        verify(resourceVersions, times(1)).bump(ResourceVersions.RANKING);
+    }
+
+    @Test
+    @DisplayName("sketch 모드: 정확한 일간 집계와 sketch 모두 전체 증가분 (상위 K 밖 회사도 빠지지 않음)")
+    void sketchModeKeepsExactDailyComplete() {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> all = Map.of("Samsung", 2L, "TinyCo", 1L);
+        when(heavyHitterRankingService.enabled()).thenReturn(true);
+
+        buffer.increment("Samsung");
+        buffer.increment("Samsung");
+        buffer.increment("TinyCo");
+        buffer.flush();
+
+        verify(redisRankingService).increaseBy(today, all);
+        var order = inOrder(redisRankingService, heavyHitterRankingService);
+        order.verify(redisRankingService).increaseBy(any(), anyMap());
+        order.verify(heavyHitterRankingService).offer(today, all);
+        order.verify(heavyHitterRankingService).publish(today, all.keySet());
+    }
+}
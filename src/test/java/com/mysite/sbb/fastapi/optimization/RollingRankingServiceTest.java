@@ -0,0 +1,120 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import com.mysite.sbb.util.JobLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("rolling window 랭킹")
+class RollingRankingServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOps;
+    @Mock
+    private CompanyRankDailyRepository companyRankDailyRepository;
+    @Mock
+    private JobLease jobLease;
+
+    private RollingRankingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RollingRankingService(stringRedisTemplate, companyRankDailyRepository, jobLease);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("오늘자 window 가 없으면 DB 합계 + 최근 일간 키로 한 번 만든 뒤 ZREVRANGE 로 조회")
+    void buildsOnceThenReadsTopN() {
+        LocalDate today = LocalDate.now();
+        String window = "rank:company:window:7d:" + today;
+        when(stringRedisTemplate.hasKey(window + ":ready")).thenReturn(false);
+        when(jobLease.tryAcquire(eq("rank-window:7d:" + today), anyString(), any())).thenReturn(true);
+        when(companyRankDailyRepository.sumRange(today.minusDays(7), today.plusDays(1)))
+                .thenReturn(List.<Object[]>of(new Object[]{"Samsung", 70L}));
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOps);
+        Set<ZSetOperations.TypedTuple<String>> top = new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("Samsung", 72.0), new DefaultTypedTuple<>("SK", 3.0)));
+        when(zSetOps.reverseRangeWithScores(window, 0, 9)).thenReturn(top);
+
+        List<CompanyRankDto> result = service.topN(7, 10);
+
+        assertThat(result).extracting(CompanyRankDto::company).containsExactly("Samsung", "SK");
+        assertThat(result.get(0).companyCount()).isEqualTo(72L);
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+        assertThat(keys.getValue()).startsWith(window, window + ":ready")
+                .contains("rank:company:daily:" + today, "rank:company:daily:" + today.minusDays(7))
+                .hasSize(2 + 8);
+        verify(jobLease).release(eq("rank-window:7d:" + today), anyString());
+    }
+
+    @Test
+    @DisplayName("이미 만들어진 window 는 DB 를 다시 읽지 않음")
+    void skipsBuildWhenReady() {
+        LocalDate today = LocalDate.now();
+        String window = "rank:company:window:30d:" + today;
+        when(stringRedisTemplate.hasKey(window + ":ready")).thenReturn(true);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(zSetOps.reverseRangeWithScores(window, 0, 9)).thenReturn(Set.of());
+
+        assertThat(service.topN(30, 10)).isEmpty();
+        verifyNoInteractions(companyRankDailyRepository);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 오늘자 window 를 만드는 중이면 DB 를 읽지 않고 어제자 window 로 응답")
+    void servesYesterdayWhileBuildingElsewhere() {
+        LocalDate today = LocalDate.now();
+        String window = "rank:company:window:7d:" + today;
+        String yesterday = "rank:company:window:7d:" + today.minusDays(1);
+        when(stringRedisTemplate.hasKey(window + ":ready")).thenReturn(false);
+        when(stringRedisTemplate.hasKey(yesterday + ":ready")).thenReturn(true);
+        when(jobLease.tryAcquire(anyString(), anyString(), any())).thenReturn(false);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(zSetOps.reverseRangeWithScores(yesterday, 0, 9))
+                .thenReturn(Set.of(new DefaultTypedTuple<>("Samsung", 60.0)));
+
+        assertThat(service.topN(7, 10)).extracting(CompanyRankDto::company).containsExactly("Samsung");
+        verifyNoInteractions(companyRankDailyRepository);
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("자정 전 refresh-ahead: 리스를 잡은 노드가 내일자 window 를 미리 만듦")
+    void prebuildsTomorrowUnderLease() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(jobLease.tryAcquire(startsWith("rank-window:"), anyString(), any())).thenReturn(true);
+        when(stringRedisTemplate.hasKey(anyString())).thenReturn(false);
+        when(companyRankDailyRepository.sumRange(any(), eq(tomorrow.plusDays(1)))).thenReturn(List.of());
+
+        service.prebuildTomorrow();
+
+        verify(companyRankDailyRepository).sumRange(tomorrow.minusDays(7), tomorrow.plusDays(1));
+        verify(companyRankDailyRepository).sumRange(tomorrow.minusDays(30), tomorrow.plusDays(1));
+        verify(jobLease).release(eq("rank-window:7d:" + tomorrow), anyString());
+        verify(jobLease).release(eq("rank-window:30d:" + tomorrow), anyString());
+    }
+}
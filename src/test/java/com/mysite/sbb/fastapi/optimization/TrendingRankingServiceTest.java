@@ -0,0 +1,74 @@
+package com.mysite.sbb.fastapi.optimization;
+
+import com.mysite.sbb.fastapi.CompanyRankDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("시간 감쇠 trending 랭킹")
+class TrendingRankingServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long EPOCH = HOUR * TrendingRankingService.HALF_LIVES_PER_EPOCH;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOps;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("epoch 시작 후 2 half-life 지난 증가분은 4배 가중치로 현재 epoch 키에 저장")
+    void weightsIncrementsByElapsedHalfLives() {
+        TrendingRankingService service = service(10 * EPOCH + 2 * HOUR);
+
+        service.increaseBy(Map.of("Samsung", 3L));
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+        assertThat(keys.getValue()).containsExactly("rank:company:trending:10", "rank:company:trending:9");
+        assertThat(args.getValue()).endsWith("Samsung", "12.0");
+    }
+
+    @Test
+    @DisplayName("조회 시 현재 시점까지 감쇠 적용, 새 epoch 에 쓰기가 없으면 이전 epoch 키를 읽음")
+    void decaysOnReadAndFallsBackToPreviousEpoch() {
+        TrendingRankingService service = service(10 * EPOCH + HOUR);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(zSetOps.reverseRangeWithScores("rank:company:trending:10", 0, 9)).thenReturn(Set.of());
+        Set<ZSetOperations.TypedTuple<String>> previous = new LinkedHashSet<>(List.of(
+                new DefaultTypedTuple<>("SK", 8.0 * (1 << 24))));
+        when(zSetOps.reverseRangeWithScores("rank:company:trending:9", 0, 9)).thenReturn(previous);
+
+        List<CompanyRankDto> result = service.topN(10);
+
+        // 이전 epoch 시작 기준 8 → 25 half-life 경과 → 8 * 2^24 / 2^25 = 4
+        assertThat(result).containsExactly(new CompanyRankDto("SK", 4L));
+    }
+
+    private TrendingRankingService service(long nowMillis) {
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(nowMillis), ZoneOffset.UTC);
+        return new TrendingRankingService(stringRedisTemplate, clock, 60);
+    }
+}
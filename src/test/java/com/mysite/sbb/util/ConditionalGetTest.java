@@ -0,0 +1,42 @@
+package com.mysite.sbb.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("조건부 GET (If-None-Match)")
+class ConditionalGetTest {
+
+    @Test
+    @DisplayName("ETag 가 같으면 body 를 만들지 않고 304")
+    void notModifiedSkipsBody() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<String> response = ConditionalGet.respond("W/\"r3\", \"r4\"", "r4",
+                CacheControl.noCache(), () -> "body" + calls.incrementAndGet());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"r4\"");
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("ETag 가 다르거나 없으면 200 + ETag + Cache-Control")
+    void modifiedReturnsBody() {
+        ResponseEntity<String> response = ConditionalGet.respond("\"r3\"", "r4",
+                CacheControl.noCache().cachePublic(), () -> "body");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("body");
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"r4\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache, public");
+        assertThat(ConditionalGet.respond(null, "r4", CacheControl.noCache(), () -> "body").getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mysite.sbb.util;
+
+import com.mysite.sbb.util.IdempotencyGate.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("멱등성 게이트 상태 전이")
+class LocalIdempotencyGateTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final LocalIdempotencyGate gate = new LocalIdempotencyGate();
+
+    @Test
+    @DisplayName("획득 → 처리 중 → 완료 후에는 ALREADY_DONE")
+    void acquireInFlightThenDone() {
+        assertThat(gate.tryAcquire("done:1", "lock:1", TTL)).isEqualTo(Status.ACQUIRED);
+        assertThat(gate.tryAcquire("done:1", "lock:1", TTL)).isEqualTo(Status.IN_FLIGHT);
+
+        gate.complete("done:1", "lock:1", TTL);
+
+        assertThat(gate.tryAcquire("done:1", "lock:1", TTL)).isEqualTo(Status.ALREADY_DONE);
+    }
+
+    @Test
+    @DisplayName("release 하면 다시 획득 가능")
+    void releaseAllowsRetry() {
+        gate.tryAcquire("done:1", "lock:1", TTL);
+        gate.release("lock:1");
+
+        assertThat(gate.tryAcquire("done:1", "lock:1", TTL)).isEqualTo(Status.ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("락 TTL 이 지나면 처리 중 상태가 풀린다")
+    void lockExpires() throws InterruptedException {
+        gate.tryAcquire("done:1", "lock:1", Duration.ofMillis(10));
+        Thread.sleep(30);
+
+        assertThat(gate.tryAcquire("done:1", "lock:1", TTL)).isEqualTo(Status.ACQUIRED);
+    }
+
+    @Test
+    @DisplayName("배치 판정은 입력 순서대로 반환")
+    void batchPreservesOrder() {
+        gate.tryAcquire("done:b", "lock:b", TTL);
+        gate.tryAcquire("done:c", "lock:c", TTL);
+        gate.complete("done:c", "lock:c", TTL);
+
+        List<Status> result = gate.tryAcquireAll(
+                List.of("done:a", "done:b", "done:c"),
+                List.of("lock:a", "lock:b", "lock:c"),
+                TTL);
+
+        assertThat(result).containsExactly(Status.ACQUIRED, Status.IN_FLIGHT, Status.ALREADY_DONE);
+    }
+}
@@ -0,0 +1,39 @@
+package com.mysite.sbb.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("작업 리스 소유권")
+class LocalJobLeaseTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final LocalJobLease lease = new LocalJobLease();
+
+    @Test
+    @DisplayName("한 owner 만 획득, 다른 owner 는 연장/해제 불가")
+    void onlyOwnerCanRenewOrRelease() {
+        assertThat(lease.tryAcquire("job", "a", TTL)).isTrue();
+        assertThat(lease.tryAcquire("job", "b", TTL)).isFalse();
+        assertThat(lease.renew("job", "b", TTL)).isFalse();
+
+        lease.release("job", "b");
+        assertThat(lease.renew("job", "a", TTL)).isTrue();
+
+        lease.release("job", "a");
+        assertThat(lease.tryAcquire("job", "b", TTL)).isTrue();
+    }
+
+    @Test
+    @DisplayName("TTL 이 지나면 다른 owner 가 가져가고 원래 owner 는 연장 실패")
+    void expiredLeaseCanBeTaken() {
+        lease.tryAcquire("job", "a", Duration.ZERO);
+
+        assertThat(lease.tryAcquire("job", "b", TTL)).isTrue();
+        assertThat(lease.renew("job", "a", TTL)).isFalse();
+    }
+}
@@ -0,0 +1,38 @@
+package com.mysite.sbb.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlCanonicalizerTest {
+
+    @Test
+    @DisplayName("추적 파라미터/fragment/모바일 호스트/끝 슬래시 차이는 같은 URL로 정규화")
+    void equivalentUrlsShareCanonicalForm() {
+        String canonical = UrlCanonicalizer.canonicalize("https://news.example.com/article/1?id=7");
+
+        assertThat(UrlCanonicalizer.canonicalize("http://m.news.example.com/article/1/?utm_source=kakao&id=7#top"))
+                .isEqualTo(canonical);
+        assertThat(UrlCanonicalizer.canonicalize("https://WWW.News.Example.com:443/article/1?fbclid=abc&id=7"))
+                .isEqualTo(canonical);
+        assertThat(canonical).isEqualTo("https://news.example.com/article/1?id=7");
+    }
+
+    @Test
+    @DisplayName("의미 있는 파라미터는 유지하고 이름순 정렬")
+    void keepsMeaningfulParamsSorted() {
+        assertThat(UrlCanonicalizer.canonicalize("https://n.news.naver.com/mnews/article/001/123?type=1&sid=101"))
+                .isEqualTo("https://n.news.naver.com/mnews/article/001/123?sid=101&type=1");
+        assertThat(UrlCanonicalizer.hash("https://a.com/x?p=1"))
+                .isNotEqualTo(UrlCanonicalizer.hash("https://a.com/x?p=2"));
+    }
+
+    @Test
+    @DisplayName("해시는 64자 hex, null/파싱 불가 값도 안전하게 처리")
+    void hashIsFixedWidth() {
+        assertThat(UrlCanonicalizer.hash("https://a.com/x")).hasSize(64).matches("[0-9a-f]{64}");
+        assertThat(UrlCanonicalizer.hash(null)).isNull();
+        assertThat(UrlCanonicalizer.canonicalize(" not a url ")).isEqualTo("not a url");
+    }
+}